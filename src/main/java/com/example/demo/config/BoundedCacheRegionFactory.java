@@ -0,0 +1,168 @@
+package com.example.demo.config;
+
+import com.example.demo.util.BoundedCache;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.cfg.spi.DomainDataRegionBuildingContext;
+import org.hibernate.cache.cfg.spi.DomainDataRegionConfig;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.cache.spi.support.RegionFactoryTemplate;
+import org.hibernate.cache.spi.support.StorageAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hibernate second-level cache regions backed by BoundedCache, so entity and
+ * query-result regions get the same in-process W-TinyLFU policy, size bound
+ * and hit/miss stats as the application caches. Registered through
+ * hibernate.cache.region.factory_class.
+ *
+ * The update-timestamps region is a plain map: it holds one entry per table
+ * and must never lose one, or cached query results could outlive a write.
+ */
+public class BoundedCacheRegionFactory extends RegionFactoryTemplate {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final String MAX_ENTRIES = "hibernate.cache.bounded.max_entries";
+    public static final String QUERY_MAX_ENTRIES = "hibernate.cache.bounded.query_max_entries";
+
+    private final Map<String, BoundedCache<Object, Object>> regions = new ConcurrentHashMap<>();
+    private int maxEntries = 10_000;
+    private int queryMaxEntries = 1_000;
+
+    @Override
+    protected void prepareForUse(SessionFactoryOptions options, Map<String, Object> configValues) {
+        maxEntries = intSetting(configValues, MAX_ENTRIES, maxEntries);
+        queryMaxEntries = intSetting(configValues, QUERY_MAX_ENTRIES, queryMaxEntries);
+    }
+
+    @Override
+    protected void releaseFromUse() {
+        regions.values().forEach(BoundedCache::invalidateAll);
+        regions.clear();
+    }
+
+    @Override
+    protected DomainDataStorageAccess createDomainDataStorageAccess(DomainDataRegionConfig regionConfig,
+                                                                    DomainDataRegionBuildingContext buildingContext) {
+        return new BoundedStorageAccess(region(regionConfig.getRegionName(), maxEntries));
+    }
+
+    @Override
+    protected StorageAccess createQueryResultsRegionStorageAccess(String regionName,
+                                                                  SessionFactoryImplementor sessionFactory) {
+        return new BoundedStorageAccess(region(qualify(regionName), queryMaxEntries));
+    }
+
+    @Override
+    protected StorageAccess createTimestampsRegionStorageAccess(String regionName,
+                                                                SessionFactoryImplementor sessionFactory) {
+        return new MapStorageAccess();
+    }
+
+    // ==================== STATS ====================
+
+    public List<Map<String, Object>> stats() {
+        List<Map<String, Object>> stats = new ArrayList<>();
+        regions.values().forEach(region -> stats.add(region.stats()));
+        return stats;
+    }
+
+    /** Region stats of the factory behind this EntityManagerFactory, empty if the cache is off or another provider. */
+    public static List<Map<String, Object>> stats(EntityManagerFactory entityManagerFactory) {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        if (sessionFactory.getCache().getRegionFactory() instanceof BoundedCacheRegionFactory factory) {
+            return factory.stats();
+        }
+        return List.of();
+    }
+
+    // ==================== HELPERS ====================
+
+    private BoundedCache<Object, Object> region(String name, int size) {
+        return regions.computeIfAbsent(name, n -> new BoundedCache<>("l2:" + n, size));
+    }
+
+    private static int intSetting(Map<String, Object> configValues, String key, int defaultValue) {
+        Object value = configValues.get(key);
+        return value == null ? defaultValue : Integer.parseInt(value.toString().trim());
+    }
+
+    private static final class BoundedStorageAccess implements DomainDataStorageAccess {
+        private final BoundedCache<Object, Object> cache;
+
+        BoundedStorageAccess(BoundedCache<Object, Object> cache) {
+            this.cache = cache;
+        }
+
+        @Override
+        public Object getFromCache(Object key, SharedSessionContractImplementor session) {
+            return cache.getIfPresent(key);
+        }
+
+        @Override
+        public void putIntoCache(Object key, Object value, SharedSessionContractImplementor session) {
+            cache.put(key, value);
+        }
+
+        @Override
+        public boolean contains(Object key) {
+            return cache.containsKey(key);
+        }
+
+        @Override
+        public void evictData() {
+            cache.invalidateAll();
+        }
+
+        @Override
+        public void evictData(Object key) {
+            cache.invalidate(key);
+        }
+
+        @Override
+        public void release() {
+            cache.invalidateAll();
+        }
+    }
+
+    private static final class MapStorageAccess implements StorageAccess {
+        private final Map<Object, Object> map = new ConcurrentHashMap<>();
+
+        @Override
+        public Object getFromCache(Object key, SharedSessionContractImplementor session) {
+            return map.get(key);
+        }
+
+        @Override
+        public void putIntoCache(Object key, Object value, SharedSessionContractImplementor session) {
+            map.put(key, value);
+        }
+
+        @Override
+        public boolean contains(Object key) {
+            return map.containsKey(key);
+        }
+
+        @Override
+        public void evictData() {
+            map.clear();
+        }
+
+        @Override
+        public void evictData(Object key) {
+            map.remove(key);
+        }
+
+        @Override
+        public void release() {
+            map.clear();
+        }
+    }
+}
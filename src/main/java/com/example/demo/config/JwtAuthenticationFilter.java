@@ -0,0 +1,44 @@
+package com.example.demo.config;
+
+import com.example.demo.dto.AuthenticatedUser;
+import com.example.demo.service.JwtService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Verifies the Bearer token once per request and exposes the caller as a
+ * request attribute. Requests without a valid token pass through
+ * unauthenticated; endpoints that need a user reject them when the
+ * AuthenticatedUser argument is resolved, and /api/admin requires the ADMIN
+ * role (see WebConfig).
+ */
+@Component
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final JwtService jwtService;
+
+    public JwtAuthenticationFilter(JwtService jwtService) {
+        this.jwtService = jwtService;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String authorization = request.getHeader("Authorization");
+        if (authorization != null && authorization.startsWith(BEARER_PREFIX)) {
+            AuthenticatedUser user = jwtService.authenticate(authorization.substring(BEARER_PREFIX.length()).trim());
+            if (user != null) {
+                request.setAttribute(AuthenticatedUser.REQUEST_ATTRIBUTE, user);
+            }
+        }
+        chain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.demo.config;
+
+import com.example.demo.entity.CartItem;
+import com.example.demo.entity.CheckoutStatus;
+import com.example.demo.entity.CodedEnumConverter;
+import com.example.demo.entity.OrderItem;
+import com.example.demo.entity.OrderStatus;
+import com.example.demo.entity.PaymentStatus;
+import com.example.demo.entity.ReturnStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Data fixes that ddl-auto=update cannot express. Runs once Hibernate has
+ * updated the schema and before the application serves requests.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class SchemaMigrationRunner implements InitializingBean {
+
+    private static final Logger log = LoggerFactory.getLogger(SchemaMigrationRunner.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SchemaMigrationRunner(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        alignSequence("order_item_seq", "order_items", OrderItem.ID_ALLOCATION_SIZE);
+        alignSequence("cart_item_seq", "cart_items", CartItem.ID_ALLOCATION_SIZE);
+
+        convertToCodes("orders", "status", OrderStatus.class, false);
+        convertToCodes("orders", "payment_status", PaymentStatus.class, false);
+        convertToCodes("orders", "return_status", ReturnStatus.class, true);
+        convertToCodes("checkout_requests", "status", CheckoutStatus.class, false);
+
+        // Checkout stock is taken inside the order's transaction; nothing reads these any more
+        jdbcTemplate.execute("DROP TABLE IF EXISTS stock_reservation_lines");
+        jdbcTemplate.execute("DROP TABLE IF EXISTS stock_reservations");
+    }
+
+    // ==================== ID SEQUENCES ====================
+
+    /**
+     * MySQL has no sequences, so Hibernate emulates them with a one-row table
+     * that starts at 1. Tables that were filled while the entity still used
+     * IDENTITY would collide with those ids, so move the sequence past MAX(id).
+     * The pooled optimizer hands out (value - allocationSize, value], hence the
+     * extra allocationSize.
+     */
+    private void alignSequence(String sequenceTable, String entityTable, int allocationSize) {
+        long floor = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(MAX(id), 0) FROM " + entityTable, Long.class) + allocationSize + 1;
+
+        Integer rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + sequenceTable, Integer.class);
+        if (rows == null || rows == 0) {
+            jdbcTemplate.update("INSERT INTO " + sequenceTable + " (next_val) VALUES (?)", floor);
+        } else if (jdbcTemplate.update("UPDATE " + sequenceTable + " SET next_val = ? WHERE next_val < ?",
+                floor, floor) > 0) {
+            log.info("Moved {} to {} past existing {} ids", sequenceTable, floor, entityTable);
+        }
+    }
+
+    // ==================== STATUS CODES ====================
+
+    /**
+     * Order and checkout states used to be stored by name in VARCHAR columns;
+     * they are now TINYINT codes (see CodedEnumConverter). ddl-auto=update
+     * never changes a column type, so rewrite each name to its code and then
+     * narrow the column in place, which also narrows the (status, id) style
+     * indexes on it.
+     *
+     * Already-converted values are left alone, so a run that stopped between
+     * the UPDATE and the ALTER simply finishes on the next start. A value that
+     * is neither a known name nor a code stops startup: it has to be fixed by
+     * hand rather than guessed.
+     */
+    private <E extends Enum<E> & CodedEnumConverter.Coded> void convertToCodes(
+            String table, String column, Class<E> type, boolean nullable) {
+        List<String> dataTypes = jdbcTemplate.queryForList(
+                "SELECT DATA_TYPE FROM information_schema.COLUMNS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND COLUMN_NAME = ?",
+                String.class, table, column);
+        if (dataTypes.isEmpty() || !dataTypes.get(0).equalsIgnoreCase("varchar")) {
+            return; // new schema, or already converted
+        }
+
+        E[] constants = type.getEnumConstants();
+        List<String> known = new ArrayList<>();
+        StringBuilder toCode = new StringBuilder("CASE ").append(column);
+        for (E constant : constants) {
+            known.add(constant.name());
+            known.add(String.valueOf(constant.getCode()));
+            toCode.append(" WHEN '").append(constant.name()).append("' THEN '").append(constant.getCode()).append("'");
+        }
+        toCode.append(" ELSE ").append(column).append(" END");
+
+        String placeholders = String.join(", ", Collections.nCopies(known.size(), "?"));
+        List<String> unknown = jdbcTemplate.queryForList(
+                "SELECT DISTINCT " + column + " FROM " + table +
+                " WHERE " + column + " IS NOT NULL AND " + column + " NOT IN (" + placeholders + ")",
+                String.class, known.toArray());
+        if (!unknown.isEmpty()) {
+            throw new IllegalStateException("Cannot convert " + table + "." + column + " to "
+                    + type.getSimpleName() + " codes, unknown values: " + unknown);
+        }
+
+        int rows = jdbcTemplate.update("UPDATE " + table + " SET " + column + " = " + toCode
+                + " WHERE " + column + " IS NOT NULL");
+        jdbcTemplate.execute("ALTER TABLE " + table + " MODIFY " + column + " TINYINT"
+                + (nullable ? " NULL" : " NOT NULL"));
+        log.info("Converted {}.{} to {} codes ({} rows)", table, column, type.getSimpleName(), rows);
+    }
+}
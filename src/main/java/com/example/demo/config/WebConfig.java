@@ -0,0 +1,80 @@
+package com.example.demo.config;
+
+import com.example.demo.dto.AuthenticatedUser;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.MethodParameter;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.cors.CorsUtils;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.io.IOException;
+import java.util.List;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    @Override
+    public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(new AuthenticatedUserArgumentResolver());
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new AdminOnlyInterceptor()).addPathPatterns("/api/admin/**");
+    }
+
+    /**
+     * ✅ The one role check for the admin API: 401 without a valid token, 403
+     * unless the token's role is ADMIN. Handlers under /api/admin need no
+     * checks of their own.
+     */
+    static class AdminOnlyInterceptor implements HandlerInterceptor {
+
+        @Override
+        public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+                throws IOException {
+            if (CorsUtils.isPreFlightRequest(request)) return true;
+
+            Object user = request.getAttribute(AuthenticatedUser.REQUEST_ATTRIBUTE);
+            if (user == null) {
+                response.sendError(HttpServletResponse.SC_UNAUTHORIZED);
+                return false;
+            }
+            if (!((AuthenticatedUser) user).isAdmin()) {
+                response.sendError(HttpServletResponse.SC_FORBIDDEN);
+                return false;
+            }
+            return true;
+        }
+    }
+
+    /**
+     * ✅ Injects the caller set by JwtAuthenticationFilter into controller
+     * methods. Fails with "Not authenticated" unless the parameter is @Nullable.
+     */
+    static class AuthenticatedUserArgumentResolver implements HandlerMethodArgumentResolver {
+
+        @Override
+        public boolean supportsParameter(MethodParameter parameter) {
+            return AuthenticatedUser.class.equals(parameter.getParameterType());
+        }
+
+        @Override
+        public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                      NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+            Object user = webRequest.getAttribute(AuthenticatedUser.REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+            if (user == null && !parameter.isOptional()) {
+                throw new RuntimeException("Not authenticated");
+            }
+            return user;
+        }
+    }
+}
@@ -1,21 +1,39 @@
 package com.example.demo.controller;
 
+import com.example.demo.dto.CursorPage;
+import com.example.demo.dto.OrderDTO;
+import com.example.demo.dto.OrderFilter;
+import com.example.demo.dto.OrderSummaryDTO;
+import com.example.demo.dto.ProductImportStatusDTO;
+import com.example.demo.dto.ReturnRequestDTO;
 import com.example.demo.dto.StockSummaryDTO;
 import com.example.demo.entity.Order;
+import com.example.demo.entity.OrderStatus;
+import com.example.demo.entity.PaymentStatus;
 import com.example.demo.entity.Product;
+import com.example.demo.entity.ProductImportError;
+import com.example.demo.entity.ReturnStatus;
 import com.example.demo.entity.User;
 import com.example.demo.service.AdminService;
+import com.example.demo.service.ImageStorageService;
+import com.example.demo.service.ImageVariantService;
+import com.example.demo.service.OrderExportService;
+import com.example.demo.service.ProductImportService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.io.File;
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.io.InputStream;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @CrossOrigin
@@ -23,9 +41,21 @@ import java.util.Map;
 public class AdminController {
 
     private final AdminService adminService;
+    private final ImageStorageService imageStorageService;
+    private final ImageVariantService imageVariantService;
+    private final OrderExportService orderExportService;
+    private final ProductImportService productImportService;
 
-    public AdminController(AdminService adminService) {
+    public AdminController(AdminService adminService,
+                           ImageStorageService imageStorageService,
+                           ImageVariantService imageVariantService,
+                           OrderExportService orderExportService,
+                           ProductImportService productImportService) {
         this.adminService = adminService;
+        this.imageStorageService = imageStorageService;
+        this.imageVariantService = imageVariantService;
+        this.orderExportService = orderExportService;
+        this.productImportService = productImportService;
     }
 
     // ==================== PRODUCT MANAGEMENT ====================
@@ -41,30 +71,21 @@ public class AdminController {
             @RequestParam("rating") Double rating,
             @RequestParam("image") MultipartFile imageFile
     ) {
-        try {
-            // ✅ Save file
-            String uploadDir = "src/main/resources/static/images/";
-            File dir = new File(uploadDir);
-            if (!dir.exists()) dir.mkdirs();
-
-            String filename = imageFile.getOriginalFilename();
-            Path path = Paths.get(uploadDir + filename);
-            Files.write(path, imageFile.getBytes());
-
-            // ✅ Create product
-            Product product = new Product();
-            product.setName(name);
-            product.setDescription(description);
-            product.setCategory(category);
-            product.setBrand(brand);
-            product.setPrice(price);
-            product.setStock(stock);
-            product.setRating(rating);
-            product.setImage(filename);
-            return ResponseEntity.ok(adminService.addProduct(product)); // ✅ removed null
-        } catch (IOException e) {
-            throw new RuntimeException("Failed to save image file", e);
-        }
+        // ✅ Save file (streamed to disk, named by content hash)
+        String filename = imageStorageService.store(imageFile);
+        imageVariantService.generateAsync(filename); // thumbnail/card/detail sizes in the background
+
+        // ✅ Create product
+        Product product = new Product();
+        product.setName(name);
+        product.setDescription(description);
+        product.setCategory(category);
+        product.setBrand(brand);
+        product.setPrice(price);
+        product.setStock(stock);
+        product.setRating(rating);
+        product.setImage(filename);
+        return ResponseEntity.ok(adminService.addProduct(product)); // ✅ removed null
     }
 
     @PutMapping(value = "/products/{id}", consumes = "multipart/form-data")
@@ -76,35 +97,23 @@ public class AdminController {
             @RequestParam("brand") String brand,
             @RequestParam("price") Double price,
             @RequestParam("stock") Integer stock,
-            @RequestParam("rating") Double rating,
             @RequestParam(value = "image", required = false) MultipartFile imageFile
     ) {
-        try {
-            Product product = new Product();
-            product.setName(name);
-            product.setDescription(description);
-            product.setCategory(category);
-            product.setBrand(brand);
-            product.setPrice(price);
-            product.setStock(stock);
-            product.setRating(rating);
-
-            if (imageFile != null && !imageFile.isEmpty()) {
-                String uploadDir = "public/images/"; // Frontend public folder
-                File dir = new File(uploadDir);
-                if (!dir.exists()) dir.mkdirs();
-
-                String filename = imageFile.getOriginalFilename();
-                Path path = Paths.get(uploadDir + filename);
-                Files.write(path, imageFile.getBytes());
-
-                product.setImage(filename);
-            }
+        Product product = new Product();
+        product.setName(name);
+        product.setDescription(description);
+        product.setCategory(category);
+        product.setBrand(brand);
+        product.setPrice(price);
+        product.setStock(stock);
 
-            return ResponseEntity.ok(adminService.updateProduct(id, product)); // ✅ removed null
-        } catch (IOException e) {
-            throw new RuntimeException("Failed to save image file", e);
+        if (imageFile != null && !imageFile.isEmpty()) {
+            String filename = imageStorageService.store(imageFile);
+            imageVariantService.generateAsync(filename);
+            product.setImage(filename);
         }
+
+        return ResponseEntity.ok(adminService.updateProduct(id, product)); // ✅ removed null
     }
 
     @DeleteMapping("/products/{id}")
@@ -113,6 +122,34 @@ public class AdminController {
         return ResponseEntity.ok().build();
     }
 
+    // ==================== PRODUCT IMPORT ====================
+
+    // The feed is the raw request body (not multipart), so it streams to disk with no upload size limit
+    @PostMapping(value = "/products/import",
+                 consumes = {"text/csv", "application/x-ndjson", MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<ProductImportStatusDTO> importProducts(
+            @RequestParam(defaultValue = "CSV") ProductImportService.Format format,
+            @RequestParam(required = false) String filename,
+            InputStream body) {
+        ProductImportStatusDTO status = productImportService.submit(format, filename, body);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(status);
+    }
+
+    @GetMapping("/products/import/{id}")
+    public ResponseEntity<ProductImportStatusDTO> getImportStatus(@PathVariable Long id) {
+        return ResponseEntity.ok(productImportService.getStatus(id));
+    }
+
+    @GetMapping("/products/import/{id}/errors")
+    public ResponseEntity<List<ProductImportError>> getImportErrors(@PathVariable Long id) {
+        return ResponseEntity.ok(productImportService.getErrors(id));
+    }
+
+    @PostMapping("/products/import/{id}/resume")
+    public ResponseEntity<ProductImportStatusDTO> resumeImport(@PathVariable Long id) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(productImportService.resume(id));
+    }
+
     // ==================== STOCK MANAGEMENT ====================
 
     @GetMapping("/stock/summary")
@@ -138,9 +175,53 @@ public class AdminController {
         return ResponseEntity.ok(adminService.getDashboardData()); // ✅ removed null
     }
 
+    // ✅ Paged, server-filtered order console (summaries only; see /orders/{id} for the full order)
     @GetMapping("/orders")
-    public ResponseEntity<List<Order>> getAllOrders() {
-        return ResponseEntity.ok(adminService.getAllOrders()); // ✅ removed null
+    public ResponseEntity<CursorPage<OrderSummaryDTO>> getOrders(
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(required = false) PaymentStatus paymentStatus,
+            @RequestParam(required = false) ReturnStatus returnStatus,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String email,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        OrderFilter filter = new OrderFilter(status, paymentStatus, returnStatus, from, to, email);
+        return ResponseEntity.ok(adminService.searchOrders(filter, cursor, size));
+    }
+
+    @GetMapping("/orders/{id}")
+    public ResponseEntity<OrderDTO> getOrder(@PathVariable Long id) {
+        return ResponseEntity.ok(adminService.getOrderDetail(id));
+    }
+
+    // ✅ Every order (with items) in a date range as CSV or NDJSON, streamed and gzipped on the fly
+    @GetMapping("/orders/export")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestParam(defaultValue = "CSV") OrderExportService.Format format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "true") boolean gzip) {
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream zip = new GZIPOutputStream(out, 64 * 1024);
+                orderExportService.export(format, from, to, zip);
+                zip.finish();
+            } else {
+                orderExportService.export(format, from, to, out);
+            }
+        };
+
+        String filename = "orders_" + (from != null ? from : "start") + "_" + (to != null ? to : "now")
+                + (format == OrderExportService.Format.NDJSON ? ".ndjson" : ".csv") + (gzip ? ".gz" : "");
+        MediaType contentType = gzip ? MediaType.parseMediaType("application/gzip")
+                : format == OrderExportService.Format.NDJSON ? MediaType.parseMediaType("application/x-ndjson")
+                : MediaType.parseMediaType("text/csv;charset=UTF-8");
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(filename).build().toString())
+                .contentType(contentType)
+                .body(body);
     }
 
     @GetMapping("/users")
@@ -148,6 +229,18 @@ public class AdminController {
         return ResponseEntity.ok(adminService.getAllUsers()); // ✅ removed null
     }
 
+    // Hit/miss/eviction counters for sizing the catalog caches
+    @GetMapping("/cache/stats")
+    public ResponseEntity<List<Map<String, Object>>> getCacheStats() {
+        return ResponseEntity.ok(adminService.getCacheStats());
+    }
+
+    // One-off: recompute product rating aggregates from existing reviews
+    @PostMapping("/reviews/backfill-ratings")
+    public ResponseEntity<Map<String, Object>> backfillRatingAggregates() {
+        return ResponseEntity.ok(adminService.backfillRatingAggregates());
+    }
+
     // Admin confirms payment
     @PutMapping("/orders/{id}/confirm-payment")
     public ResponseEntity<Order> confirmPayment(@PathVariable Long id) {
@@ -158,14 +251,23 @@ public class AdminController {
     @PutMapping("/orders/{id}/status")
     public ResponseEntity<Order> updateOrderStatus(
             @PathVariable Long id,
-            @RequestParam String status,
+            @RequestParam OrderStatus status,
             @RequestParam(required = false) String trackingNumber) {
         return ResponseEntity.ok(adminService.updateOrderStatus(id, status, trackingNumber));
     }
- // Get all return requests
+    // Open return requests, oldest first (?state= narrows to one state)
     @GetMapping("/returns")
-    public ResponseEntity<List<Order>> getAllReturnRequests() {
-        return ResponseEntity.ok(adminService.getAllReturnRequests());
+    public ResponseEntity<CursorPage<ReturnRequestDTO>> getReturnQueue(
+            @RequestParam(required = false) ReturnStatus state,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(adminService.getReturnQueue(state, cursor, size));
+    }
+
+    // Open return requests per state
+    @GetMapping("/returns/counts")
+    public ResponseEntity<Map<String, Long>> getReturnQueueCounts() {
+        return ResponseEntity.ok(adminService.getReturnQueueCounts());
     }
 
     // Approve return request
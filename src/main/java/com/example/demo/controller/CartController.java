@@ -1,9 +1,13 @@
 package com.example.demo.controller;
 
+import com.example.demo.dto.AuthenticatedUser;
 import com.example.demo.dto.CartItemDTO;
+import com.example.demo.dto.CartRequest;
 import com.example.demo.service.CartService;
 import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
 import org.springframework.web.bind.annotation.*;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -18,32 +22,43 @@ public class CartController {
         this.cartService = cartService;
     }
 
+    // ✅ The token's user id when present; the legacy ?email= parameter otherwise
+    private Long resolveUserId(AuthenticatedUser user, String email) {
+        return user != null ? user.getId() : cartService.resolveUserId(email);
+    }
+
     // ✅ Add to cart directly (no auth)
     @PostMapping("/add")
     public ResponseEntity<String> addToCart(
-            @RequestParam String email,
+            @Nullable AuthenticatedUser user,
+            @RequestParam(required = false) String email,
             @RequestParam Long productId,
             @RequestParam int quantity) {
-        return ResponseEntity.ok(cartService.addToCart(email, productId, quantity));
+        return ResponseEntity.ok(cartService.addToCart(resolveUserId(user, email), productId, quantity));
     }
 
     // ✅ Get all cart items for a user
     @GetMapping
-    public ResponseEntity<List<CartItemDTO>> getCart(@RequestParam String email) {
-        return ResponseEntity.ok(cartService.getCartItemsDTO(email));
+    public ResponseEntity<List<CartItemDTO>> getCart(
+            @Nullable AuthenticatedUser user,
+            @RequestParam(required = false) String email) {
+        return ResponseEntity.ok(cartService.getCartItemsDTO(resolveUserId(user, email)));
     }
 
     // ✅ Update cart item quantity
     @PutMapping("/update/{id}")
     public ResponseEntity<String> updateCart(
             @PathVariable Long id,
-            @RequestParam String email,
+            @Nullable AuthenticatedUser user,
+            @RequestParam(required = false) String email,
             @RequestParam int quantity) {
-        return ResponseEntity.ok(cartService.updateCartItem(email, id, quantity));
+        return ResponseEntity.ok(cartService.updateCartItem(resolveUserId(user, email), id, quantity));
     }
     @DeleteMapping("/clear")
-    public ResponseEntity<?> clearCart(@RequestParam String email) {
-        cartService.clearCart(email);
+    public ResponseEntity<?> clearCart(
+            @Nullable AuthenticatedUser user,
+            @RequestParam(required = false) String email) {
+        cartService.clearCart(resolveUserId(user, email));
         return ResponseEntity.ok("Cart cleared successfully after order placement");
     }
 
@@ -52,22 +67,25 @@ public class CartController {
     @DeleteMapping("/remove/{id}")
     public ResponseEntity<String> removeFromCart(
             @PathVariable Long id,
-            @RequestParam String email) {
-        return ResponseEntity.ok(cartService.removeFromCart(email, id));
+            @Nullable AuthenticatedUser user,
+            @RequestParam(required = false) String email) {
+        return ResponseEntity.ok(cartService.removeFromCart(resolveUserId(user, email), id));
     }
 
-    // ✅ Merge cart items (for local + server sync)
+    // ✅ Merge cart items (for local + server sync) in one batched operation; returns the merged cart
     @PostMapping("/merge")
-    public ResponseEntity<String> mergeCart(
-            @RequestParam String email,
+    public ResponseEntity<List<CartItemDTO>> mergeCart(
+            @Nullable AuthenticatedUser user,
+            @RequestParam(required = false) String email,
             @RequestBody List<Map<String, Object>> localCart) {
 
+        List<CartRequest> lines = new ArrayList<>(localCart.size());
         for (Map<String, Object> item : localCart) {
             Long productId = Long.valueOf(item.get("id").toString());
             int quantity = Integer.parseInt(item.get("quantity").toString());
-            cartService.addToCart(email, productId, quantity);
+            lines.add(new CartRequest(productId, quantity));
         }
 
-        return ResponseEntity.ok("Cart merged");
+        return ResponseEntity.ok(cartService.mergeCart(resolveUserId(user, email), lines));
     }
 }
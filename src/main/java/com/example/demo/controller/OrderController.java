@@ -1,11 +1,16 @@
 package com.example.demo.controller;
 
+import com.example.demo.dto.AuthenticatedUser;
+import com.example.demo.dto.CheckoutStatusDTO;
+import com.example.demo.dto.OrderDTO;
 import com.example.demo.entity.Order;
+import com.example.demo.service.CheckoutQueueService;
 import com.example.demo.service.OrderService;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import java.util.Base64;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/orders")
@@ -13,68 +18,79 @@ import java.util.List;
 public class OrderController {
 
     private final OrderService orderService;
+    private final CheckoutQueueService checkoutQueueService;
 
-    public OrderController(OrderService orderService) {
+    public OrderController(OrderService orderService, CheckoutQueueService checkoutQueueService) {
         this.orderService = orderService;
-    }
-
-    private String extractEmailFromToken(String authorization) {
-        if (authorization == null || !authorization.startsWith("Bearer ")) {
-            throw new RuntimeException("Not authenticated");
-        }
-        String token = authorization.substring(7);
-        byte[] decoded = Base64.getDecoder().decode(token);
-        return new String(decoded);
+        this.checkoutQueueService = checkoutQueueService;
     }
 
     @PostMapping
     public ResponseEntity<Order> createOrder(
-            @RequestHeader("Authorization") String authorization,
+            AuthenticatedUser user,
             @RequestBody Order order) {
 
-        String email = extractEmailFromToken(authorization);
-
         // ✅ Pass shippingAddress and paymentMethod from request body
         return ResponseEntity.ok(
-                orderService.createOrder(email, order.getShippingAddress(), order.getPaymentMethod())
+                orderService.createOrder(user.getId(), order.getShippingAddress(), order.getPaymentMethod())
         );
     }
 
+    /**
+     * ✅ Async checkout: the request is queued and acknowledged with 202;
+     * poll GET /api/orders/async/{requestId} for the resulting order
+     */
+    @PostMapping("/async")
+    public ResponseEntity<CheckoutStatusDTO> createOrderAsync(
+            AuthenticatedUser user,
+            @RequestBody Order order) {
+
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(
+                checkoutQueueService.accept(user, order.getShippingAddress(), order.getPaymentMethod())
+        );
+    }
+
+    // ✅ With ?waitMs= the response is held until the checkout finishes or the wait runs out (long-poll)
+    @GetMapping("/async/{requestId}")
+    public CompletableFuture<ResponseEntity<CheckoutStatusDTO>> getCheckoutStatus(
+            AuthenticatedUser user,
+            @PathVariable Long requestId,
+            @RequestParam(defaultValue = "0") long waitMs) {
+
+        return checkoutQueueService.awaitStatus(requestId, user.getId(), waitMs).thenApply(ResponseEntity::ok);
+    }
+
     @GetMapping
-    public ResponseEntity<List<Order>> getUserOrders(
-            @RequestHeader("Authorization") String authorization) {
+    public ResponseEntity<List<OrderDTO>> getUserOrders(
+            AuthenticatedUser user) {
 
-        String email = extractEmailFromToken(authorization);
-        return ResponseEntity.ok(orderService.getUserOrders(email));
+        return ResponseEntity.ok(orderService.getUserOrders(user.getId()));
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<Order> getOrder(
-            @RequestHeader("Authorization") String authorization,
+            AuthenticatedUser user, // resolving the caller is the authentication check
             @PathVariable Long id) { 
 
-        extractEmailFromToken(authorization); // Just validate
         return ResponseEntity.ok(orderService.getOrderById(id));
     }
  // User cancels order
     @PutMapping("/{id}/cancel")
     public ResponseEntity<Order> cancelOrder(
-            @RequestHeader("Authorization") String authorization,
+            AuthenticatedUser user,
             @PathVariable Long id,
             @RequestParam String reason) {
         
-        String email = extractEmailFromToken(authorization);
-        return ResponseEntity.ok(orderService.cancelOrder(id, email, reason));
+        return ResponseEntity.ok(orderService.cancelOrder(id, user.getId(), reason));
     }
  // User requests return
     @PutMapping("/{id}/request-return")
     public ResponseEntity<?> requestReturn(
-            @RequestHeader("Authorization") String authorization,
+            AuthenticatedUser user,
             @PathVariable Long id,
             @RequestParam String reason,
             @RequestParam(required = false) String images) {
         
-        String email = extractEmailFromToken(authorization);
-        return ResponseEntity.ok(orderService.requestReturn(id, email, reason, images));
+        return ResponseEntity.ok(orderService.requestReturn(id, user.getId(), reason, images));
     }
 }
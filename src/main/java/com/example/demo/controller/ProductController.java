@@ -1,57 +1,97 @@
 package com.example.demo.controller;
 
-import com.example.demo.entity.Product;
+import com.example.demo.dto.ProductView;
+import com.example.demo.dto.SuggestionDTO;
 import com.example.demo.service.ProductService;
-import com.example.demo.util.ImageUtil; // ✅ Add this import
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @CrossOrigin
 @RequestMapping("/api/products")
 public class ProductController {
     private final ProductService productService;
-    private final ImageUtil imageUtil; // ✅ Inject ImageUtil
+    private final ObjectMapper objectMapper;
 
-    // ✅ Updated constructor
-    public ProductController(ProductService productService, ImageUtil imageUtil) {
+    public ProductController(ProductService productService, ObjectMapper objectMapper) {
         this.productService = productService;
-        this.imageUtil = imageUtil;
-    }
-
-    // ✅ Utility method to ensure full URLs for all products
-    private List<Product> enrichImageUrls(List<Product> products) {
-        return products.stream()
-                .peek(p -> p.setImage(imageUtil.getFullImageUrl(p.getImage())))
-                .collect(Collectors.toList());
+        this.objectMapper = objectMapper;
     }
 
     @GetMapping("/featured")
-    public ResponseEntity<List<Product>> getFeatured() {
-        return ResponseEntity.ok(enrichImageUrls(productService.getFeaturedProducts()));
+    public ResponseEntity<List<ProductView>> getFeatured() {
+        return ResponseEntity.ok(productService.getFeaturedProducts());
     }
 
+    /**
+     * ✅ Without paging params the full catalog is streamed as a JSON array;
+     * with ?cursor= and/or ?size= a keyset page is returned instead
+     */
     @GetMapping
-    public ResponseEntity<List<Product>> getAllProducts() {
-        return ResponseEntity.ok(enrichImageUrls(productService.getAllProducts()));
+    public ResponseEntity<?> getAllProducts(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        if (cursor == null && size == null) {
+            return streamProducts(null);
+        }
+        return ResponseEntity.ok(productService.getProductPage(null, cursor, size));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Product> getProduct(@PathVariable Long id) {
-        Product product = productService.getProductById(id);
-        product.setImage(imageUtil.getFullImageUrl(product.getImage()));
-        return ResponseEntity.ok(product);
+    public ResponseEntity<ProductView> getProduct(@PathVariable Long id) {
+        return ResponseEntity.ok(productService.getProductById(id));
     }
 
     @GetMapping("/category/{category}")
-    public ResponseEntity<List<Product>> getByCategory(@PathVariable String category) {
-        return ResponseEntity.ok(enrichImageUrls(productService.getProductsByCategory(category)));
+    public ResponseEntity<?> getByCategory(
+            @PathVariable String category,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        if (cursor == null && size == null) {
+            return streamProducts(category);
+        }
+        return ResponseEntity.ok(productService.getProductPage(category, cursor, size));
     }
 
     @GetMapping("/search")
-    public ResponseEntity<List<Product>> searchProducts(@RequestParam String q) {
-        return ResponseEntity.ok(enrichImageUrls(productService.searchProducts(q)));
+    public ResponseEntity<List<ProductView>> searchProducts(@RequestParam String q) {
+        return ResponseEntity.ok(productService.searchProducts(q));
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<List<SuggestionDTO>> suggest(
+            @RequestParam String q,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(productService.suggest(q, limit));
+    }
+
+    // Writes products as they are read from the database instead of building the list in memory
+    private ResponseEntity<StreamingResponseBody> streamProducts(String category) {
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+                json.writeStartArray();
+                productService.forEachProduct(category, product -> {
+                    try {
+                        writer.writeValue(json, product);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                json.writeEndArray();
+            }
+        };
+
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
     }
 }
@@ -1,12 +1,14 @@
 
 package com.example.demo.controller;
 
+import com.example.demo.dto.AuthenticatedUser;
+import com.example.demo.dto.RatingDistributionDTO;
+import com.example.demo.dto.ReviewDTO;
 import com.example.demo.entity.Review;
 import com.example.demo.service.ReviewService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import java.util.Base64;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -22,26 +24,16 @@ public class ReviewController {
         this.reviewService = reviewService;
     }
 
-    private String extractEmailFromToken(String authorization) {
-        if (authorization == null || !authorization.startsWith("Bearer ")) {
-            throw new RuntimeException("Not authenticated");
-        }
-        String token = authorization.substring(7);
-        byte[] decoded = Base64.getDecoder().decode(token);
-        return new String(decoded);
-    }
-
     /**
      * ✅ Add a review for a product with proper error handling
      */
     @PostMapping("/product/{productId}")
     public ResponseEntity<?> addReview(
-            @RequestHeader("Authorization") String authorization,
+            AuthenticatedUser user,
             @PathVariable Long productId,
             @RequestBody Map<String, Object> reviewData) {
 
         try {
-            String email = extractEmailFromToken(authorization);
             int rating = Integer.parseInt(reviewData.get("rating").toString());
             String comment = reviewData.get("comment").toString();
 
@@ -57,7 +49,7 @@ public class ReviewController {
                 return ResponseEntity.badRequest().body(error);
             }
 
-            Review savedReview = reviewService.addReview(email, productId, rating, comment);
+            Review savedReview = reviewService.addReview(user.getId(), productId, rating, comment);
             return ResponseEntity.ok(savedReview);
 
         } catch (RuntimeException e) {
@@ -75,11 +67,47 @@ public class ReviewController {
     }
 
     /**
-     * ✅ Get all reviews for a product
+     * ✅ Without paging params all reviews for a product are returned; with
+     * ?sort= (newest, highest, lowest, helpful), ?cursor= and/or ?size= a
+     * keyset page is returned instead
      */
     @GetMapping("/product/{productId}")
-    public ResponseEntity<List<Review>> getProductReviews(@PathVariable Long productId) {
-        return ResponseEntity.ok(reviewService.getReviewsByProduct(productId));
+    public ResponseEntity<?> getProductReviews(
+            @PathVariable Long productId,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        if (sort == null && cursor == null && size == null) {
+            List<ReviewDTO> reviews = reviewService.getReviewsByProduct(productId);
+            return ResponseEntity.ok(reviews);
+        }
+        return ResponseEntity.ok(reviewService.getReviewFeed(productId, sort, cursor, size));
+    }
+
+    /**
+     * ✅ Mark a review as helpful (once per user)
+     */
+    @PostMapping("/{reviewId}/helpful")
+    public ResponseEntity<?> markHelpful(
+            AuthenticatedUser user,
+            @PathVariable Long reviewId) {
+        try {
+            Map<String, Object> response = new HashMap<>();
+            response.put("helpfulCount", reviewService.markHelpful(user.getId(), reviewId));
+            return ResponseEntity.ok(response);
+        } catch (RuntimeException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
+    /**
+     * ✅ Star distribution for a product (counts per star, average, total)
+     */
+    @GetMapping("/product/{productId}/distribution")
+    public ResponseEntity<RatingDistributionDTO> getRatingDistribution(@PathVariable Long productId) {
+        return ResponseEntity.ok(reviewService.getRatingDistribution(productId));
     }
 
     /**
@@ -87,9 +115,8 @@ public class ReviewController {
      */
     @GetMapping("/my-reviews")
     public ResponseEntity<List<Review>> getMyReviews(
-            @RequestHeader("Authorization") String authorization) {
-        String email = extractEmailFromToken(authorization);
-        return ResponseEntity.ok(reviewService.getReviewsByUser(email));
+            AuthenticatedUser user) {
+        return ResponseEntity.ok(reviewService.getReviewsByUser(user.getId()));
     }
 
     /**
@@ -97,11 +124,10 @@ public class ReviewController {
      */
     @DeleteMapping("/{reviewId}")
     public ResponseEntity<?> deleteReview(
-            @RequestHeader("Authorization") String authorization,
+            AuthenticatedUser user,
             @PathVariable Long reviewId) {
         try {
-            String email = extractEmailFromToken(authorization);
-            reviewService.deleteReview(email, reviewId);
+            reviewService.deleteReview(user, reviewId);
             
             Map<String, String> response = new HashMap<>();
             response.put("message", "Review deleted successfully");
@@ -116,12 +142,11 @@ public class ReviewController {
     // ✅ NEW: Update a review (added without changing any existing code)
     @PutMapping("/{reviewId}")
     public ResponseEntity<?> updateReview(
-            @RequestHeader("Authorization") String authorization,
+            AuthenticatedUser user,
             @PathVariable Long reviewId,
             @RequestBody Map<String, Object> reviewData) {
 
         try {
-            String email = extractEmailFromToken(authorization);
             String comment = reviewData.get("comment").toString();
             Integer rating = reviewData.containsKey("rating") ? Integer.parseInt(reviewData.get("rating").toString()) : null;
 
@@ -131,7 +156,7 @@ public class ReviewController {
                 return ResponseEntity.badRequest().body(error);
             }
 
-            Review updated = reviewService.updateReview(email, reviewId, comment, rating);
+            Review updated = reviewService.updateReview(user, reviewId, comment, rating);
             return ResponseEntity.ok(updated);
         } catch (RuntimeException e) {
             Map<String, String> error = new HashMap<>();
@@ -1,11 +1,11 @@
 
 package com.example.demo.controller;
 
+import com.example.demo.dto.AuthenticatedUser;
 import com.example.demo.entity.User;
 import com.example.demo.service.UserService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import java.util.Base64;
 
 @RestController
 @RequestMapping("/api/users")
@@ -17,27 +17,16 @@ public class UserController {
         this.userService = userService;
     }
 
-    private String extractEmailFromToken(String authorization) {
-        if (authorization == null || !authorization.startsWith("Bearer ")) {
-            throw new RuntimeException("Not authenticated");
-        }
-        String token = authorization.substring(7);
-        byte[] decoded = Base64.getDecoder().decode(token);
-        return new String(decoded);
-    }
-
     @GetMapping("/profile")
     public ResponseEntity<User> getProfile(
-        @RequestHeader("Authorization") String authorization) {
-        String email = extractEmailFromToken(authorization);
-        return ResponseEntity.ok(userService.getUserByEmail(email));
+        AuthenticatedUser principal) {
+        return ResponseEntity.ok(userService.getUserById(principal.getId()));
     }
 
     @PutMapping("/profile")
     public ResponseEntity<User> updateProfile(
-        @RequestHeader("Authorization") String authorization,
+        AuthenticatedUser principal,
         @RequestBody User user) {
-        String email = extractEmailFromToken(authorization);
-        return ResponseEntity.ok(userService.updateProfile(email, user));
+        return ResponseEntity.ok(userService.updateProfile(principal.getId(), user));
     }
 }
\ No newline at end of file
@@ -0,0 +1,31 @@
+package com.example.demo.dto;
+
+/**
+ * The caller of the current request, taken from a verified token. Controllers
+ * receive it as a method argument (see WebConfig); services use the id instead
+ * of looking the user up by email.
+ */
+public class AuthenticatedUser {
+
+    public static final String REQUEST_ATTRIBUTE = AuthenticatedUser.class.getName();
+
+    private final Long id;
+    private final String email;
+    private final String role;
+
+    public AuthenticatedUser(Long id, String email, String role) {
+        this.id = id;
+        this.email = email;
+        this.role = role;
+    }
+
+    public Long getId() { return id; }
+
+    public String getEmail() { return email; }
+
+    public String getRole() { return role; }
+
+    public boolean isAdmin() {
+        return "ADMIN".equals(role);
+    }
+}
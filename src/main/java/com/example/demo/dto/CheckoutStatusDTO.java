@@ -0,0 +1,50 @@
+package com.example.demo.dto;
+
+import com.example.demo.entity.CheckoutRequest;
+import com.example.demo.entity.CheckoutStatus;
+import java.time.LocalDateTime;
+
+public class CheckoutStatusDTO {
+    private Long requestId;
+    private CheckoutStatus status;
+    private Long orderId;         // set once COMPLETED
+    private String errorMessage;  // set once FAILED
+    private LocalDateTime createdAt;
+    private LocalDateTime processedAt;
+
+    public CheckoutStatusDTO() {}
+
+    public static CheckoutStatusDTO fromEntity(CheckoutRequest request) {
+        CheckoutStatusDTO dto = new CheckoutStatusDTO();
+        dto.requestId = request.getId();
+        dto.status = request.getStatus();
+        dto.orderId = request.getOrderId();
+        dto.errorMessage = request.getErrorMessage();
+        dto.createdAt = request.getCreatedAt();
+        dto.processedAt = request.getProcessedAt();
+        return dto;
+    }
+
+    public boolean isFinished() {
+        return status != null && status.isFinished();
+    }
+
+    // Getters and Setters
+    public Long getRequestId() { return requestId; }
+    public void setRequestId(Long requestId) { this.requestId = requestId; }
+
+    public CheckoutStatus getStatus() { return status; }
+    public void setStatus(CheckoutStatus status) { this.status = status; }
+
+    public Long getOrderId() { return orderId; }
+    public void setOrderId(Long orderId) { this.orderId = orderId; }
+
+    public String getErrorMessage() { return errorMessage; }
+    public void setErrorMessage(String errorMessage) { this.errorMessage = errorMessage; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getProcessedAt() { return processedAt; }
+    public void setProcessedAt(LocalDateTime processedAt) { this.processedAt = processedAt; }
+}
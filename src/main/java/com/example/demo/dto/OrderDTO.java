@@ -0,0 +1,196 @@
+package com.example.demo.dto;
+
+import com.example.demo.entity.Order;
+import com.example.demo.entity.OrderStatus;
+import com.example.demo.entity.PaymentStatus;
+import com.example.demo.entity.ReturnStatus;
+import com.example.demo.entity.User;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Read model for order lists. Same JSON shape as the Order entity, but built
+ * from an already-fetched graph so serialization never triggers lazy loads.
+ */
+public class OrderDTO {
+    private Long id;
+    private CustomerDto user;
+    private List<OrderItemDTO> items;
+    private Double totalAmount;
+    private String shippingAddress;
+    private String paymentMethod;
+    private OrderStatus status;
+    private LocalDateTime orderDate;
+    private PaymentStatus paymentStatus;
+    private LocalDateTime paymentConfirmedAt;
+    private LocalDateTime shippedAt;
+    private LocalDateTime deliveredAt;
+    private LocalDateTime cancelledAt;
+    private String trackingNumber;
+    private String cancelReason;
+
+    private ReturnStatus returnStatus;
+    private String returnReason;
+    private LocalDateTime returnRequestedAt;
+    private LocalDateTime returnApprovedAt;
+    private LocalDateTime returnRejectedAt;
+    private String returnRejectionReason;
+    private LocalDateTime returnReceivedAt;
+    private LocalDateTime refundInitiatedAt;
+    private LocalDateTime refundCompletedAt;
+    private String returnImages;
+    private Double refundedAmount;
+
+    public OrderDTO() {}
+
+    public static OrderDTO fromEntity(Order order) {
+        OrderDTO dto = new OrderDTO();
+        dto.setId(order.getId());
+
+        User u = order.getUser();
+        dto.setUser(new CustomerDto(u.getId(), u.getFirstName(), u.getLastName(), u.getEmail(), u.getPhone()));
+        dto.setItems(order.getItems().stream()
+                .map(OrderItemDTO::fromEntity)
+                .collect(Collectors.toList()));
+
+        dto.setTotalAmount(order.getTotalAmount());
+        dto.setShippingAddress(order.getShippingAddress());
+        dto.setPaymentMethod(order.getPaymentMethod());
+        dto.setStatus(order.getStatus());
+        dto.setOrderDate(order.getOrderDate());
+        dto.setPaymentStatus(order.getPaymentStatus());
+        dto.setPaymentConfirmedAt(order.getPaymentConfirmedAt());
+        dto.setShippedAt(order.getShippedAt());
+        dto.setDeliveredAt(order.getDeliveredAt());
+        dto.setCancelledAt(order.getCancelledAt());
+        dto.setTrackingNumber(order.getTrackingNumber());
+        dto.setCancelReason(order.getCancelReason());
+
+        dto.setReturnStatus(order.getReturnStatus());
+        dto.setReturnReason(order.getReturnReason());
+        dto.setReturnRequestedAt(order.getReturnRequestedAt());
+        dto.setReturnApprovedAt(order.getReturnApprovedAt());
+        dto.setReturnRejectedAt(order.getReturnRejectedAt());
+        dto.setReturnRejectionReason(order.getReturnRejectionReason());
+        dto.setReturnReceivedAt(order.getReturnReceivedAt());
+        dto.setRefundInitiatedAt(order.getRefundInitiatedAt());
+        dto.setRefundCompletedAt(order.getRefundCompletedAt());
+        dto.setReturnImages(order.getReturnImages());
+        dto.setRefundedAmount(order.getRefundedAmount());
+        return dto;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public CustomerDto getUser() { return user; }
+    public void setUser(CustomerDto user) { this.user = user; }
+
+    public List<OrderItemDTO> getItems() { return items; }
+    public void setItems(List<OrderItemDTO> items) { this.items = items; }
+
+    public Double getTotalAmount() { return totalAmount; }
+    public void setTotalAmount(Double totalAmount) { this.totalAmount = totalAmount; }
+
+    public String getShippingAddress() { return shippingAddress; }
+    public void setShippingAddress(String shippingAddress) { this.shippingAddress = shippingAddress; }
+
+    public String getPaymentMethod() { return paymentMethod; }
+    public void setPaymentMethod(String paymentMethod) { this.paymentMethod = paymentMethod; }
+
+    public OrderStatus getStatus() { return status; }
+    public void setStatus(OrderStatus status) { this.status = status; }
+
+    public LocalDateTime getOrderDate() { return orderDate; }
+    public void setOrderDate(LocalDateTime orderDate) { this.orderDate = orderDate; }
+
+    public PaymentStatus getPaymentStatus() { return paymentStatus; }
+    public void setPaymentStatus(PaymentStatus paymentStatus) { this.paymentStatus = paymentStatus; }
+
+    public LocalDateTime getPaymentConfirmedAt() { return paymentConfirmedAt; }
+    public void setPaymentConfirmedAt(LocalDateTime paymentConfirmedAt) { this.paymentConfirmedAt = paymentConfirmedAt; }
+
+    public LocalDateTime getShippedAt() { return shippedAt; }
+    public void setShippedAt(LocalDateTime shippedAt) { this.shippedAt = shippedAt; }
+
+    public LocalDateTime getDeliveredAt() { return deliveredAt; }
+    public void setDeliveredAt(LocalDateTime deliveredAt) { this.deliveredAt = deliveredAt; }
+
+    public LocalDateTime getCancelledAt() { return cancelledAt; }
+    public void setCancelledAt(LocalDateTime cancelledAt) { this.cancelledAt = cancelledAt; }
+
+    public String getTrackingNumber() { return trackingNumber; }
+    public void setTrackingNumber(String trackingNumber) { this.trackingNumber = trackingNumber; }
+
+    public String getCancelReason() { return cancelReason; }
+    public void setCancelReason(String cancelReason) { this.cancelReason = cancelReason; }
+
+    public ReturnStatus getReturnStatus() { return returnStatus; }
+    public void setReturnStatus(ReturnStatus returnStatus) { this.returnStatus = returnStatus; }
+
+    public String getReturnReason() { return returnReason; }
+    public void setReturnReason(String returnReason) { this.returnReason = returnReason; }
+
+    public LocalDateTime getReturnRequestedAt() { return returnRequestedAt; }
+    public void setReturnRequestedAt(LocalDateTime returnRequestedAt) { this.returnRequestedAt = returnRequestedAt; }
+
+    public LocalDateTime getReturnApprovedAt() { return returnApprovedAt; }
+    public void setReturnApprovedAt(LocalDateTime returnApprovedAt) { this.returnApprovedAt = returnApprovedAt; }
+
+    public LocalDateTime getReturnRejectedAt() { return returnRejectedAt; }
+    public void setReturnRejectedAt(LocalDateTime returnRejectedAt) { this.returnRejectedAt = returnRejectedAt; }
+
+    public String getReturnRejectionReason() { return returnRejectionReason; }
+    public void setReturnRejectionReason(String returnRejectionReason) { this.returnRejectionReason = returnRejectionReason; }
+
+    public LocalDateTime getReturnReceivedAt() { return returnReceivedAt; }
+    public void setReturnReceivedAt(LocalDateTime returnReceivedAt) { this.returnReceivedAt = returnReceivedAt; }
+
+    public LocalDateTime getRefundInitiatedAt() { return refundInitiatedAt; }
+    public void setRefundInitiatedAt(LocalDateTime refundInitiatedAt) { this.refundInitiatedAt = refundInitiatedAt; }
+
+    public LocalDateTime getRefundCompletedAt() { return refundCompletedAt; }
+    public void setRefundCompletedAt(LocalDateTime refundCompletedAt) { this.refundCompletedAt = refundCompletedAt; }
+
+    public String getReturnImages() { return returnImages; }
+    public void setReturnImages(String returnImages) { this.returnImages = returnImages; }
+
+    public Double getRefundedAmount() { return refundedAmount; }
+    public void setRefundedAmount(Double refundedAmount) { this.refundedAmount = refundedAmount; }
+
+    public static class CustomerDto {
+        private Long id;
+        private String firstName;
+        private String lastName;
+        private String email;
+        private String phone;
+
+        public CustomerDto() {}
+
+        public CustomerDto(Long id, String firstName, String lastName, String email, String phone) {
+            this.id = id;
+            this.firstName = firstName;
+            this.lastName = lastName;
+            this.email = email;
+            this.phone = phone;
+        }
+
+        // Getters and Setters
+        public Long getId() { return id; }
+        public void setId(Long id) { this.id = id; }
+
+        public String getFirstName() { return firstName; }
+        public void setFirstName(String firstName) { this.firstName = firstName; }
+
+        public String getLastName() { return lastName; }
+        public void setLastName(String lastName) { this.lastName = lastName; }
+
+        public String getEmail() { return email; }
+        public void setEmail(String email) { this.email = email; }
+
+        public String getPhone() { return phone; }
+        public void setPhone(String phone) { this.phone = phone; }
+    }
+}
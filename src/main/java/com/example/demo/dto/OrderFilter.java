@@ -0,0 +1,51 @@
+package com.example.demo.dto;
+
+import com.example.demo.entity.OrderStatus;
+import com.example.demo.entity.PaymentStatus;
+import com.example.demo.entity.ReturnStatus;
+
+import java.time.LocalDate;
+
+/**
+ * Admin order console filters. Every field is optional; dates are inclusive
+ * calendar days on orderDate.
+ */
+public class OrderFilter {
+    private OrderStatus status;
+    private PaymentStatus paymentStatus;
+    private ReturnStatus returnStatus;
+    private LocalDate from;
+    private LocalDate to;
+    private String email;
+
+    public OrderFilter() {}
+
+    public OrderFilter(OrderStatus status, PaymentStatus paymentStatus, ReturnStatus returnStatus,
+                       LocalDate from, LocalDate to, String email) {
+        this.status = status;
+        this.paymentStatus = paymentStatus;
+        this.returnStatus = returnStatus;
+        this.from = from;
+        this.to = to;
+        this.email = email;
+    }
+
+    // Getters and Setters
+    public OrderStatus getStatus() { return status; }
+    public void setStatus(OrderStatus status) { this.status = status; }
+
+    public PaymentStatus getPaymentStatus() { return paymentStatus; }
+    public void setPaymentStatus(PaymentStatus paymentStatus) { this.paymentStatus = paymentStatus; }
+
+    public ReturnStatus getReturnStatus() { return returnStatus; }
+    public void setReturnStatus(ReturnStatus returnStatus) { this.returnStatus = returnStatus; }
+
+    public LocalDate getFrom() { return from; }
+    public void setFrom(LocalDate from) { this.from = from; }
+
+    public LocalDate getTo() { return to; }
+    public void setTo(LocalDate to) { this.to = to; }
+
+    public String getEmail() { return email; }
+    public void setEmail(String email) { this.email = email; }
+}
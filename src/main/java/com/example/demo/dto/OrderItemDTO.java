@@ -0,0 +1,79 @@
+package com.example.demo.dto;
+
+import com.example.demo.entity.OrderItem;
+import com.example.demo.entity.Product;
+
+public class OrderItemDTO {
+    private Long id;
+    private ProductDto product;
+    private Integer quantity;
+    private Double price; // Price at time of purchase
+
+    public OrderItemDTO() {}
+
+    public OrderItemDTO(Long id, ProductDto product, Integer quantity, Double price) {
+        this.id = id;
+        this.product = product;
+        this.quantity = quantity;
+        this.price = price;
+    }
+
+    public static OrderItemDTO fromEntity(OrderItem item) {
+        Product p = item.getProduct();
+        ProductDto product = new ProductDto(p.getId(), p.getName(), p.getCategory(), p.getBrand(),
+                p.getPrice(), p.getImage());
+        return new OrderItemDTO(item.getId(), product, item.getQuantity(), item.getPrice());
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public ProductDto getProduct() { return product; }
+    public void setProduct(ProductDto product) { this.product = product; }
+
+    public Integer getQuantity() { return quantity; }
+    public void setQuantity(Integer quantity) { this.quantity = quantity; }
+
+    public Double getPrice() { return price; }
+    public void setPrice(Double price) { this.price = price; }
+
+    public static class ProductDto {
+        private Long id;
+        private String name;
+        private String category;
+        private String brand;
+        private Double price;
+        private String image;
+
+        public ProductDto() {}
+
+        public ProductDto(Long id, String name, String category, String brand, Double price, String image) {
+            this.id = id;
+            this.name = name;
+            this.category = category;
+            this.brand = brand;
+            this.price = price;
+            this.image = image;
+        }
+
+        // Getters and Setters
+        public Long getId() { return id; }
+        public void setId(Long id) { this.id = id; }
+
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+
+        public String getCategory() { return category; }
+        public void setCategory(String category) { this.category = category; }
+
+        public String getBrand() { return brand; }
+        public void setBrand(String brand) { this.brand = brand; }
+
+        public Double getPrice() { return price; }
+        public void setPrice(Double price) { this.price = price; }
+
+        public String getImage() { return image; }
+        public void setImage(String image) { this.image = image; }
+    }
+}
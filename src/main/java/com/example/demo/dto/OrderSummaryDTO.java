@@ -0,0 +1,84 @@
+package com.example.demo.dto;
+
+import com.example.demo.entity.OrderStatus;
+import com.example.demo.entity.PaymentStatus;
+import com.example.demo.entity.ReturnStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row of the admin order console: order header fields plus the customer
+ * and an item count, read as a projection (no entities, no items loaded).
+ * The full order is served by the detail endpoint.
+ */
+public class OrderSummaryDTO {
+    private Long id;
+    private LocalDateTime orderDate;
+    private OrderStatus status;
+    private PaymentStatus paymentStatus;
+    private ReturnStatus returnStatus;
+    private Double totalAmount;
+    private Double refundedAmount;
+    private String paymentMethod;
+    private Long customerId;
+    private String customerEmail;
+    private String customerName;
+    private Long itemCount;
+
+    public OrderSummaryDTO() {}
+
+    public OrderSummaryDTO(Long id, LocalDateTime orderDate, OrderStatus status, PaymentStatus paymentStatus,
+                           ReturnStatus returnStatus, Double totalAmount, Double refundedAmount, String paymentMethod,
+                           Long customerId, String customerEmail, String firstName, String lastName,
+                           Long itemCount) {
+        this.id = id;
+        this.orderDate = orderDate;
+        this.status = status;
+        this.paymentStatus = paymentStatus;
+        this.returnStatus = returnStatus;
+        this.totalAmount = totalAmount;
+        this.refundedAmount = refundedAmount;
+        this.paymentMethod = paymentMethod;
+        this.customerId = customerId;
+        this.customerEmail = customerEmail;
+        this.customerName = (firstName + " " + lastName).trim();
+        this.itemCount = itemCount;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public LocalDateTime getOrderDate() { return orderDate; }
+    public void setOrderDate(LocalDateTime orderDate) { this.orderDate = orderDate; }
+
+    public OrderStatus getStatus() { return status; }
+    public void setStatus(OrderStatus status) { this.status = status; }
+
+    public PaymentStatus getPaymentStatus() { return paymentStatus; }
+    public void setPaymentStatus(PaymentStatus paymentStatus) { this.paymentStatus = paymentStatus; }
+
+    public ReturnStatus getReturnStatus() { return returnStatus; }
+    public void setReturnStatus(ReturnStatus returnStatus) { this.returnStatus = returnStatus; }
+
+    public Double getTotalAmount() { return totalAmount; }
+    public void setTotalAmount(Double totalAmount) { this.totalAmount = totalAmount; }
+
+    public Double getRefundedAmount() { return refundedAmount; }
+    public void setRefundedAmount(Double refundedAmount) { this.refundedAmount = refundedAmount; }
+
+    public String getPaymentMethod() { return paymentMethod; }
+    public void setPaymentMethod(String paymentMethod) { this.paymentMethod = paymentMethod; }
+
+    public Long getCustomerId() { return customerId; }
+    public void setCustomerId(Long customerId) { this.customerId = customerId; }
+
+    public String getCustomerEmail() { return customerEmail; }
+    public void setCustomerEmail(String customerEmail) { this.customerEmail = customerEmail; }
+
+    public String getCustomerName() { return customerName; }
+    public void setCustomerName(String customerName) { this.customerName = customerName; }
+
+    public Long getItemCount() { return itemCount; }
+    public void setItemCount(Long itemCount) { this.itemCount = itemCount; }
+}
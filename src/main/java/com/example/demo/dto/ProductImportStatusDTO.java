@@ -0,0 +1,85 @@
+package com.example.demo.dto;
+
+import com.example.demo.entity.ProductImportJob;
+import java.time.LocalDateTime;
+
+public class ProductImportStatusDTO {
+    private Long jobId;
+    private String filename;
+    private String format;
+    private String status;          // QUEUED, RUNNING, COMPLETED, FAILED
+    private double percentComplete; // by bytes of the file read and committed
+    private long recordsProcessed;
+    private long rowsInserted;
+    private long rowsUpdated;
+    private long rowsFailed;        // see /errors for the rows themselves
+    private String errorMessage;    // set once FAILED; the job can be resumed
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+
+    public ProductImportStatusDTO() {}
+
+    public static ProductImportStatusDTO fromEntity(ProductImportJob job) {
+        ProductImportStatusDTO dto = new ProductImportStatusDTO();
+        dto.jobId = job.getId();
+        dto.filename = job.getOriginalFilename();
+        dto.format = job.getFormat();
+        dto.status = job.getStatus();
+        dto.percentComplete = job.getFileSize() == 0 ? ("COMPLETED".equals(job.getStatus()) ? 100.0 : 0.0)
+                : Math.min(100.0, Math.round(1000.0 * job.getBytesProcessed() / job.getFileSize()) / 10.0);
+        dto.recordsProcessed = job.getRecordsCommitted();
+        dto.rowsInserted = job.getRowsInserted();
+        dto.rowsUpdated = job.getRowsUpdated();
+        dto.rowsFailed = job.getRowsFailed();
+        dto.errorMessage = job.getErrorMessage();
+        dto.createdAt = job.getCreatedAt();
+        dto.startedAt = job.getStartedAt();
+        dto.finishedAt = job.getFinishedAt();
+        return dto;
+    }
+
+    public boolean isFinished() {
+        return "COMPLETED".equals(status) || "FAILED".equals(status);
+    }
+
+    // Getters and Setters
+    public Long getJobId() { return jobId; }
+    public void setJobId(Long jobId) { this.jobId = jobId; }
+
+    public String getFilename() { return filename; }
+    public void setFilename(String filename) { this.filename = filename; }
+
+    public String getFormat() { return format; }
+    public void setFormat(String format) { this.format = format; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public double getPercentComplete() { return percentComplete; }
+    public void setPercentComplete(double percentComplete) { this.percentComplete = percentComplete; }
+
+    public long getRecordsProcessed() { return recordsProcessed; }
+    public void setRecordsProcessed(long recordsProcessed) { this.recordsProcessed = recordsProcessed; }
+
+    public long getRowsInserted() { return rowsInserted; }
+    public void setRowsInserted(long rowsInserted) { this.rowsInserted = rowsInserted; }
+
+    public long getRowsUpdated() { return rowsUpdated; }
+    public void setRowsUpdated(long rowsUpdated) { this.rowsUpdated = rowsUpdated; }
+
+    public long getRowsFailed() { return rowsFailed; }
+    public void setRowsFailed(long rowsFailed) { this.rowsFailed = rowsFailed; }
+
+    public String getErrorMessage() { return errorMessage; }
+    public void setErrorMessage(String errorMessage) { this.errorMessage = errorMessage; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(LocalDateTime finishedAt) { this.finishedAt = finishedAt; }
+}
@@ -0,0 +1,24 @@
+package com.example.demo.dto;
+
+import java.util.Map;
+
+/**
+ * Immutable storefront view of a product, returned by every /api/products
+ * endpoint. Image fields are already full URLs; imageVariants maps
+ * thumbnail/card/detail to their URLs and is empty (srcset null) when the
+ * image has no resized copies.
+ */
+public record ProductView(
+        Long id,
+        String name,
+        String description,
+        String category,
+        String brand,
+        Double price,
+        Double rating,
+        Integer ratingCount,
+        Integer stock,
+        String image,
+        Map<String, String> imageVariants,
+        String imageSrcset) {
+}
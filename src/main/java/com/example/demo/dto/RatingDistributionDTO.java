@@ -0,0 +1,40 @@
+package com.example.demo.dto;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class RatingDistributionDTO {
+    private Long productId;
+    private Integer ratingCount;
+    private Double averageRating;         // unrounded, 0 when there are no reviews
+    private Map<Integer, Integer> stars;  // 5 -> count ... 1 -> count
+
+    public RatingDistributionDTO() {}
+
+    // Used by the JPQL constructor expression in ProductRepository
+    public RatingDistributionDTO(Long productId, Integer ratingCount, Long ratingSum,
+                                 Integer star1, Integer star2, Integer star3, Integer star4, Integer star5) {
+        this.productId = productId;
+        this.ratingCount = ratingCount;
+        this.averageRating = ratingCount > 0 ? (double) ratingSum / ratingCount : 0.0;
+        this.stars = new LinkedHashMap<>();
+        stars.put(5, star5);
+        stars.put(4, star4);
+        stars.put(3, star3);
+        stars.put(2, star2);
+        stars.put(1, star1);
+    }
+
+    // Getters and Setters
+    public Long getProductId() { return productId; }
+    public void setProductId(Long productId) { this.productId = productId; }
+
+    public Integer getRatingCount() { return ratingCount; }
+    public void setRatingCount(Integer ratingCount) { this.ratingCount = ratingCount; }
+
+    public Double getAverageRating() { return averageRating; }
+    public void setAverageRating(Double averageRating) { this.averageRating = averageRating; }
+
+    public Map<Integer, Integer> getStars() { return stars; }
+    public void setStars(Map<Integer, Integer> stars) { this.stars = stars; }
+}
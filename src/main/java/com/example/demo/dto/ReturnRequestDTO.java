@@ -0,0 +1,87 @@
+package com.example.demo.dto;
+
+import com.example.demo.entity.ReturnStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * One entry of the admin return queue, read as a projection of the order's
+ * return fields and its customer.
+ */
+public class ReturnRequestDTO {
+    private Long orderId;
+    private ReturnStatus returnStatus;
+    private String returnReason;
+    private String returnImages;
+    private LocalDateTime returnRequestedAt;
+    private LocalDateTime returnApprovedAt;
+    private LocalDateTime returnReceivedAt;
+    private LocalDateTime refundInitiatedAt;
+    private Double totalAmount;
+    private Double refundedAmount;
+    private Long customerId;
+    private String customerEmail;
+    private String customerName;
+
+    public ReturnRequestDTO() {}
+
+    public ReturnRequestDTO(Long orderId, ReturnStatus returnStatus, String returnReason, String returnImages,
+                            LocalDateTime returnRequestedAt, LocalDateTime returnApprovedAt,
+                            LocalDateTime returnReceivedAt, LocalDateTime refundInitiatedAt,
+                            Double totalAmount, Double refundedAmount,
+                            Long customerId, String customerEmail, String firstName, String lastName) {
+        this.orderId = orderId;
+        this.returnStatus = returnStatus;
+        this.returnReason = returnReason;
+        this.returnImages = returnImages;
+        this.returnRequestedAt = returnRequestedAt;
+        this.returnApprovedAt = returnApprovedAt;
+        this.returnReceivedAt = returnReceivedAt;
+        this.refundInitiatedAt = refundInitiatedAt;
+        this.totalAmount = totalAmount;
+        this.refundedAmount = refundedAmount;
+        this.customerId = customerId;
+        this.customerEmail = customerEmail;
+        this.customerName = (firstName + " " + lastName).trim();
+    }
+
+    // Getters and Setters
+    public Long getOrderId() { return orderId; }
+    public void setOrderId(Long orderId) { this.orderId = orderId; }
+
+    public ReturnStatus getReturnStatus() { return returnStatus; }
+    public void setReturnStatus(ReturnStatus returnStatus) { this.returnStatus = returnStatus; }
+
+    public String getReturnReason() { return returnReason; }
+    public void setReturnReason(String returnReason) { this.returnReason = returnReason; }
+
+    public String getReturnImages() { return returnImages; }
+    public void setReturnImages(String returnImages) { this.returnImages = returnImages; }
+
+    public LocalDateTime getReturnRequestedAt() { return returnRequestedAt; }
+    public void setReturnRequestedAt(LocalDateTime returnRequestedAt) { this.returnRequestedAt = returnRequestedAt; }
+
+    public LocalDateTime getReturnApprovedAt() { return returnApprovedAt; }
+    public void setReturnApprovedAt(LocalDateTime returnApprovedAt) { this.returnApprovedAt = returnApprovedAt; }
+
+    public LocalDateTime getReturnReceivedAt() { return returnReceivedAt; }
+    public void setReturnReceivedAt(LocalDateTime returnReceivedAt) { this.returnReceivedAt = returnReceivedAt; }
+
+    public LocalDateTime getRefundInitiatedAt() { return refundInitiatedAt; }
+    public void setRefundInitiatedAt(LocalDateTime refundInitiatedAt) { this.refundInitiatedAt = refundInitiatedAt; }
+
+    public Double getTotalAmount() { return totalAmount; }
+    public void setTotalAmount(Double totalAmount) { this.totalAmount = totalAmount; }
+
+    public Double getRefundedAmount() { return refundedAmount; }
+    public void setRefundedAmount(Double refundedAmount) { this.refundedAmount = refundedAmount; }
+
+    public Long getCustomerId() { return customerId; }
+    public void setCustomerId(Long customerId) { this.customerId = customerId; }
+
+    public String getCustomerEmail() { return customerEmail; }
+    public void setCustomerEmail(String customerEmail) { this.customerEmail = customerEmail; }
+
+    public String getCustomerName() { return customerName; }
+    public void setCustomerName(String customerName) { this.customerName = customerName; }
+}
@@ -0,0 +1,29 @@
+package com.example.demo.dto;
+
+public class RevenueSummaryDTO {
+    private Long orderCount;
+    private Double grossRevenue;
+    private Double refundedTotal;
+
+    public RevenueSummaryDTO() {}
+
+    public RevenueSummaryDTO(Long orderCount, Double grossRevenue, Double refundedTotal) {
+        this.orderCount = orderCount;
+        this.grossRevenue = grossRevenue;
+        this.refundedTotal = refundedTotal;
+    }
+
+    // Getters and Setters
+    public Long getOrderCount() { return orderCount; }
+    public void setOrderCount(Long orderCount) { this.orderCount = orderCount; }
+
+    public Double getGrossRevenue() { return grossRevenue; }
+    public void setGrossRevenue(Double grossRevenue) { this.grossRevenue = grossRevenue; }
+
+    public Double getRefundedTotal() { return refundedTotal; }
+    public void setRefundedTotal(Double refundedTotal) { this.refundedTotal = refundedTotal; }
+
+    public Double getNetRevenue() {
+        return (grossRevenue != null ? grossRevenue : 0.0) - (refundedTotal != null ? refundedTotal : 0.0);
+    }
+}
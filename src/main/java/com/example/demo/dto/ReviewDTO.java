@@ -0,0 +1,53 @@
+package com.example.demo.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * A review as shown in the product feed. Built directly by JPQL constructor
+ * expressions (reviewer name joined in SQL), so no Review or User entity is
+ * loaded per row. Field names match the Review entity's JSON.
+ */
+public class ReviewDTO {
+    private Long id;
+    private Long productId;
+    private int rating;
+    private String comment;
+    private LocalDateTime createdAt;
+    private Integer helpfulCount;
+    private String userName;
+
+    public ReviewDTO() {}
+
+    public ReviewDTO(Long id, Long productId, Integer rating, String comment, LocalDateTime createdAt,
+                     Integer helpfulCount, String userName) {
+        this.id = id;
+        this.productId = productId;
+        this.rating = rating;
+        this.comment = comment;
+        this.createdAt = createdAt;
+        this.helpfulCount = helpfulCount;
+        this.userName = userName;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getProductId() { return productId; }
+    public void setProductId(Long productId) { this.productId = productId; }
+
+    public int getRating() { return rating; }
+    public void setRating(int rating) { this.rating = rating; }
+
+    public String getComment() { return comment; }
+    public void setComment(String comment) { this.comment = comment; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public Integer getHelpfulCount() { return helpfulCount; }
+    public void setHelpfulCount(Integer helpfulCount) { this.helpfulCount = helpfulCount; }
+
+    public String getUserName() { return userName; }
+    public void setUserName(String userName) { this.userName = userName; }
+}
@@ -13,6 +13,12 @@ public class StockSummaryDTO {
         this.productCount = productCount;
     }
 
+    // Used by the GROUP BY projection in ProductRepository (SUM/COUNT come back as Long)
+    public StockSummaryDTO(String category, Long totalStock, Long productCount) {
+        this(category, totalStock != null ? totalStock.intValue() : 0,
+                productCount != null ? productCount.intValue() : 0);
+    }
+
     // Getters and Setters
     public String getCategory() { return category; }
     public void setCategory(String category) { this.category = category; }
@@ -0,0 +1,25 @@
+package com.example.demo.dto;
+
+public class SuggestionDTO {
+    private String text;
+    private String type;      // PRODUCT or BRAND
+    private Long productId;   // only set for PRODUCT suggestions
+
+    public SuggestionDTO() {}
+
+    public SuggestionDTO(String text, String type, Long productId) {
+        this.text = text;
+        this.type = type;
+        this.productId = productId;
+    }
+
+    // Getters and Setters
+    public String getText() { return text; }
+    public void setText(String text) { this.text = text; }
+
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+
+    public Long getProductId() { return productId; }
+    public void setProductId(Long productId) { this.productId = productId; }
+}
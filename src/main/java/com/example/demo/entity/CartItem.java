@@ -5,10 +5,16 @@ import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
 
 @Entity
-@Table(name = "cart_items")
+@Table(name = "cart_items", indexes = {
+        @Index(name = "idx_cart_items_cart_product", columnList = "cart_id, product_id")
+})
 public class CartItem {
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    // ✅ Pooled ids so a cart merge inserts all new lines in one JDBC batch (see OrderItem)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cart_item_seq")
+    @SequenceGenerator(name = "cart_item_seq", sequenceName = "cart_item_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     // ✅ Prevent recursion: Cart ↔ CartItem
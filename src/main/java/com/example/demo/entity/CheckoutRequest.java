@@ -0,0 +1,84 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * A checkout accepted by the async order endpoint and waiting for (or done
+ * with) processing. The table is the durable queue: rows survive restarts and
+ * are claimed by flipping ACCEPTED to PROCESSING.
+ */
+@Entity
+@Table(name = "checkout_requests", indexes = {
+        @Index(name = "idx_checkout_requests_status_id", columnList = "status, id")
+})
+public class CheckoutRequest {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Long userId;
+
+    @Column(nullable = false)
+    private String userEmail;
+
+    @Column(length = 1000)
+    private String shippingAddress;
+
+    private String paymentMethod;
+
+    // Stored as a one-byte code
+    @Convert(converter = CheckoutStatus.Converter.class)
+    @Column(nullable = false)
+    private CheckoutStatus status = CheckoutStatus.ACCEPTED;
+
+    private Long orderId;
+
+    @Column(length = 500)
+    private String errorMessage;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    private LocalDateTime processedAt;
+
+    public CheckoutRequest() {}
+
+    public CheckoutRequest(Long userId, String userEmail, String shippingAddress, String paymentMethod) {
+        this.userId = userId;
+        this.userEmail = userEmail;
+        this.shippingAddress = shippingAddress;
+        this.paymentMethod = paymentMethod;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public String getUserEmail() { return userEmail; }
+    public void setUserEmail(String userEmail) { this.userEmail = userEmail; }
+
+    public String getShippingAddress() { return shippingAddress; }
+    public void setShippingAddress(String shippingAddress) { this.shippingAddress = shippingAddress; }
+
+    public String getPaymentMethod() { return paymentMethod; }
+    public void setPaymentMethod(String paymentMethod) { this.paymentMethod = paymentMethod; }
+
+    public CheckoutStatus getStatus() { return status; }
+    public void setStatus(CheckoutStatus status) { this.status = status; }
+
+    public Long getOrderId() { return orderId; }
+    public void setOrderId(Long orderId) { this.orderId = orderId; }
+
+    public String getErrorMessage() { return errorMessage; }
+    public void setErrorMessage(String errorMessage) { this.errorMessage = errorMessage; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getProcessedAt() { return processedAt; }
+    public void setProcessedAt(LocalDateTime processedAt) { this.processedAt = processedAt; }
+}
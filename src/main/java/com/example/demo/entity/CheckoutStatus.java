@@ -0,0 +1,30 @@
+package com.example.demo.entity;
+
+// State of an async checkout request (see CheckoutRequest). Codes are what is stored; never reuse or change one.
+public enum CheckoutStatus implements CodedEnumConverter.Coded {
+    ACCEPTED(0),
+    PROCESSING(1),
+    COMPLETED(2),
+    FAILED(3);
+
+    private final byte code;
+
+    CheckoutStatus(int code) {
+        this.code = (byte) code;
+    }
+
+    @Override
+    public byte getCode() {
+        return code;
+    }
+
+    public boolean isFinished() {
+        return this == COMPLETED || this == FAILED;
+    }
+
+    public static class Converter extends CodedEnumConverter<CheckoutStatus> {
+        public Converter() {
+            super(CheckoutStatus.class);
+        }
+    }
+}
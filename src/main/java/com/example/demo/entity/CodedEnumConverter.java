@@ -0,0 +1,56 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.AttributeConverter;
+
+import java.lang.reflect.Array;
+
+/**
+ * Persists an enum as its fixed one-byte code (a TINYINT column) rather than
+ * its name. Codes are explicit, so constants can be renamed or reordered
+ * without rewriting rows; reading a code is an array lookup.
+ */
+public abstract class CodedEnumConverter<E extends Enum<E> & CodedEnumConverter.Coded>
+        implements AttributeConverter<E, Byte> {
+
+    public interface Coded {
+        byte getCode();
+    }
+
+    private final Class<E> type;
+    private final E[] byCode;
+
+    @SuppressWarnings("unchecked")
+    protected CodedEnumConverter(Class<E> type) {
+        this.type = type;
+        E[] constants = type.getEnumConstants();
+        int maxCode = 0;
+        for (E constant : constants) {
+            if (constant.getCode() < 0) {
+                throw new IllegalStateException("Negative code for " + constant);
+            }
+            maxCode = Math.max(maxCode, constant.getCode());
+        }
+        this.byCode = (E[]) Array.newInstance(type, maxCode + 1);
+        for (E constant : constants) {
+            if (byCode[constant.getCode()] != null) {
+                throw new IllegalStateException("Duplicate code " + constant.getCode() + " in " + type.getSimpleName());
+            }
+            byCode[constant.getCode()] = constant;
+        }
+    }
+
+    @Override
+    public Byte convertToDatabaseColumn(E value) {
+        return value == null ? null : value.getCode();
+    }
+
+    @Override
+    public E convertToEntityAttribute(Byte code) {
+        if (code == null) return null;
+        E value = code >= 0 && code < byCode.length ? byCode[code] : null;
+        if (value == null) {
+            throw new IllegalStateException("Unknown " + type.getSimpleName() + " code " + code);
+        }
+        return value;
+    }
+}
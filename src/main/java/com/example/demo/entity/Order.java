@@ -7,7 +7,15 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_user_id", columnList = "user_id, id"),
+        // Admin console filters, each ending in id for the newest-first seek; the status columns are TINYINT codes
+        @Index(name = "idx_orders_status_id", columnList = "status, id"),
+        @Index(name = "idx_orders_payment_status_id", columnList = "payment_status, id"),
+        @Index(name = "idx_orders_return_status_id", columnList = "return_status, id"),
+        // Date order for the export; for a date-filtered console page it only narrows the range to sort by id
+        @Index(name = "idx_orders_order_date_id", columnList = "order_date, id")
+})
 public class Order {
 
     @Id
@@ -27,14 +35,17 @@ public class Order {
     private String shippingAddress;
     private String paymentMethod;
 
+    // ✅ Stored as one-byte codes; allowed changes live in OrderTransitions
+    @Convert(converter = OrderStatus.Converter.class)
     @Column(nullable = false)
-    private String status = "PENDING";
+    private OrderStatus status = OrderStatus.PENDING;
 
     @Column(nullable = false)
     private LocalDateTime orderDate = LocalDateTime.now();
 
+    @Convert(converter = PaymentStatus.Converter.class)
     @Column(nullable = false)
-    private String paymentStatus = "PENDING";  // PENDING, CONFIRMED, FAILED
+    private PaymentStatus paymentStatus = PaymentStatus.PENDING;
 
     private LocalDateTime paymentConfirmedAt;
     private LocalDateTime shippedAt;
@@ -47,8 +58,8 @@ public class Order {
     public Order() {}
 
     public Order(Long id, User user, List<OrderItem> items, Double totalAmount,
-                 String shippingAddress, String paymentMethod, String status,
-                 LocalDateTime orderDate, String paymentStatus, LocalDateTime paymentConfirmedAt,
+                 String shippingAddress, String paymentMethod, OrderStatus status,
+                 LocalDateTime orderDate, PaymentStatus paymentStatus, LocalDateTime paymentConfirmedAt,
                  LocalDateTime shippedAt, LocalDateTime deliveredAt, LocalDateTime cancelledAt,
                  String trackingNumber, String cancelReason) {
 
@@ -88,14 +99,14 @@ public class Order {
     public String getPaymentMethod() { return paymentMethod; }
     public void setPaymentMethod(String paymentMethod) { this.paymentMethod = paymentMethod; }
 
-    public String getStatus() { return status; }
-    public void setStatus(String status) { this.status = status; }
+    public OrderStatus getStatus() { return status; }
+    public void setStatus(OrderStatus status) { this.status = status; }
 
     public LocalDateTime getOrderDate() { return orderDate; }
     public void setOrderDate(LocalDateTime orderDate) { this.orderDate = orderDate; }
 
-    public String getPaymentStatus() { return paymentStatus; }
-    public void setPaymentStatus(String paymentStatus) { this.paymentStatus = paymentStatus; }
+    public PaymentStatus getPaymentStatus() { return paymentStatus; }
+    public void setPaymentStatus(PaymentStatus paymentStatus) { this.paymentStatus = paymentStatus; }
 
     public LocalDateTime getPaymentConfirmedAt() { return paymentConfirmedAt; }
     public void setPaymentConfirmedAt(LocalDateTime paymentConfirmedAt) {
@@ -119,7 +130,8 @@ public class Order {
 
     // ✅ RETURN FIELDS
 
-    private String returnStatus; 
+    @Convert(converter = ReturnStatus.Converter.class)
+    private ReturnStatus returnStatus;
     private String returnReason;
     private LocalDateTime returnRequestedAt;
     private LocalDateTime returnApprovedAt;
@@ -130,8 +142,8 @@ public class Order {
     private LocalDateTime refundCompletedAt;
     private String returnImages;
 
-    public String getReturnStatus() { return returnStatus; }
-    public void setReturnStatus(String returnStatus) { this.returnStatus = returnStatus; }
+    public ReturnStatus getReturnStatus() { return returnStatus; }
+    public void setReturnStatus(ReturnStatus returnStatus) { this.returnStatus = returnStatus; }
 
     public String getReturnReason() { return returnReason; }
     public void setReturnReason(String returnReason) { this.returnReason = returnReason; }
@@ -4,10 +4,17 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 
 @Entity
-@Table(name = "order_items")
+@Table(name = "order_items", indexes = {
+        @Index(name = "idx_order_items_order_product", columnList = "order_id, product_id")
+})
 public class OrderItem {
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    // ✅ Pooled ids (one sequence hit per 50 rows) so item inserts can be JDBC-batched;
+    // IDENTITY forces an immediate insert per row
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_item_seq")
+    @SequenceGenerator(name = "order_item_seq", sequenceName = "order_item_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     @ManyToOne
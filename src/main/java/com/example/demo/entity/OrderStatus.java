@@ -0,0 +1,34 @@
+package com.example.demo.entity;
+
+// Fulfilment state of an order. Codes are what is stored; never reuse or change one.
+public enum OrderStatus implements CodedEnumConverter.Coded {
+    PENDING(0),             // rows created before orders chose a start state
+    ORDER_PLACED(1),        // cash on delivery
+    PAYMENT_PENDING(2),     // online payment awaiting confirmation
+    PAYMENT_CONFIRMED(3),
+    SHIPPED(4),
+    OUT_FOR_DELIVERY(5),
+    DELIVERED(6),
+    CANCELLED(7);
+
+    private final byte code;
+
+    OrderStatus(int code) {
+        this.code = (byte) code;
+    }
+
+    @Override
+    public byte getCode() {
+        return code;
+    }
+
+    public boolean canMoveTo(OrderStatus next) {
+        return OrderTransitions.allowed(this, next);
+    }
+
+    public static class Converter extends CodedEnumConverter<OrderStatus> {
+        public Converter() {
+            super(OrderStatus.class);
+        }
+    }
+}
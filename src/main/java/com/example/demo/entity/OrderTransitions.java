@@ -0,0 +1,97 @@
+package com.example.demo.entity;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+
+import static com.example.demo.entity.OrderStatus.*;
+
+/**
+ * The one place that says which state changes an order may make. Each table
+ * maps a state to the EnumSet of states it may move to, so a check is an
+ * array lookup plus a bit test. A move to the same state is not a move.
+ */
+public final class OrderTransitions {
+
+    private static final Map<OrderStatus, EnumSet<OrderStatus>> ORDER = table(OrderStatus.class);
+    private static final Map<PaymentStatus, EnumSet<PaymentStatus>> PAYMENT = table(PaymentStatus.class);
+    private static final Map<ReturnStatus, EnumSet<ReturnStatus>> RETURN = table(ReturnStatus.class);
+
+    static {
+        allow(ORDER, PENDING, ORDER_PLACED, PAYMENT_PENDING, PAYMENT_CONFIRMED, SHIPPED, CANCELLED);
+        allow(ORDER, ORDER_PLACED, PAYMENT_CONFIRMED, SHIPPED, CANCELLED);
+        allow(ORDER, PAYMENT_PENDING, PAYMENT_CONFIRMED, CANCELLED);
+        allow(ORDER, PAYMENT_CONFIRMED, SHIPPED, CANCELLED);
+        allow(ORDER, SHIPPED, OUT_FOR_DELIVERY, DELIVERED);
+        allow(ORDER, OUT_FOR_DELIVERY, DELIVERED);
+        // DELIVERED and CANCELLED are final; what happens after delivery is a return
+
+        allow(PAYMENT, PaymentStatus.PENDING, PaymentStatus.CONFIRMED, PaymentStatus.FAILED);
+        allow(PAYMENT, PaymentStatus.FAILED, PaymentStatus.CONFIRMED);
+
+        allow(RETURN, ReturnStatus.REQUESTED, ReturnStatus.APPROVED, ReturnStatus.REJECTED);
+        allow(RETURN, ReturnStatus.APPROVED, ReturnStatus.RETURN_RECEIVED, ReturnStatus.RETURN_REJECTED);
+        allow(RETURN, ReturnStatus.RETURN_RECEIVED, ReturnStatus.REFUND_INITIATED);
+        allow(RETURN, ReturnStatus.REFUND_INITIATED, ReturnStatus.REFUND_COMPLETED);
+    }
+
+    private OrderTransitions() {}
+
+    // ==================== CHECKS ====================
+
+    public static boolean allowed(OrderStatus from, OrderStatus to) {
+        return ORDER.get(from).contains(to);
+    }
+
+    public static boolean allowed(PaymentStatus from, PaymentStatus to) {
+        return PAYMENT.get(from).contains(to);
+    }
+
+    public static boolean allowed(ReturnStatus from, ReturnStatus to) {
+        return RETURN.get(from).contains(to);
+    }
+
+    // The states that may move to the given one, for conditional "WHERE status IN (...)" updates
+    public static EnumSet<OrderStatus> sourcesOf(OrderStatus to) {
+        EnumSet<OrderStatus> sources = EnumSet.noneOf(OrderStatus.class);
+        ORDER.forEach((from, targets) -> {
+            if (targets.contains(to)) sources.add(from);
+        });
+        return sources;
+    }
+
+    public static void check(OrderStatus from, OrderStatus to) {
+        if (!allowed(from, to)) {
+            throw new RuntimeException("Order cannot move from " + from + " to " + to);
+        }
+    }
+
+    public static void check(PaymentStatus from, PaymentStatus to) {
+        if (!allowed(from, to)) {
+            throw new RuntimeException("Payment cannot move from " + from + " to " + to);
+        }
+    }
+
+    public static void check(ReturnStatus from, ReturnStatus to) {
+        if (!allowed(from, to)) {
+            throw new RuntimeException("Return cannot move from " + from + " to " + to);
+        }
+    }
+
+    // ==================== HELPERS ====================
+
+    private static <S extends Enum<S>> Map<S, EnumSet<S>> table(Class<S> type) {
+        Map<S, EnumSet<S>> table = new EnumMap<>(type);
+        for (S state : type.getEnumConstants()) {
+            table.put(state, EnumSet.noneOf(type));
+        }
+        return table;
+    }
+
+    @SafeVarargs
+    private static <S extends Enum<S>> void allow(Map<S, EnumSet<S>> table, S from, S... to) {
+        for (S next : to) {
+            table.get(from).add(next);
+        }
+    }
+}
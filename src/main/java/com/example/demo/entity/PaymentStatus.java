@@ -0,0 +1,29 @@
+package com.example.demo.entity;
+
+// Payment state of an order. Codes are what is stored; never reuse or change one.
+public enum PaymentStatus implements CodedEnumConverter.Coded {
+    PENDING(0),
+    CONFIRMED(1),
+    FAILED(2);
+
+    private final byte code;
+
+    PaymentStatus(int code) {
+        this.code = (byte) code;
+    }
+
+    @Override
+    public byte getCode() {
+        return code;
+    }
+
+    public boolean canMoveTo(PaymentStatus next) {
+        return OrderTransitions.allowed(this, next);
+    }
+
+    public static class Converter extends CodedEnumConverter<PaymentStatus> {
+        public Converter() {
+            super(PaymentStatus.class);
+        }
+    }
+}
@@ -2,16 +2,30 @@ package com.example.demo.entity;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+        @Index(name = "idx_products_category_id", columnList = "category, id"),
+        @Index(name = "idx_products_category_stock", columnList = "category, stock"),
+        @Index(name = "idx_products_stock", columnList = "stock")
+}, uniqueConstraints = {
+        // Supplier SKU: the key bulk imports upsert on (null for products created by hand)
+        @UniqueConstraint(name = "uk_products_sku", columnNames = "sku")
+})
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Product {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @Column(length = 64)
+    private String sku;
+
     @Column(nullable = false)
     private String name;
 
@@ -26,8 +40,47 @@ public class Product {
     @Column(nullable = false)
     private Double price;
 
+    // Initial rating only: after the insert the review aggregates own it, so entity saves never write it
+    @Column(updatable = false)
     private Double rating = 4.0;
 
+    // ✅ Running review aggregates, changed only by delta updates (see ReviewService.applyRatingChange).
+    // Read-only to Hibernate, so a product save cannot write back values a concurrent review has moved
+    @Column(nullable = false, insertable = false, updatable = false)
+    @ColumnDefault("0")
+    private Integer ratingCount = 0;
+
+    @JsonIgnore
+    @Column(nullable = false, insertable = false, updatable = false)
+    @ColumnDefault("0")
+    private Long ratingSum = 0L;
+
+    // Per-star histogram: number of 1..5 star reviews
+    @JsonIgnore
+    @Column(nullable = false, insertable = false, updatable = false)
+    @ColumnDefault("0")
+    private Integer star1 = 0;
+
+    @JsonIgnore
+    @Column(nullable = false, insertable = false, updatable = false)
+    @ColumnDefault("0")
+    private Integer star2 = 0;
+
+    @JsonIgnore
+    @Column(nullable = false, insertable = false, updatable = false)
+    @ColumnDefault("0")
+    private Integer star3 = 0;
+
+    @JsonIgnore
+    @Column(nullable = false, insertable = false, updatable = false)
+    @ColumnDefault("0")
+    private Integer star4 = 0;
+
+    @JsonIgnore
+    @Column(nullable = false, insertable = false, updatable = false)
+    @ColumnDefault("0")
+    private Integer star5 = 0;
+
     @Column(nullable = false)
     private Integer stock = 0;
 
@@ -87,12 +140,36 @@ public class Product {
     public Double getRating() { return rating; }
     public void setRating(Double rating) { this.rating = rating; }
 
+    public Integer getRatingCount() { return ratingCount; }
+    public void setRatingCount(Integer ratingCount) { this.ratingCount = ratingCount; }
+
+    public Long getRatingSum() { return ratingSum; }
+    public void setRatingSum(Long ratingSum) { this.ratingSum = ratingSum; }
+
+    public Integer getStar1() { return star1; }
+    public void setStar1(Integer star1) { this.star1 = star1; }
+
+    public Integer getStar2() { return star2; }
+    public void setStar2(Integer star2) { this.star2 = star2; }
+
+    public Integer getStar3() { return star3; }
+    public void setStar3(Integer star3) { this.star3 = star3; }
+
+    public Integer getStar4() { return star4; }
+    public void setStar4(Integer star4) { this.star4 = star4; }
+
+    public Integer getStar5() { return star5; }
+    public void setStar5(Integer star5) { this.star5 = star5; }
+
     public Integer getStock() { return stock; }
     public void setStock(Integer stock) { this.stock = stock; }
 
     public String getImage() { return image; }
     public void setImage(String image) { this.image = image; }
 
+    public String getSku() { return sku; }
+    public void setSku(String sku) { this.sku = sku; }
+
     public List<CartItem> getCartItems() { return cartItems; }
     public void setCartItems(List<CartItem> cartItems) { this.cartItems = cartItems; }
 
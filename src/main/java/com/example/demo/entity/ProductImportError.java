@@ -0,0 +1,51 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+
+// A feed row that failed validation; stored with its chunk, so a resumed job never repeats one
+@Entity
+@Table(name = "product_import_errors", indexes = {
+        @Index(name = "idx_product_import_errors_job_line", columnList = "job_id, line_number")
+})
+public class ProductImportError {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "job_id", nullable = false)
+    private Long jobId;
+
+    @Column(name = "line_number", nullable = false)
+    private long lineNumber;
+
+    @Column(length = 64)
+    private String sku;
+
+    @Column(length = 500)
+    private String message;
+
+    public ProductImportError() {}
+
+    public ProductImportError(Long jobId, long lineNumber, String sku, String message) {
+        this.jobId = jobId;
+        this.lineNumber = lineNumber;
+        this.sku = sku;
+        this.message = message;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getJobId() { return jobId; }
+    public void setJobId(Long jobId) { this.jobId = jobId; }
+
+    public long getLineNumber() { return lineNumber; }
+    public void setLineNumber(long lineNumber) { this.lineNumber = lineNumber; }
+
+    public String getSku() { return sku; }
+    public void setSku(String sku) { this.sku = sku; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+}
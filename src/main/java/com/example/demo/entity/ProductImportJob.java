@@ -0,0 +1,101 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * A bulk product import. The uploaded file stays on disk until the job
+ * completes; recordsCommitted counts the data records whose chunk has
+ * committed, so an interrupted or failed job resumes right after them.
+ */
+@Entity
+@Table(name = "product_import_jobs", indexes = {
+        @Index(name = "idx_product_import_jobs_status_id", columnList = "status, id")
+})
+public class ProductImportJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String originalFilename;
+
+    @Column(nullable = false)
+    private String storedFilename;
+
+    @Column(nullable = false)
+    private String format; // CSV, NDJSON
+
+    @Column(nullable = false)
+    private String status = "QUEUED"; // QUEUED, RUNNING, COMPLETED, FAILED
+
+    private long fileSize;
+    private long bytesProcessed;
+    private long recordsCommitted;
+    private long rowsInserted;
+    private long rowsUpdated;
+    private long rowsFailed;
+
+    @Column(length = 500)
+    private String errorMessage;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+
+    public ProductImportJob() {}
+
+    public ProductImportJob(String originalFilename, String storedFilename, String format, long fileSize) {
+        this.originalFilename = originalFilename;
+        this.storedFilename = storedFilename;
+        this.format = format;
+        this.fileSize = fileSize;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getOriginalFilename() { return originalFilename; }
+    public void setOriginalFilename(String originalFilename) { this.originalFilename = originalFilename; }
+
+    public String getStoredFilename() { return storedFilename; }
+    public void setStoredFilename(String storedFilename) { this.storedFilename = storedFilename; }
+
+    public String getFormat() { return format; }
+    public void setFormat(String format) { this.format = format; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public long getFileSize() { return fileSize; }
+    public void setFileSize(long fileSize) { this.fileSize = fileSize; }
+
+    public long getBytesProcessed() { return bytesProcessed; }
+    public void setBytesProcessed(long bytesProcessed) { this.bytesProcessed = bytesProcessed; }
+
+    public long getRecordsCommitted() { return recordsCommitted; }
+    public void setRecordsCommitted(long recordsCommitted) { this.recordsCommitted = recordsCommitted; }
+
+    public long getRowsInserted() { return rowsInserted; }
+    public void setRowsInserted(long rowsInserted) { this.rowsInserted = rowsInserted; }
+
+    public long getRowsUpdated() { return rowsUpdated; }
+    public void setRowsUpdated(long rowsUpdated) { this.rowsUpdated = rowsUpdated; }
+
+    public long getRowsFailed() { return rowsFailed; }
+    public void setRowsFailed(long rowsFailed) { this.rowsFailed = rowsFailed; }
+
+    public String getErrorMessage() { return errorMessage; }
+    public void setErrorMessage(String errorMessage) { this.errorMessage = errorMessage; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(LocalDateTime finishedAt) { this.finishedAt = finishedAt; }
+}
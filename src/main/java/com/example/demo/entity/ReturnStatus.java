@@ -0,0 +1,41 @@
+package com.example.demo.entity;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+// Return/refund state of an order (null until a return is requested). Codes are what is stored.
+public enum ReturnStatus implements CodedEnumConverter.Coded {
+    REQUESTED(0),
+    APPROVED(1),
+    REJECTED(2),
+    RETURN_RECEIVED(3),
+    RETURN_REJECTED(4),
+    REFUND_INITIATED(5),
+    REFUND_COMPLETED(6);
+
+    // States an admin still has to act on; REJECTED, RETURN_REJECTED and REFUND_COMPLETED are closed
+    public static final Set<ReturnStatus> OPEN =
+            Collections.unmodifiableSet(EnumSet.of(REQUESTED, APPROVED, RETURN_RECEIVED, REFUND_INITIATED));
+
+    private final byte code;
+
+    ReturnStatus(int code) {
+        this.code = (byte) code;
+    }
+
+    @Override
+    public byte getCode() {
+        return code;
+    }
+
+    public boolean canMoveTo(ReturnStatus next) {
+        return OrderTransitions.allowed(this, next);
+    }
+
+    public static class Converter extends CodedEnumConverter<ReturnStatus> {
+        public Converter() {
+            super(ReturnStatus.class);
+        }
+    }
+}
@@ -3,10 +3,16 @@ package com.example.demo.entity;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "reviews")
+@Table(name = "reviews", indexes = {
+        // ✅ One index per feed sort: product filter, then the keyset columns
+        @Index(name = "idx_reviews_product_created", columnList = "product_id, createdAt, id"),
+        @Index(name = "idx_reviews_product_rating", columnList = "product_id, rating, id"),
+        @Index(name = "idx_reviews_product_helpful", columnList = "product_id, helpfulCount, id")
+})
 public class Review {
 
     @Id
@@ -22,6 +28,10 @@ public class Review {
     @Column(nullable = false)
     private LocalDateTime createdAt = LocalDateTime.now();
 
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private Integer helpfulCount = 0;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     @JsonIgnore
@@ -61,6 +71,9 @@ public class Review {
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
 
+    public Integer getHelpfulCount() { return helpfulCount; }
+    public void setHelpfulCount(Integer helpfulCount) { this.helpfulCount = helpfulCount; }
+
     public User getUser() { return user; }
     public void setUser(User user) { this.user = user; }
 
@@ -0,0 +1,47 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * One user's "helpful" vote on a review. The unique key makes a second vote
+ * from the same user fail, so Review.helpfulCount counts distinct users.
+ */
+@Entity
+@Table(name = "review_helpful_votes", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_review_helpful_votes_review_user", columnNames = {"review_id", "user_id"})
+})
+public class ReviewHelpfulVote {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "review_id", nullable = false)
+    private Long reviewId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    public ReviewHelpfulVote() {}
+
+    public ReviewHelpfulVote(Long reviewId, Long userId) {
+        this.reviewId = reviewId;
+        this.userId = userId;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getReviewId() { return reviewId; }
+    public void setReviewId(Long reviewId) { this.reviewId = reviewId; }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
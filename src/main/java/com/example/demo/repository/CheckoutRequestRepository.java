@@ -0,0 +1,38 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.CheckoutRequest;
+import com.example.demo.entity.CheckoutStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface CheckoutRequestRepository extends JpaRepository<CheckoutRequest, Long> {
+
+    // States are passed as parameters, so they bind as their stored codes
+
+    @Query("SELECT c.id FROM CheckoutRequest c WHERE c.status = :status ORDER BY c.id")
+    List<Long> findIdsByStatus(CheckoutStatus status, Pageable pageable);
+
+    // Claim: only one dispatcher can move a request out of ACCEPTED
+    @Modifying
+    @Query("UPDATE CheckoutRequest c SET c.status = :to WHERE c.id = :id AND c.status = :from")
+    int transitionStatus(Long id, CheckoutStatus from, CheckoutStatus to);
+
+    @Modifying
+    @Query("UPDATE CheckoutRequest c SET c.status = :completed, c.orderId = :orderId, c.processedAt = :processedAt " +
+           "WHERE c.id = :id")
+    int markCompleted(Long id, CheckoutStatus completed, Long orderId, LocalDateTime processedAt);
+
+    @Modifying
+    @Query("UPDATE CheckoutRequest c SET c.status = :failed, c.errorMessage = :errorMessage, c.processedAt = :processedAt " +
+           "WHERE c.id = :id")
+    int markFailed(Long id, CheckoutStatus failed, String errorMessage, LocalDateTime processedAt);
+
+    // A PROCESSING row left by a stopped instance never committed its order (see CheckoutQueueService)
+    @Modifying
+    @Query("UPDATE CheckoutRequest c SET c.status = :to WHERE c.status = :from")
+    int requeue(CheckoutStatus from, CheckoutStatus to);
+}
@@ -1,7 +1,20 @@
 package com.example.demo.repository;
 
 import com.example.demo.entity.OrderItem;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import java.util.stream.Stream;
 
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
-}
\ No newline at end of file
+
+    // Purchase check: stops at the first matching row (idx_orders_user_id + idx_order_items_order_product)
+    boolean existsByOrder_User_IdAndProduct_Id(Long userId, Long productId);
+
+    // Every (user id, product id) purchase pair, streamed row by row from MySQL
+    @Query("SELECT o.user.id, oi.product.id FROM OrderItem oi JOIN oi.order o")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    Stream<Object[]> streamPurchasePairs();
+}
@@ -1,9 +1,64 @@
 package com.example.demo.repository;
 
+import com.example.demo.dto.ReturnRequestDTO;
+import com.example.demo.dto.RevenueSummaryDTO;
 import com.example.demo.entity.Order;
+import com.example.demo.entity.OrderStatus;
+import com.example.demo.entity.ReturnStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
-public interface OrderRepository extends JpaRepository<Order, Long> {
+public interface OrderRepository extends JpaRepository<Order, Long>, OrderSearchRepository {
     List<Order> findByUserId(Long userId);
+
+    // Moves an order only from a state that may reach the new one, so a stale read cannot undo another move
+    @Modifying
+    @Query("UPDATE Order o SET o.status = :to WHERE o.id = :id AND o.status IN :from")
+    int transitionStatus(Long id, Collection<OrderStatus> from, OrderStatus to);
+
+    // Cancels only from a cancellable state, so of two concurrent cancels exactly one updates the row.
+    // A null userId (admin) skips the ownership condition
+    @Modifying
+    @Query("UPDATE Order o SET o.status = :cancelled, o.cancelledAt = :cancelledAt, o.cancelReason = :reason " +
+           "WHERE o.id = :id AND (:userId IS NULL OR o.user.id = :userId) AND o.status IN :from")
+    int cancel(Long id, Long userId, Collection<OrderStatus> from, OrderStatus cancelled,
+               LocalDateTime cancelledAt, String reason);
+
+    // Order lists fetch customer, items and item products in one joined query (no N+1)
+    @EntityGraph(attributePaths = {"user", "items", "items.product"})
+    List<Order> findWithItemsByUserId(Long userId);
+
+    // Admin order detail: the full graph of a single order
+    @EntityGraph(attributePaths = {"user", "items", "items.product"})
+    Optional<Order> findWithItemsById(Long id);
+
+    // ==================== RETURN QUEUE ====================
+    // All three read (return_status, id) ranges, so cost follows the number of returns in those states
+
+    @Query("SELECT new com.example.demo.dto.ReturnRequestDTO(o.id, o.returnStatus, o.returnReason, o.returnImages, " +
+           "o.returnRequestedAt, o.returnApprovedAt, o.returnReceivedAt, o.refundInitiatedAt, " +
+           "o.totalAmount, o.refundedAmount, u.id, u.email, u.firstName, u.lastName) " +
+           "FROM Order o JOIN o.user u " +
+           "WHERE o.returnStatus IN :states AND o.id > :afterId ORDER BY o.id")
+    List<ReturnRequestDTO> findReturnQueue(Collection<ReturnStatus> states, Long afterId, Pageable pageable);
+
+    @Query("SELECT o.returnStatus, COUNT(o) FROM Order o WHERE o.returnStatus IN :states GROUP BY o.returnStatus")
+    List<Object[]> countByReturnStatus(Collection<ReturnStatus> states);
+
+    // Moves a return one step only if it is still in the expected state, so two admins cannot both apply it
+    @Modifying
+    @Query("UPDATE Order o SET o.returnStatus = :to WHERE o.id = :id AND o.returnStatus = :from")
+    int transitionReturnStatus(Long id, ReturnStatus from, ReturnStatus to);
+
+    // Net revenue is grossRevenue - refundedTotal, i.e. SUM(totalAmount - refundedAmount)
+    @Query("SELECT new com.example.demo.dto.RevenueSummaryDTO(COUNT(o), " +
+           "COALESCE(SUM(o.totalAmount), 0.0), COALESCE(SUM(o.refundedAmount), 0.0)) FROM Order o")
+    RevenueSummaryDTO summarizeRevenue();
 }
\ No newline at end of file
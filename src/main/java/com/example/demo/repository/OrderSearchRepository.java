@@ -0,0 +1,17 @@
+package com.example.demo.repository;
+
+import com.example.demo.dto.OrderFilter;
+import com.example.demo.dto.OrderSummaryDTO;
+
+import java.util.List;
+
+// Dynamic-filter queries for the admin console (implemented with the Criteria API)
+public interface OrderSearchRepository {
+
+    /**
+     * Newest-first summaries matching the filter, seeking below beforeId
+     * (null for the first page). userId, when set, is the customer resolved
+     * from the filter's email. Returns at most limit rows.
+     */
+    List<OrderSummaryDTO> searchSummaries(OrderFilter filter, Long userId, Long beforeId, int limit);
+}
@@ -0,0 +1,86 @@
+package com.example.demo.repository;
+
+import com.example.demo.dto.OrderFilter;
+import com.example.demo.dto.OrderSummaryDTO;
+import com.example.demo.entity.Order;
+import com.example.demo.entity.OrderItem;
+import com.example.demo.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Only the filters that are set become predicates. Pages seek on id
+ * descending: a single status, payment status, return status or user filter
+ * walks its (column, id) index in id order and stops after one page, so deep
+ * pages cost the same as the first. A from/to filter only narrows the range
+ * on (order_date, id), which returns rows in date order, so those pages sort
+ * every order in the range before taking the limit; keep date ranges short.
+ */
+public class OrderSearchRepositoryImpl implements OrderSearchRepository {
+
+    private final EntityManager entityManager;
+
+    public OrderSearchRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<OrderSummaryDTO> searchSummaries(OrderFilter filter, Long userId, Long beforeId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<OrderSummaryDTO> query = cb.createQuery(OrderSummaryDTO.class);
+        Root<Order> order = query.from(Order.class);
+        Join<Order, User> user = order.join("user");
+
+        // Correlated count, evaluated only for the rows of this page
+        Subquery<Long> itemCount = query.subquery(Long.class);
+        Root<OrderItem> item = itemCount.from(OrderItem.class);
+        itemCount.select(cb.count(item)).where(cb.equal(item.get("order"), order));
+
+        List<Predicate> where = new ArrayList<>();
+        if (filter.getStatus() != null) {
+            where.add(cb.equal(order.get("status"), filter.getStatus()));
+        }
+        if (filter.getPaymentStatus() != null) {
+            where.add(cb.equal(order.get("paymentStatus"), filter.getPaymentStatus()));
+        }
+        if (filter.getReturnStatus() != null) {
+            where.add(cb.equal(order.get("returnStatus"), filter.getReturnStatus()));
+        }
+        if (filter.getFrom() != null) {
+            where.add(cb.greaterThanOrEqualTo(order.get("orderDate"), filter.getFrom().atStartOfDay()));
+        }
+        if (filter.getTo() != null) {
+            where.add(cb.lessThan(order.get("orderDate"), filter.getTo().plusDays(1).atStartOfDay()));
+        }
+        if (userId != null) {
+            where.add(cb.equal(order.get("user").get("id"), userId));
+        }
+        if (beforeId != null) {
+            where.add(cb.lessThan(order.get("id"), beforeId));
+        }
+
+        query.select(cb.construct(OrderSummaryDTO.class,
+                        order.get("id"),
+                        order.get("orderDate"),
+                        order.get("status"),
+                        order.get("paymentStatus"),
+                        order.get("returnStatus"),
+                        order.get("totalAmount"),
+                        order.get("refundedAmount"),
+                        order.get("paymentMethod"),
+                        user.get("id"),
+                        user.get("email"),
+                        user.get("firstName"),
+                        user.get("lastName"),
+                        itemCount))
+                .where(where.toArray(new Predicate[0]))
+                .orderBy(cb.desc(order.get("id")));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
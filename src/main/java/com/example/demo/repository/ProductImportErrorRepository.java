@@ -0,0 +1,9 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.ProductImportError;
+import org.springframework.data.jpa.repository.JpaRepository;
+import java.util.List;
+
+public interface ProductImportErrorRepository extends JpaRepository<ProductImportError, Long> {
+    List<ProductImportError> findByJobIdOrderByLineNumber(Long jobId);
+}
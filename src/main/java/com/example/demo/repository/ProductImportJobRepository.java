@@ -0,0 +1,47 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.ProductImportJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ProductImportJobRepository extends JpaRepository<ProductImportJob, Long> {
+
+    @Query("SELECT j.id FROM ProductImportJob j WHERE j.status = 'QUEUED' ORDER BY j.id")
+    List<Long> findQueuedIds();
+
+    // Claim: a job runs on one worker only
+    @Modifying
+    @Query("UPDATE ProductImportJob j SET j.status = 'RUNNING', j.startedAt = COALESCE(j.startedAt, :now) " +
+           "WHERE j.id = :id AND j.status = 'QUEUED'")
+    int markRunning(Long id, LocalDateTime now);
+
+    // Committed together with the chunk's upserts, so progress never runs ahead of the data
+    @Modifying
+    @Query("UPDATE ProductImportJob j SET j.recordsCommitted = :records, j.bytesProcessed = :bytes, " +
+           "j.rowsInserted = j.rowsInserted + :inserted, j.rowsUpdated = j.rowsUpdated + :updated, " +
+           "j.rowsFailed = j.rowsFailed + :failed WHERE j.id = :id")
+    int recordProgress(Long id, long records, long bytes, long inserted, long updated, long failed);
+
+    @Modifying
+    @Query("UPDATE ProductImportJob j SET j.status = 'COMPLETED', j.bytesProcessed = j.fileSize, " +
+           "j.finishedAt = :finishedAt WHERE j.id = :id")
+    int markCompleted(Long id, LocalDateTime finishedAt);
+
+    @Modifying
+    @Query("UPDATE ProductImportJob j SET j.status = 'FAILED', j.errorMessage = :errorMessage, " +
+           "j.finishedAt = :finishedAt WHERE j.id = :id")
+    int markFailed(Long id, String errorMessage, LocalDateTime finishedAt);
+
+    @Modifying
+    @Query("UPDATE ProductImportJob j SET j.status = 'QUEUED', j.errorMessage = NULL, j.finishedAt = NULL " +
+           "WHERE j.id = :id AND j.status = 'FAILED'")
+    int requeueFailed(Long id);
+
+    // A RUNNING job left by a stopped instance resumes from its last committed chunk
+    @Modifying
+    @Query("UPDATE ProductImportJob j SET j.status = 'QUEUED' WHERE j.status = 'RUNNING'")
+    int requeueRunning();
+}
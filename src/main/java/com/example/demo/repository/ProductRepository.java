@@ -1,11 +1,70 @@
 package com.example.demo.repository;
 
+import com.example.demo.dto.RatingDistributionDTO;
+import com.example.demo.dto.StockSummaryDTO;
 import com.example.demo.entity.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ProductRepository extends JpaRepository<Product, Long> {
+    String QUERY_CACHE_REGION = "product-queries";
+
+    // Query cache keeps only the ids; the rows themselves come from the Product entity region
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = QUERY_CACHE_REGION)
+    })
     List<Product> findByCategory(String category);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = QUERY_CACHE_REGION)
+    })
     List<Product> findTop12ByOrderByIdDesc();
+
     List<Product> findByNameContainingIgnoreCaseOrBrandContainingIgnoreCase(String name, String brand);
-}
\ No newline at end of file
+    List<Product> findByStockLessThan(Integer stock);
+
+    // Keyset pagination: seek past the last id seen instead of OFFSET
+    List<Product> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+    List<Product> findByCategoryAndIdGreaterThanOrderByIdAsc(String category, Long id, Pageable pageable);
+
+    // Rows a bulk import just wrote over JDBC; bypasses the second-level cache, whose entries are stale
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE"))
+    List<Product> findBySkuIn(Collection<String> skus);
+
+    // Forward-only streaming reads (MySQL streams rows when fetch size is Integer.MIN_VALUE);
+    // full scans bypass the second-level cache so they do not churn it
+    @Query("SELECT p FROM Product p ORDER BY p.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    Stream<Product> streamAll();
+
+    @Query("SELECT p FROM Product p WHERE p.category = :category ORDER BY p.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    Stream<Product> streamByCategory(String category);
+
+    @Query("SELECT new com.example.demo.dto.RatingDistributionDTO(p.id, p.ratingCount, p.ratingSum, " +
+           "p.star1, p.star2, p.star3, p.star4, p.star5) FROM Product p WHERE p.id = :id")
+    Optional<RatingDistributionDTO> findRatingDistribution(Long id);
+
+    // Aggregated in the database so reporting never loads Product entities
+    @Query("SELECT new com.example.demo.dto.StockSummaryDTO(p.category, SUM(p.stock), COUNT(p)) " +
+           "FROM Product p GROUP BY p.category")
+    List<StockSummaryDTO> summarizeStockByCategory();
+}
@@ -0,0 +1,14 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.ReviewHelpfulVote;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+public interface ReviewHelpfulVoteRepository extends JpaRepository<ReviewHelpfulVote, Long> {
+    boolean existsByReviewIdAndUserId(Long reviewId, Long userId);
+
+    @Modifying
+    @Query("DELETE FROM ReviewHelpfulVote v WHERE v.reviewId = :reviewId")
+    int deleteByReviewId(Long reviewId);
+}
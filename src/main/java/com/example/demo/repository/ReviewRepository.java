@@ -1,14 +1,22 @@
-
-
 package com.example.demo.repository;
 
+import com.example.demo.dto.ReviewDTO;
 import com.example.demo.entity.Review;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 public interface ReviewRepository extends JpaRepository<Review, Long> {
 
+    // Projection for the product feed: reviewer name joined in SQL (a missing part is skipped), no entity per row
+    String FEED_SELECT = "SELECT new com.example.demo.dto.ReviewDTO(r.id, r.product.id, r.rating, r.comment, " +
+            "r.createdAt, r.helpfulCount, TRIM(CONCAT(COALESCE(u.firstName, ''), ' ', COALESCE(u.lastName, '')))) " +
+            "FROM Review r JOIN r.user u WHERE r.product.id = :productId ";
+
     // Get reviews by product
     List<Review> findByProduct_Id(Long productId);
 
@@ -17,4 +25,36 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
 
     // Check if user already reviewed a product
     Optional<Review> findByUser_IdAndProduct_Id(Long userId, Long productId);
+
+    // ==================== FEED ====================
+
+    @Query(FEED_SELECT + "ORDER BY r.id")
+    List<ReviewDTO> findFeedByProduct(Long productId);
+
+    // Keyset pages, newest id first within ties. First pages pass sentinel values that sort before every row.
+    @Query(FEED_SELECT + "AND (r.createdAt < :createdAt OR (r.createdAt = :createdAt AND r.id < :id)) " +
+           "ORDER BY r.createdAt DESC, r.id DESC")
+    List<ReviewDTO> findFeedNewest(Long productId, LocalDateTime createdAt, Long id, Pageable pageable);
+
+    @Query(FEED_SELECT + "AND (r.rating < :rating OR (r.rating = :rating AND r.id < :id)) " +
+           "ORDER BY r.rating DESC, r.id DESC")
+    List<ReviewDTO> findFeedHighest(Long productId, int rating, Long id, Pageable pageable);
+
+    // Oldest id first within ties, so the whole ORDER BY runs ascending along the (product_id, rating, id) index
+    @Query(FEED_SELECT + "AND (r.rating > :rating OR (r.rating = :rating AND r.id > :id)) " +
+           "ORDER BY r.rating ASC, r.id ASC")
+    List<ReviewDTO> findFeedLowest(Long productId, int rating, Long id, Pageable pageable);
+
+    @Query(FEED_SELECT + "AND (r.helpfulCount < :helpfulCount OR (r.helpfulCount = :helpfulCount AND r.id < :id)) " +
+           "ORDER BY r.helpfulCount DESC, r.id DESC")
+    List<ReviewDTO> findFeedMostHelpful(Long productId, int helpfulCount, Long id, Pageable pageable);
+
+    // ==================== HELPFUL VOTES ====================
+
+    @Modifying
+    @Query("UPDATE Review r SET r.helpfulCount = r.helpfulCount + 1 WHERE r.id = :id")
+    int incrementHelpfulCount(Long id);
+
+    @Query("SELECT r.helpfulCount FROM Review r WHERE r.id = :id")
+    Integer findHelpfulCountById(Long id);
 }
@@ -2,16 +2,29 @@
 
 package com.example.demo.service;
 
+import com.example.demo.config.BoundedCacheRegionFactory;
+import com.example.demo.dto.CursorPage;
+import com.example.demo.dto.OrderDTO;
+import com.example.demo.dto.OrderFilter;
+import com.example.demo.dto.OrderSummaryDTO;
+import com.example.demo.dto.ReturnRequestDTO;
 import com.example.demo.dto.StockSummaryDTO;
 import com.example.demo.entity.Order;
 import com.example.demo.entity.OrderItem;
+import com.example.demo.entity.OrderStatus;
+import com.example.demo.entity.OrderTransitions;
 import com.example.demo.entity.Product;
+import com.example.demo.entity.ReturnStatus;
 import com.example.demo.entity.User;
 import com.example.demo.repository.OrderRepository;
 import com.example.demo.repository.ProductRepository;
 import com.example.demo.repository.UserRepository;
 import com.example.demo.repository.CartItemRepository;
+import com.example.demo.util.CursorUtil;
+import com.example.demo.util.TransactionUtil;
 
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -22,34 +35,74 @@ import java.util.stream.Collectors;
 @Service
 public class AdminService {
 
+    public static final int DEFAULT_ORDER_PAGE_SIZE = 50;
+    public static final int MAX_ORDER_PAGE_SIZE = 200;
+
     private final UserRepository userRepository;
     private final ProductRepository productRepository;
     private final OrderRepository orderRepository;
     private final CartItemRepository cartItemRepository;
     private final OrderService orderService;
+    private final DashboardStatsService dashboardStatsService;
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductSuggestIndex productSuggestIndex;
+    private final ProductCacheService productCacheService;
+    private final StockReservationService stockReservationService;
+    private final JwtService jwtService;
+    private final ReviewService reviewService;
+    private final ProductViewMapper productViewMapper;
+    private final EntityManagerFactory entityManagerFactory;
 
     public AdminService(UserRepository userRepository,
                         ProductRepository productRepository,
                         OrderRepository orderRepository,
                         CartItemRepository cartItemRepository,
-                        OrderService orderService) {
+                        OrderService orderService,
+                        DashboardStatsService dashboardStatsService,
+                        ProductSearchIndex productSearchIndex,
+                        ProductSuggestIndex productSuggestIndex,
+                        ProductCacheService productCacheService,
+                        StockReservationService stockReservationService,
+                        JwtService jwtService,
+                        ReviewService reviewService,
+                        ProductViewMapper productViewMapper,
+                        EntityManagerFactory entityManagerFactory) {
         this.userRepository = userRepository;
         this.productRepository = productRepository;
         this.orderRepository = orderRepository;
         this.cartItemRepository = cartItemRepository;
         this.orderService = orderService;
+        this.dashboardStatsService = dashboardStatsService;
+        this.productSearchIndex = productSearchIndex;
+        this.productSuggestIndex = productSuggestIndex;
+        this.productCacheService = productCacheService;
+        this.stockReservationService = stockReservationService;
+        this.jwtService = jwtService;
+        this.reviewService = reviewService;
+        this.productViewMapper = productViewMapper;
+        this.entityManagerFactory = entityManagerFactory;
     }
 
     // ==================== PRODUCT MANAGEMENT ====================
 
     public Product addProduct(Product product) {
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        TransactionUtil.afterCommit(() -> {
+            dashboardStatsService.onProductAdded(saved);
+            productSearchIndex.index(saved);
+            productSuggestIndex.index(saved);
+            productCacheService.evictProduct(saved.getId(), saved.getCategory());
+        });
+        return saved;
     }
 
     public Product updateProduct(Long id, Product productDetails) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Product not found"));
 
+        String previousCategory = product.getCategory();
+        int previousStock = product.getStock();
+
         product.setName(productDetails.getName());
         product.setDescription(productDetails.getDescription());
         product.setCategory(productDetails.getCategory());
@@ -61,9 +114,14 @@ public class AdminService {
             product.setImage(productDetails.getImage());
         }
 
-        product.setRating(productDetails.getRating());
-
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        TransactionUtil.afterCommit(() -> {
+            dashboardStatsService.onProductUpdated(previousCategory, previousStock, saved);
+            productSearchIndex.index(saved);
+            productSuggestIndex.index(saved);
+            productCacheService.evictProduct(id, previousCategory, saved.getCategory());
+        });
+        return saved;
     }
 
     public void deleteProduct(Long id) {
@@ -72,24 +130,19 @@ public class AdminService {
 
         cartItemRepository.deleteByProduct(product);
         productRepository.deleteById(id);
+        TransactionUtil.afterCommit(() -> {
+            dashboardStatsService.onProductDeleted(product);
+            productSearchIndex.remove(id);
+            productSuggestIndex.remove(id);
+            productCacheService.evictProduct(id, product.getCategory());
+        });
     }
 
     // ==================== STOCK MANAGEMENT ====================
 
+    // ✅ GROUP BY in the database - no Product entities are loaded
     public List<StockSummaryDTO> getStockSummary() {
-        List<Product> products = productRepository.findAll();
-        Map<String, StockSummaryDTO> summaryMap = new HashMap<>();
-
-        for (Product product : products) {
-            String category = product.getCategory();
-            summaryMap.putIfAbsent(category, new StockSummaryDTO(category, 0, 0));
-
-            StockSummaryDTO summary = summaryMap.get(category);
-            summary.setTotalStock(summary.getTotalStock() + product.getStock());
-            summary.setProductCount(summary.getProductCount() + 1);
-        }
-
-        return new ArrayList<>(summaryMap.values());
+        return productRepository.summarizeStockByCategory();
     }
 
     public List<Product> getStockByCategory(String category) {
@@ -100,80 +153,147 @@ public class AdminService {
         Product product = productRepository.findById(productId)
                 .orElseThrow(() -> new RuntimeException("Product not found"));
 
+        int previousStock = product.getStock();
         product.setStock(stock);
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        TransactionUtil.afterCommit(() -> {
+            dashboardStatsService.onStockChanged(saved, previousStock, stock);
+            productCacheService.evictProduct(productId, saved.getCategory());
+        });
+        return saved;
     }
 
     // ==================== DASHBOARD ====================
 
+    /**
+     * ✅ Served from the pre-aggregated dashboard store instead of scanning
+     * the orders and products tables on every load
+     */
     public Map<String, Object> getDashboardData() {
-        Map<String, Object> dashboard = new HashMap<>();
-
-        dashboard.put("totalProducts", productRepository.count());
-        dashboard.put("totalOrders", orderRepository.count());
+        Map<String, Object> dashboard = dashboardStatsService.getDashboardData();
         dashboard.put("totalUsers", userRepository.count());
+        return dashboard;
+    }
 
-//        double totalRevenue = orderRepository.findAll().stream()
-//                .mapToDouble(Order::getTotalAmount)
-//                .sum();
-        double totalRevenue = orderRepository.findAll().stream()
-                .mapToDouble(o -> o.getTotalAmount() - (o.getRefundedAmount() != null ? o.getRefundedAmount() : 0.0))
-                .sum();
-        dashboard.put("totalRevenue", totalRevenue);
-
-        List<Product> lowStockProducts = productRepository.findAll().stream()
-                .filter(p -> p.getStock() < 5)
-                .collect(Collectors.toList());
-        dashboard.put("lowStockProducts", lowStockProducts);
+    /**
+     * ✅ Admin order console: newest-first keyset page of order summaries,
+     * filtered in the database. An email that matches no customer yields an
+     * empty page without querying orders.
+     */
+    public CursorPage<OrderSummaryDTO> searchOrders(OrderFilter filter, String cursor, Integer size) {
+        int pageSize = size == null ? DEFAULT_ORDER_PAGE_SIZE : Math.max(1, Math.min(size, MAX_ORDER_PAGE_SIZE));
+
+        Long userId = null;
+        if (filter.getEmail() != null && !filter.getEmail().isBlank()) {
+            Optional<User> customer = userRepository.findByEmail(filter.getEmail().trim());
+            if (customer.isEmpty()) {
+                return new CursorPage<>(List.of(), null);
+            }
+            userId = customer.get().getId();
+        }
 
-        dashboard.put("stockSummary", getStockSummary());
+        Long beforeId = null;
+        if (cursor != null && !cursor.isEmpty()) {
+            try {
+                beforeId = Long.parseLong(CursorUtil.decode(cursor, 1)[0]);
+            } catch (NumberFormatException e) {
+                throw new RuntimeException("Invalid cursor");
+            }
+        }
 
-        return dashboard;
+        // One extra row tells whether another page exists
+        List<OrderSummaryDTO> rows = orderRepository.searchSummaries(filter, userId, beforeId, pageSize + 1);
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            nextCursor = CursorUtil.encode(rows.get(pageSize - 1).getId());
+        }
+        return new CursorPage<>(rows, nextCursor);
     }
 
-    public List<Order> getAllOrders() {
-        return orderRepository.findAll();
+    @Transactional(readOnly = true)
+    public OrderDTO getOrderDetail(Long orderId) {
+        return orderRepository.findWithItemsById(orderId)
+                .map(OrderDTO::fromEntity)
+                .orElseThrow(() -> new RuntimeException("Order not found"));
     }
 
     public List<User> getAllUsers() {
         return userRepository.findAll();
     }
 
+    public List<Map<String, Object>> getCacheStats() {
+        List<Map<String, Object>> stats = new ArrayList<>(productCacheService.stats());
+        stats.addAll(jwtService.stats());
+        stats.add(reviewService.cacheStats());
+        stats.add(productViewMapper.stats());
+        stats.addAll(BoundedCacheRegionFactory.stats(entityManagerFactory));
+        return stats;
+    }
+
+    // Rebuilds every product's rating sum/count/histogram from the reviews table
+    public Map<String, Object> backfillRatingAggregates() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("productsUpdated", reviewService.backfillRatingAggregates());
+        return result;
+    }
+
     // ==================== ORDER MANAGEMENT ====================
 
     public Order confirmPayment(Long orderId) {
         return orderService.confirmPayment(orderId);
     }
 
-    public Order updateOrderStatus(Long orderId, String status, String trackingNumber) {
+    public Order updateOrderStatus(Long orderId, OrderStatus status, String trackingNumber) {
         return orderService.updateOrderStatus(orderId, status, trackingNumber);
     }
 
     // ==================== RETURN MANAGEMENT ====================
 
     /**
-     * ✅ FIXED: Show ALL return requests (REQUESTED, APPROVED, RETURN_RECEIVED, etc.)
-     * Now admin can see orders at all stages of the return process
+     * ✅ Open return requests (REQUESTED, APPROVED, RETURN_RECEIVED,
+     * REFUND_INITIATED), oldest first, as a keyset page. Pass a state to see
+     * one queue only (closed states work too).
      */
-    public List<Order> getAllReturnRequests() {
-        return orderRepository.findAll().stream()
-                .filter(o -> o.getReturnStatus() != null && 
-                           !o.getReturnStatus().equals("REJECTED") &&
-                           !o.getReturnStatus().equals("REFUND_COMPLETED") &&
-                           !o.getReturnStatus().equals("RETURN_REJECTED"))
-                .collect(Collectors.toList());
-    }
+    public CursorPage<ReturnRequestDTO> getReturnQueue(ReturnStatus state, String cursor, Integer size) {
+        int pageSize = size == null ? DEFAULT_ORDER_PAGE_SIZE : Math.max(1, Math.min(size, MAX_ORDER_PAGE_SIZE));
+        Set<ReturnStatus> states = state == null ? ReturnStatus.OPEN : EnumSet.of(state);
+
+        long afterId = 0L;
+        if (cursor != null && !cursor.isEmpty()) {
+            try {
+                afterId = Long.parseLong(CursorUtil.decode(cursor, 1)[0]);
+            } catch (NumberFormatException e) {
+                throw new RuntimeException("Invalid cursor");
+            }
+        }
 
-    @Transactional
-    public Order approveReturn(Long orderId) {
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new RuntimeException("Order not found"));
+        List<ReturnRequestDTO> rows = orderRepository.findReturnQueue(states, afterId, PageRequest.ofSize(pageSize + 1));
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            nextCursor = CursorUtil.encode(rows.get(pageSize - 1).getOrderId());
+        }
+        return new CursorPage<>(rows, nextCursor);
+    }
 
-        if (!"REQUESTED".equals(order.getReturnStatus())) {
-            throw new RuntimeException("Return request is not in REQUESTED state");
+    // ✅ Number of returns waiting in each open state, plus their total
+    public Map<String, Long> getReturnQueueCounts() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        ReturnStatus.OPEN.forEach(state -> counts.put(state.name(), 0L));
+        long total = 0;
+        for (Object[] row : orderRepository.countByReturnStatus(ReturnStatus.OPEN)) {
+            counts.put(((ReturnStatus) row[0]).name(), (Long) row[1]);
+            total += (Long) row[1];
         }
+        counts.put("TOTAL", total);
+        return counts;
+    }
 
-        order.setReturnStatus("APPROVED");
+    @Transactional
+    public Order approveReturn(Long orderId) {
+        Order order = transitionReturn(orderId, ReturnStatus.REQUESTED, ReturnStatus.APPROVED,
+                "Return request is not in REQUESTED state");
         order.setReturnApprovedAt(LocalDateTime.now());
 
         return orderRepository.save(order);
@@ -181,14 +301,8 @@ public class AdminService {
 
     @Transactional
     public Order rejectReturn(Long orderId, String reason) {
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new RuntimeException("Order not found"));
-
-        if (!"REQUESTED".equals(order.getReturnStatus())) {
-            throw new RuntimeException("Return request is not in REQUESTED state");
-        }
-
-        order.setReturnStatus("REJECTED");
+        Order order = transitionReturn(orderId, ReturnStatus.REQUESTED, ReturnStatus.REJECTED,
+                "Return request is not in REQUESTED state");
         order.setReturnRejectedAt(LocalDateTime.now());
         order.setReturnRejectionReason(reason);
 
@@ -197,66 +311,68 @@ public class AdminService {
 
     @Transactional
     public Order confirmReturnReceived(Long orderId, String condition) {
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new RuntimeException("Order not found"));
-
-        if (!"APPROVED".equals(order.getReturnStatus())) {
-            throw new RuntimeException("Return must be in APPROVED state");
-        }
-
+        Order order;
         if ("DAMAGED".equals(condition)) {
             // ✅ Product is damaged/dirty/changed - reject the return
-            order.setReturnStatus("RETURN_REJECTED");
+            order = transitionReturn(orderId, ReturnStatus.APPROVED, ReturnStatus.RETURN_REJECTED, "Return must be in APPROVED state");
             order.setReturnRejectionReason("Product returned in unacceptable condition (damaged/dirty/modified)");
         } else {
             // ✅ Product is in good condition - accept it
-            order.setReturnStatus("RETURN_RECEIVED");
+            order = transitionReturn(orderId, ReturnStatus.APPROVED, ReturnStatus.RETURN_RECEIVED, "Return must be in APPROVED state");
         }
 
         order.setReturnReceivedAt(LocalDateTime.now());
         return orderRepository.save(order);
     }
+
     @Transactional
     public Order initiateRefund(Long orderId) {
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new RuntimeException("Order not found"));
-
-        if (!"RETURN_RECEIVED".equals(order.getReturnStatus())) {
-            throw new RuntimeException("Can only initiate refund for received returns");
-        }
-
-        // ✅ Change status to refund initiated
-        order.setReturnStatus("REFUND_INITIATED");
+        // ✅ Claimed first: a second concurrent call fails here instead of restocking twice
+        Order order = transitionReturn(orderId, ReturnStatus.RETURN_RECEIVED, ReturnStatus.REFUND_INITIATED,
+                "Can only initiate refund for received returns");
         order.setRefundInitiatedAt(LocalDateTime.now());
 
         // ✅ Store refunded amount before zeroing total
         order.setRefundedAmount(order.getTotalAmount());
 
         // ✅ Restore stock to inventory
+        Map<Product, Integer> quantities = new LinkedHashMap<>();
         for (OrderItem item : order.getItems()) {
-            Product product = item.getProduct();
-            product.setStock(product.getStock() + item.getQuantity());
-            productRepository.save(product);
+            quantities.merge(item.getProduct(), item.getQuantity(), Integer::sum);
         }
+        stockReservationService.restock(quantities);
 
         // ✅ User refund processed → Set payable to 0
         order.setTotalAmount(0.0);
+        double refundedAmount = order.getRefundedAmount();
+        TransactionUtil.afterCommit(() -> dashboardStatsService.onRefundInitiated(refundedAmount));
 
         return orderRepository.save(order);
     }
 
     @Transactional
     public Order completeRefund(Long orderId) {
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new RuntimeException("Order not found"));
-
-        if (!"REFUND_INITIATED".equals(order.getReturnStatus())) {
-            throw new RuntimeException("Refund must be initiated first");
-        }
-
-        order.setReturnStatus("REFUND_COMPLETED");
+        Order order = transitionReturn(orderId, ReturnStatus.REFUND_INITIATED, ReturnStatus.REFUND_COMPLETED,
+                "Refund must be initiated first");
         order.setRefundCompletedAt(LocalDateTime.now());
 
         return orderRepository.save(order);
     }
+
+    /**
+     * Applies a return state change with a conditional UPDATE on the indexed
+     * return_status column and returns the order as it is afterwards. Must run
+     * before the order is loaded in the transaction, so the load sees the new state.
+     */
+    private Order transitionReturn(Long orderId, ReturnStatus from, ReturnStatus to, String notInStateMessage) {
+        OrderTransitions.check(from, to);
+        if (orderRepository.transitionReturnStatus(orderId, from, to) == 0) {
+            if (!orderRepository.existsById(orderId)) {
+                throw new RuntimeException("Order not found");
+            }
+            throw new RuntimeException(notInStateMessage);
+        }
+        return orderRepository.findById(orderId)
+                .orElseThrow(() -> new RuntimeException("Order not found"));
+    }
 }
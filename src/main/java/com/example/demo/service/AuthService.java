@@ -6,14 +6,15 @@ import com.example.demo.dto.RegisterRequest;
 import com.example.demo.entity.User;
 import com.example.demo.repository.UserRepository;
 import org.springframework.stereotype.Service;
-import java.util.Base64;
 
 @Service
 public class AuthService {
     private final UserRepository userRepository;
+    private final JwtService jwtService;
 
-    public AuthService(UserRepository userRepository) {
+    public AuthService(UserRepository userRepository, JwtService jwtService) {
         this.userRepository = userRepository;
+        this.jwtService = jwtService;
     }
 
     // ✅ Registration
@@ -33,7 +34,7 @@ public class AuthService {
         return "Registration successful";
     }
 
-    // ✅ Login - Generate Simple Base64 Token
+    // ✅ Login - Issue a signed JWT carrying the user id and role
     public AuthResponse login(LoginRequest request) {
         User user = userRepository.findByEmail(request.getEmail())
                 .orElseThrow(() -> new RuntimeException("Invalid credentials"));
@@ -42,8 +43,7 @@ public class AuthService {
             throw new RuntimeException("Invalid credentials");
         }
 
-        // Simple Base64 token using email
-        String token = Base64.getEncoder().encodeToString(user.getEmail().getBytes());
+        String token = jwtService.issueToken(user);
 
         // Build response
         AuthResponse.UserDto userDto = new AuthResponse.UserDto();
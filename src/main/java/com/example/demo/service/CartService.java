@@ -1,6 +1,7 @@
 package com.example.demo.service;
 
 import com.example.demo.dto.CartItemDTO;
+import com.example.demo.dto.CartRequest;
 import com.example.demo.entity.Cart;
 import com.example.demo.entity.CartItem;
 import com.example.demo.entity.Product;
@@ -10,8 +11,10 @@ import com.example.demo.repository.CartRepository;
 import com.example.demo.repository.ProductRepository;
 import com.example.demo.repository.UserRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
+import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -32,43 +35,32 @@ public class CartService {
         this.productRepository = productRepository;
     }
 
-    // ✅ Get all items in the user's cart
-    public List<CartItemDTO> getCartItemsDTO(String email) {
-        User user = userRepository.findByEmail(email)
+    /**
+     * ✅ Callers without a token still identify themselves by email; this is
+     * the only place the cart looks a user up
+     */
+    public Long resolveUserId(String email) {
+        if (email == null) {
+            throw new RuntimeException("Not authenticated");
+        }
+        return userRepository.findByEmail(email)
+                .map(User::getId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
+    }
 
-        Cart cart = cartRepository.findByUserId(user.getId())
-                .orElseGet(() -> {
-                    Cart newCart = new Cart();
-                    newCart.setUser(user);
-                    return cartRepository.save(newCart);
-                });
+    // ✅ Get all items in the user's cart
+    public List<CartItemDTO> getCartItemsDTO(Long userId) {
+        Cart cart = findOrCreateCart(userId);
 
-        return cart.getItems().stream().map(item -> {
-            Product product = item.getProduct();
-            CartItemDTO dto = new CartItemDTO();
-            dto.setId(item.getId());
-            dto.setProductId(product.getId());
-            dto.setName(product.getName());
-            dto.setDescription(product.getDescription());
-            dto.setCategory(product.getCategory());
-            dto.setBrand(product.getBrand());
-            dto.setPrice(product.getPrice());
-            dto.setImage(product.getImage());
-            dto.setQuantity(item.getQuantity());
-            return dto;
-        }).collect(Collectors.toList());
+        return cart.getItems().stream().map(CartService::toDTO).collect(Collectors.toList());
     }
 
     // ✅ Update item quantity
-    public String updateCartItem(String email, Long cartItemId, int quantity) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
+    public String updateCartItem(Long userId, Long cartItemId, int quantity) {
         CartItem item = cartItemRepository.findById(cartItemId)
                 .orElseThrow(() -> new RuntimeException("Cart item not found"));
 
-        if (!item.getCart().getUser().equals(user)) {
+        if (!item.getCart().getUser().getId().equals(userId)) {
             throw new RuntimeException("Unauthorized");
         }
 
@@ -79,18 +71,11 @@ public class CartService {
     }
 
     // ✅ Add product to user's cart (fixed)
-    public String addToCart(String email, Long productId, int quantity) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    public String addToCart(Long userId, Long productId, int quantity) {
         Product product = productRepository.findById(productId)
                 .orElseThrow(() -> new RuntimeException("Product not found"));
 
-        Cart cart = cartRepository.findByUserId(user.getId())
-                .orElseGet(() -> {
-                    Cart newCart = new Cart();
-                    newCart.setUser(user);
-                    return cartRepository.save(newCart);
-                });
+        Cart cart = findOrCreateCart(userId);
 
         CartItem existingItem = cartItemRepository.findByCartAndProduct(cart, product).orElse(null);
         if (existingItem != null) {
@@ -111,12 +96,66 @@ public class CartService {
         return "Product added to cart";
     }
 
-    // ✅ Remove product from user's cart
-    public String removeFromCart(String email, Long cartItemId) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    /**
+     * ✅ Adds a whole local cart in one go: the cart with its lines is read
+     * with one query, the products with one IN query, and new/changed lines
+     * are written as JDBC batches at commit. Repeated products in the input
+     * are summed; nothing is written if any product does not exist.
+     */
+    @Transactional
+    public List<CartItemDTO> mergeCart(Long userId, List<CartRequest> lines) {
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        for (CartRequest line : lines) {
+            if (line.getProductId() == null || line.getQuantity() == null || line.getQuantity() <= 0) {
+                throw new RuntimeException("Invalid cart line");
+            }
+            quantities.merge(line.getProductId(), line.getQuantity(), Integer::sum);
+        }
 
-        Cart cart = cartRepository.findByUserId(user.getId())
+        Cart cart = cartRepository.findWithItemsByUserId(userId)
+                .orElseGet(() -> {
+                    Cart newCart = new Cart();
+                    newCart.setUser(userRepository.getReferenceById(userId));
+                    return cartRepository.save(newCart);
+                });
+        if (quantities.isEmpty()) {
+            return cart.getItems().stream().map(CartService::toDTO).collect(Collectors.toList());
+        }
+
+        Map<Long, Product> products = productRepository.findAllById(quantities.keySet()).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        if (products.size() < quantities.size()) {
+            Set<Long> missing = new TreeSet<>(quantities.keySet());
+            missing.removeAll(products.keySet());
+            throw new RuntimeException("Product not found: " + missing);
+        }
+
+        Map<Long, CartItem> existing = new HashMap<>();
+        for (CartItem item : cart.getItems()) {
+            existing.put(item.getProduct().getId(), item);
+        }
+
+        quantities.forEach((productId, quantity) -> {
+            CartItem item = existing.get(productId);
+            if (item != null) {
+                item.setQuantity(item.getQuantity() + quantity);
+            } else {
+                CartItem newItem = new CartItem();
+                newItem.setCart(cart);
+                newItem.setProduct(products.get(productId));
+                newItem.setQuantity(quantity);
+                cart.getItems().add(newItem);
+                // The pooled sequence assigns the id now; the INSERT itself waits for the batched flush
+                cartItemRepository.save(newItem);
+            }
+        });
+
+        return cart.getItems().stream().map(CartService::toDTO).collect(Collectors.toList());
+    }
+
+    // ✅ Remove product from user's cart
+    public String removeFromCart(Long userId, Long cartItemId) {
+        Cart cart = cartRepository.findByUserId(userId)
                 .orElseThrow(() -> new RuntimeException("Cart not found"));
 
         CartItem item = cartItemRepository.findById(cartItemId)
@@ -131,15 +170,37 @@ public class CartService {
     }
 
     // ✅ Clear all items in user's cart (after order placed)
-    public void clearCart(String email) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        Cart cart = cartRepository.findByUserId(user.getId())
+    public void clearCart(Long userId) {
+        Cart cart = cartRepository.findByUserId(userId)
                 .orElseThrow(() -> new RuntimeException("Cart not found"));
 
         cartItemRepository.deleteAll(cart.getItems());
         cart.getItems().clear();
         cartRepository.save(cart);
     }
+
+    private static CartItemDTO toDTO(CartItem item) {
+        Product product = item.getProduct();
+        CartItemDTO dto = new CartItemDTO();
+        dto.setId(item.getId());
+        dto.setProductId(product.getId());
+        dto.setName(product.getName());
+        dto.setDescription(product.getDescription());
+        dto.setCategory(product.getCategory());
+        dto.setBrand(product.getBrand());
+        dto.setPrice(product.getPrice());
+        dto.setImage(product.getImage());
+        dto.setQuantity(item.getQuantity());
+        return dto;
+    }
+
+    // The new cart only needs the user's id, so a reference is used instead of loading the user
+    private Cart findOrCreateCart(Long userId) {
+        return cartRepository.findByUserId(userId)
+                .orElseGet(() -> {
+                    Cart newCart = new Cart();
+                    newCart.setUser(userRepository.getReferenceById(userId));
+                    return cartRepository.save(newCart);
+                });
+    }
 }
@@ -0,0 +1,231 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.AuthenticatedUser;
+import com.example.demo.dto.CheckoutStatusDTO;
+import com.example.demo.entity.CheckoutRequest;
+import com.example.demo.entity.CheckoutStatus;
+import com.example.demo.entity.Order;
+import com.example.demo.repository.CheckoutRequestRepository;
+import com.example.demo.util.WorkerThreads;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+
+/**
+ * Asynchronous checkout: the request is written to the checkout_requests
+ * table and acknowledged straight away; a poller claims accepted rows and a
+ * fixed-size worker pool turns them into orders through the normal
+ * OrderService.createOrder path. The pool size caps how many checkout
+ * transactions (and pooled connections) run at once, whatever the request
+ * rate. Clients poll, or long-poll, for the outcome.
+ *
+ * The order and the COMPLETED mark commit in the same transaction, so a
+ * request still PROCESSING after a restart has no order and is safely
+ * requeued. This assumes a single application instance.
+ */
+@Service
+public class CheckoutQueueService {
+
+    private static final Logger log = LoggerFactory.getLogger(CheckoutQueueService.class);
+    private static final long MAX_WAIT_MS = 25_000;
+
+    private final CheckoutRequestRepository checkoutRequestRepository;
+    private final OrderService orderService;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolExecutor workers;
+    // Workers plus requests queued for them; nothing is claimed beyond this
+    private final Semaphore slots;
+
+    // Request id -> completed when the request reaches COMPLETED or FAILED; only held while someone waits
+    private final Map<Long, FinishSignal> finishSignals = new ConcurrentHashMap<>();
+
+    // Set once interrupted requests are requeued, so nothing this instance claims gets requeued
+    private volatile boolean started;
+
+    public CheckoutQueueService(CheckoutRequestRepository checkoutRequestRepository,
+                                OrderService orderService,
+                                PlatformTransactionManager transactionManager,
+                                Environment environment,
+                                @Value("${app.checkout.workers:4}") int workerCount,
+                                @Value("${app.checkout.queue-capacity:100}") int queueCapacity) {
+        this.checkoutRequestRepository = checkoutRequestRepository;
+        this.orderService = orderService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.slots = new Semaphore(workerCount + queueCapacity);
+
+        // Workers mostly wait on JDBC, so they run on virtual threads when that mode is on;
+        // the pool size still caps how many checkouts hit the database at once
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                WorkerThreads.factory("checkout-worker-", environment));
+    }
+
+    // ==================== ACCEPT ====================
+
+    /**
+     * Records the checkout and returns immediately. Only the request itself is
+     * validated here; cart and stock problems surface as a FAILED status.
+     */
+    public CheckoutStatusDTO accept(AuthenticatedUser user, String shippingAddress, String paymentMethod) {
+        if (paymentMethod == null || paymentMethod.isBlank()) {
+            throw new RuntimeException("Payment method is required");
+        }
+        CheckoutRequest saved = checkoutRequestRepository.save(
+                new CheckoutRequest(user.getId(), user.getEmail(), shippingAddress, paymentMethod));
+        return CheckoutStatusDTO.fromEntity(saved);
+    }
+
+    // ==================== STATUS ====================
+
+    public CheckoutStatusDTO getStatus(Long requestId, Long userId) {
+        CheckoutRequest request = checkoutRequestRepository.findById(requestId)
+                .orElseThrow(() -> new RuntimeException("Checkout request not found"));
+        if (!userId.equals(request.getUserId())) {
+            throw new RuntimeException("Unauthorized");
+        }
+        return CheckoutStatusDTO.fromEntity(request);
+    }
+
+    /**
+     * Completes once the request is finished or after waitMs (capped at 25s),
+     * whichever comes first, with the status at that moment.
+     */
+    public CompletableFuture<CheckoutStatusDTO> awaitStatus(Long requestId, Long userId, long waitMs) {
+        // Validates the request and its owner before anything is registered for it
+        CheckoutStatusDTO current = getStatus(requestId, userId);
+        if (current.isFinished() || waitMs <= 0) {
+            return CompletableFuture.completedFuture(current);
+        }
+
+        // Registered before reading the status again so a finish in between is not missed
+        FinishSignal signal = register(requestId);
+        try {
+            current = getStatus(requestId, userId);
+        } catch (RuntimeException e) {
+            unregister(requestId, signal);
+            throw e;
+        }
+        if (current.isFinished()) {
+            unregister(requestId, signal);
+            return CompletableFuture.completedFuture(current);
+        }
+
+        // Per-waiter copy, so one waiter's timeout does not complete the shared signal
+        return signal.finished.thenApply(v -> (Void) null)
+                .completeOnTimeout(null, Math.min(waitMs, MAX_WAIT_MS), TimeUnit.MILLISECONDS)
+                .whenComplete((v, e) -> unregister(requestId, signal))
+                .thenApply(v -> getStatus(requestId, userId));
+    }
+
+    private FinishSignal register(Long requestId) {
+        return finishSignals.compute(requestId, (id, signal) -> {
+            FinishSignal registered = signal != null ? signal : new FinishSignal();
+            registered.waiters++;
+            return registered;
+        });
+    }
+
+    // The last waiter to leave drops the signal; a finished request has already dropped it
+    private void unregister(Long requestId, FinishSignal signal) {
+        finishSignals.computeIfPresent(requestId, (id, current) ->
+                current == signal && --current.waiters == 0 ? null : current);
+    }
+
+    private static final class FinishSignal {
+        final CompletableFuture<Void> finished = new CompletableFuture<>();
+        int waiters; // only changed inside finishSignals.compute
+    }
+
+    // ==================== PROCESSING ====================
+
+    @Scheduled(fixedDelayString = "${app.checkout.poll-interval-ms:200}")
+    public void dispatch() {
+        if (!started) return;
+
+        while (slots.availablePermits() > 0) {
+            List<Long> accepted = checkoutRequestRepository.findIdsByStatus(
+                    CheckoutStatus.ACCEPTED, PageRequest.of(0, slots.availablePermits()));
+            if (accepted.isEmpty()) return;
+
+            for (Long requestId : accepted) {
+                if (!slots.tryAcquire()) return;
+                Boolean claimed = transactionTemplate.execute(
+                        status -> checkoutRequestRepository.transitionStatus(requestId,
+                                CheckoutStatus.ACCEPTED, CheckoutStatus.PROCESSING) == 1);
+                if (!Boolean.TRUE.equals(claimed)) {
+                    slots.release();
+                    continue;
+                }
+                workers.execute(() -> {
+                    try {
+                        process(requestId);
+                    } finally {
+                        slots.release();
+                    }
+                });
+            }
+        }
+    }
+
+    private void process(Long requestId) {
+        CheckoutRequest request = checkoutRequestRepository.findById(requestId).orElse(null);
+        if (request == null) return;
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Order order = orderService.createOrder(
+                        request.getUserId(), request.getShippingAddress(), request.getPaymentMethod());
+                checkoutRequestRepository.markCompleted(requestId, CheckoutStatus.COMPLETED,
+                        order.getId(), LocalDateTime.now());
+            });
+        } catch (RuntimeException e) {
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                        checkoutRequestRepository.markFailed(requestId, CheckoutStatus.FAILED,
+                                errorMessageOf(e), LocalDateTime.now()));
+            } catch (RuntimeException markError) {
+                // Left PROCESSING; requeued on the next startup
+                log.error("Could not record failure of checkout request {}", requestId, markError);
+                return;
+            }
+        }
+
+        FinishSignal signal = finishSignals.remove(requestId);
+        if (signal != null) signal.finished.complete(null);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void requeueInterrupted() {
+        Integer requeued = transactionTemplate.execute(status -> checkoutRequestRepository.requeue(CheckoutStatus.PROCESSING, CheckoutStatus.ACCEPTED));
+        if (requeued != null && requeued > 0) {
+            log.info("Requeued {} interrupted checkout requests", requeued);
+        }
+        started = true;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdown();
+    }
+
+    // ==================== HELPERS ====================
+
+    private static String errorMessageOf(RuntimeException e) {
+        String message = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        return message.length() > 500 ? message.substring(0, 500) : message;
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.RevenueSummaryDTO;
+import com.example.demo.dto.StockSummaryDTO;
+import com.example.demo.entity.Product;
+import com.example.demo.repository.OrderRepository;
+import com.example.demo.repository.ProductRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+
+/**
+ * In-memory aggregate behind the admin dashboard. Order and stock writes push
+ * deltas into it (after their transaction commits), so reading the dashboard
+ * never scans the orders or products tables. A scheduled reconciliation
+ * rebuilds everything from the database to correct any drift.
+ */
+@Service
+public class DashboardStatsService {
+
+    public static final int LOW_STOCK_THRESHOLD = 5;
+
+    private final ProductRepository productRepository;
+    private final OrderRepository orderRepository;
+
+    private long orderCount;
+    private double grossRevenue;   // sum of Order.totalAmount
+    private double refundedTotal;  // sum of Order.refundedAmount
+    private final Map<String, CategoryStock> categoryStock = new HashMap<>();
+    private final Map<Long, Product> lowStockProducts = new TreeMap<>();
+
+    private volatile boolean initialized;
+
+    public DashboardStatsService(ProductRepository productRepository,
+                                 OrderRepository orderRepository) {
+        this.productRepository = productRepository;
+        this.orderRepository = orderRepository;
+    }
+
+    // ==================== INCREMENTAL UPDATES ====================
+
+    public synchronized void onOrderPlaced(double totalAmount) {
+        orderCount++;
+        grossRevenue += totalAmount;
+    }
+
+    // initiateRefund moves the whole total into refundedAmount and zeroes totalAmount
+    public synchronized void onRefundInitiated(double refundedAmount) {
+        grossRevenue -= refundedAmount;
+        refundedTotal += refundedAmount;
+    }
+
+    public synchronized void onProductAdded(Product product) {
+        addProduct(product.getCategory(), stockOf(product.getStock()));
+        trackLowStock(product, stockOf(product.getStock()));
+    }
+
+    public synchronized void onProductUpdated(String previousCategory, int previousStock, Product product) {
+        removeProduct(previousCategory, previousStock);
+        addProduct(product.getCategory(), stockOf(product.getStock()));
+        trackLowStock(product, stockOf(product.getStock()));
+    }
+
+    public synchronized void onProductDeleted(Product product) {
+        removeProduct(product.getCategory(), stockOf(product.getStock()));
+        lowStockProducts.remove(product.getId());
+    }
+
+    public synchronized void onStockChanged(Product product, int previousStock, int newStock) {
+        CategoryStock stock = categoryStock.get(product.getCategory());
+        if (stock != null) {
+            stock.totalStock += newStock - previousStock;
+        }
+        trackLowStock(product, newStock);
+    }
+
+    // ==================== READS ====================
+
+    public Map<String, Object> getDashboardData() {
+        if (!initialized) {
+            rebuild();
+        }
+
+        synchronized (this) {
+            Map<String, Object> dashboard = new HashMap<>();
+            long productCount = categoryStock.values().stream().mapToLong(c -> c.productCount).sum();
+
+            dashboard.put("totalProducts", productCount);
+            dashboard.put("totalOrders", orderCount);
+            dashboard.put("totalRevenue", grossRevenue - refundedTotal);
+            dashboard.put("totalRefunded", refundedTotal);
+            dashboard.put("lowStockProducts", new ArrayList<>(lowStockProducts.values()));
+            dashboard.put("stockSummary", getStockSummary());
+            return dashboard;
+        }
+    }
+
+    public synchronized List<StockSummaryDTO> getStockSummary() {
+        List<StockSummaryDTO> summary = new ArrayList<>();
+        categoryStock.forEach((category, stock) ->
+                summary.add(new StockSummaryDTO(category, (int) stock.totalStock, (int) stock.productCount)));
+        return summary;
+    }
+
+    // ==================== RECONCILIATION ====================
+
+    /**
+     * Rebuilds the aggregate from the database using aggregate queries, so only
+     * one row per category and the low-stock products are ever loaded. Deltas
+     * applied while the rebuild is reading may be lost; the next run picks them
+     * up again.
+     */
+    @Scheduled(fixedDelayString = "${app.dashboard.reconcile-interval-ms:300000}")
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        RevenueSummaryDTO revenue = orderRepository.summarizeRevenue();
+
+        Map<String, CategoryStock> categories = new HashMap<>();
+        for (StockSummaryDTO summary : productRepository.summarizeStockByCategory()) {
+            CategoryStock c = new CategoryStock();
+            c.totalStock = summary.getTotalStock();
+            c.productCount = summary.getProductCount();
+            categories.put(summary.getCategory(), c);
+        }
+
+        Map<Long, Product> lowStock = new TreeMap<>();
+        for (Product product : productRepository.findByStockLessThan(LOW_STOCK_THRESHOLD)) {
+            lowStock.put(product.getId(), snapshot(product, stockOf(product.getStock())));
+        }
+
+        synchronized (this) {
+            orderCount = revenue.getOrderCount();
+            grossRevenue = revenue.getGrossRevenue();
+            refundedTotal = revenue.getRefundedTotal();
+            categoryStock.clear();
+            categoryStock.putAll(categories);
+            lowStockProducts.clear();
+            lowStockProducts.putAll(lowStock);
+            initialized = true;
+        }
+    }
+
+    // ==================== HELPERS ====================
+
+    private void addProduct(String category, int stock) {
+        CategoryStock c = categoryStock.computeIfAbsent(category, k -> new CategoryStock());
+        c.totalStock += stock;
+        c.productCount++;
+    }
+
+    private void removeProduct(String category, int stock) {
+        CategoryStock c = categoryStock.get(category);
+        if (c == null) return;
+
+        c.totalStock -= stock;
+        c.productCount--;
+        if (c.productCount <= 0) {
+            categoryStock.remove(category);
+        }
+    }
+
+    private void trackLowStock(Product product, int stock) {
+        if (stock < LOW_STOCK_THRESHOLD) {
+            lowStockProducts.put(product.getId(), snapshot(product, stock));
+        } else {
+            lowStockProducts.remove(product.getId());
+        }
+    }
+
+    // Detached copy so the dashboard never holds on to a managed entity
+    private static Product snapshot(Product p, int stock) {
+        return new Product(p.getId(), p.getName(), p.getDescription(), p.getCategory(), p.getBrand(),
+                p.getPrice(), p.getRating(), stock, p.getImage());
+    }
+
+    private static int stockOf(Integer stock) {
+        return stock != null ? stock : 0;
+    }
+
+    private static class CategoryStock {
+        long totalStock;
+        long productCount;
+    }
+}
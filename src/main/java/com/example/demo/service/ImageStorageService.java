@@ -0,0 +1,146 @@
+package com.example.demo.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed store for uploaded product images. An upload is streamed
+ * to a temp file while it is hashed, then moved to {@code <sha256>.<ext>}:
+ * the same picture uploaded twice is stored once, and because a name always
+ * refers to the same bytes, it can be cached by clients forever.
+ */
+@Service
+public class ImageStorageService {
+
+    private static final Set<String> EXTENSIONS = Set.of("jpg", "jpeg", "png", "gif", "webp", "avif");
+    // <sha256>.<ext> for originals, <sha256>-w<width>.<ext> for resized variants
+    private static final Pattern STORED_NAME = Pattern.compile("([0-9a-f]{64})(-w[0-9]{2,4})?\\.([a-z0-9]{1,5})");
+
+    private final Path storageDir;
+
+    public ImageStorageService(@Value("${app.image-storage-dir:uploads/images}") String storageDir) {
+        this.storageDir = Paths.get(storageDir).toAbsolutePath().normalize();
+        try {
+            Files.createDirectories(this.storageDir);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create image storage directory " + this.storageDir, e);
+        }
+    }
+
+    // ==================== STORE ====================
+
+    /**
+     * Stores the upload and returns its file name. The part is read as a
+     * stream (multipart parts are spooled to disk by the container), so the
+     * image is never held on the heap as a whole.
+     */
+    public String store(MultipartFile file) {
+        if (file == null || file.isEmpty()) {
+            throw new RuntimeException("Image file is empty");
+        }
+        String extension = extensionOf(file.getOriginalFilename());
+
+        Path temp = null;
+        try {
+            temp = Files.createTempFile(storageDir, "upload-", ".tmp");
+            MessageDigest digest = sha256();
+            try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+                Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+            }
+
+            String filename = HexFormat.of().formatHex(digest.digest()) + "." + extension;
+            Path target = storageDir.resolve(filename);
+            if (Files.exists(target)) {
+                return filename; // same content already stored
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException e) {
+                // A concurrent upload of the same bytes won the move
+            }
+            return filename;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to save image file", e);
+        } finally {
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException ignored) {
+                    // Leftover temp files are harmless
+                }
+            }
+        }
+    }
+
+    // ==================== LOOKUP ====================
+
+    public static boolean isStoredName(String filename) {
+        return filename != null && STORED_NAME.matcher(filename).matches();
+    }
+
+    /** Path of a stored image, or null if the name is not a stored name or the file is gone. */
+    public Path resolve(String filename) {
+        if (!isStoredName(filename)) return null;
+        Path path = storageDir.resolve(filename);
+        return Files.isRegularFile(path) ? path : null;
+    }
+
+    /** Where a stored name lives, whether or not it has been written yet. */
+    Path pathOf(String filename) {
+        return storageDir.resolve(filename);
+    }
+
+    /** The name without its extension: content hash plus variant suffix, a strong ETag. */
+    public static String versionOf(String filename) {
+        return filename.substring(0, filename.indexOf('.'));
+    }
+
+    /** For a variant name, the name of the original it was derived from; otherwise the name itself. */
+    public static String originalOf(String filename) {
+        Matcher m = STORED_NAME.matcher(filename);
+        return m.matches() ? m.group(1) + "." + m.group(3) : filename;
+    }
+
+    public static boolean isVariantName(String filename) {
+        if (filename == null) return false;
+        Matcher m = STORED_NAME.matcher(filename);
+        return m.matches() && m.group(2) != null;
+    }
+
+    // ==================== HELPERS ====================
+
+    private static String extensionOf(String originalFilename) {
+        int dot = originalFilename != null ? originalFilename.lastIndexOf('.') : -1;
+        String extension = dot >= 0 ? originalFilename.substring(dot + 1).toLowerCase(Locale.ROOT) : "";
+        if (!EXTENSIONS.contains(extension)) {
+            throw new RuntimeException("Unsupported image type: " + originalFilename);
+        }
+        return extension;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package com.example.demo.service;
+
+import com.example.demo.util.BoundedCache;
+import com.example.demo.util.WorkerThreads;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Produces downscaled copies of uploaded images (thumbnail, card, detail) so
+ * listings do not ship full-size originals. Work runs on a small bounded pool
+ * after the upload has been stored; until a variant exists its URL falls back
+ * to the original (see ImageController), so a full queue only costs bandwidth.
+ * A variant that was dropped or failed is queued again on its first miss,
+ * at most once at a time per original and not again for a while after a
+ * failure.
+ *
+ * Variants are stored next to the original as {@code <sha256>-w<width>.<ext>},
+ * which keeps them content-addressed and immutable like the original.
+ */
+@Service
+public class ImageVariantService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImageVariantService.class);
+
+    // Formats the JDK can both decode and encode; others (webp, avif) are served as uploaded
+    private static final Set<String> RESIZABLE = Set.of("jpg", "jpeg", "png", "gif");
+    // Refuse to decode anything larger, a tiny file can declare a huge raster
+    private static final long MAX_PIXELS = 40_000_000L;
+    private static final float JPEG_QUALITY = 0.82f;
+    private static final Duration RETRY_FAILED_AFTER = Duration.ofMinutes(10);
+
+    public enum Variant {
+        THUMBNAIL("thumbnail", 200),
+        CARD("card", 400),
+        DETAIL("detail", 800);
+
+        private final String key;
+        private final int width;
+
+        Variant(String key, int width) {
+            this.key = key;
+            this.width = width;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public int getWidth() {
+            return width;
+        }
+    }
+
+    private final ImageStorageService imageStorageService;
+    private final ThreadPoolExecutor workers;
+    // Originals queued or being resized, so repeated misses queue them once
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    // Originals that could not be resized recently; misses do not retry them until this expires
+    private final BoundedCache<String, Boolean> recentFailures =
+            new BoundedCache<>("imageVariantFailures", 1000, RETRY_FAILED_AFTER);
+
+    public ImageVariantService(ImageStorageService imageStorageService,
+                               @Value("${app.image-variants.workers:2}") int workerCount,
+                               @Value("${app.image-variants.queue-capacity:100}") int queueCapacity) {
+        this.imageStorageService = imageStorageService;
+
+        // Resizing is CPU-bound, so these stay platform threads even in virtual-thread mode
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                WorkerThreads.platform("image-worker-"));
+    }
+
+    // ==================== NAMING ====================
+
+    public static boolean hasVariants(String filename) {
+        return ImageStorageService.isStoredName(filename)
+                && !ImageStorageService.isVariantName(filename)
+                && RESIZABLE.contains(extensionOf(filename));
+    }
+
+    public static String variantName(String filename, Variant variant) {
+        return ImageStorageService.versionOf(filename) + "-w" + variant.getWidth() + "." + extensionOf(filename);
+    }
+
+    // ==================== GENERATION ====================
+
+    /**
+     * Queues variant generation for a stored original. Returns immediately;
+     * if the pool is saturated the request is dropped and the original keeps
+     * being served for every size until a later miss queues it again.
+     */
+    public void generateAsync(String filename) {
+        if (!hasVariants(filename) || recentFailures.containsKey(filename) || !inFlight.add(filename)) return;
+        try {
+            workers.execute(() -> {
+                try {
+                    generate(filename);
+                } finally {
+                    inFlight.remove(filename);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(filename);
+            log.warn("Image variant queue full, serving original for {}", filename);
+        }
+    }
+
+    void generate(String filename) {
+        Path original = imageStorageService.resolve(filename);
+        if (original == null) return;
+
+        List<Variant> missing = Arrays.stream(Variant.values())
+                .filter(v -> !Files.exists(imageStorageService.pathOf(variantName(filename, v))))
+                .toList();
+        if (missing.isEmpty()) return; // same content uploaded before
+
+        try {
+            BufferedImage source = read(original);
+            if (source == null) {
+                log.warn("Could not decode image {}", filename);
+                recentFailures.put(filename, Boolean.TRUE);
+                return;
+            }
+            // Largest first, each smaller variant is scaled from the previous one
+            String format = extensionOf(filename);
+            for (int i = missing.size() - 1; i >= 0; i--) {
+                Variant variant = missing.get(i);
+                source = resize(source, variant.getWidth(), format);
+                write(source, format, imageStorageService.pathOf(variantName(filename, variant)));
+            }
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to generate variants for {}", filename, e);
+            recentFailures.put(filename, Boolean.TRUE);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdown();
+    }
+
+    // ==================== HELPERS ====================
+
+    private static BufferedImage read(Path path) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(path.toFile())) {
+            if (in == null) return null;
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) return null;
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                if ((long) reader.getWidth(0) * reader.getHeight(0) > MAX_PIXELS) {
+                    throw new IOException("Image too large to resize: " + path.getFileName());
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Halves the image until close to the target, then does one bicubic pass: sharper than a single step
+    private static BufferedImage resize(BufferedImage source, int targetWidth, String format) {
+        boolean opaque = isJpeg(format) || !source.getColorModel().hasAlpha();
+        int type = opaque ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB;
+
+        BufferedImage current = source;
+        int width = source.getWidth();
+        int height = source.getHeight();
+        int finalWidth = Math.min(targetWidth, width); // never upscale, only re-encode
+        int finalHeight = Math.max(1, (int) Math.round((double) height * finalWidth / width));
+
+        do {
+            if (width > finalWidth * 2) {
+                width /= 2;
+                height = Math.max(1, height / 2);
+            } else {
+                width = finalWidth;
+                height = finalHeight;
+            }
+            BufferedImage step = new BufferedImage(width, height, type);
+            Graphics2D g = step.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+                g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                if (opaque) {
+                    g.setColor(Color.WHITE);
+                    g.fillRect(0, 0, width, height);
+                }
+                g.drawImage(current, 0, 0, width, height, null);
+            } finally {
+                g.dispose();
+            }
+            current = step;
+        } while (width != finalWidth || height != finalHeight);
+
+        return current;
+    }
+
+    // Written to a temp file first so readers never see a half-written variant
+    private static void write(BufferedImage image, String format, Path target) throws IOException {
+        Path temp = Files.createTempFile(target.getParent(), "variant-", ".tmp");
+        try {
+            Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName(isJpeg(format) ? "jpeg" : format);
+            if (!writers.hasNext()) throw new IOException("No writer for " + format);
+
+            ImageWriter writer = writers.next();
+            try (ImageOutputStream out = ImageIO.createImageOutputStream(temp.toFile())) {
+                writer.setOutput(out);
+                ImageWriteParam param = writer.getDefaultWriteParam();
+                if (isJpeg(format)) {
+                    param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                    param.setCompressionQuality(JPEG_QUALITY);
+                    param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+                }
+                writer.write(null, new IIOImage(image, null, null), param);
+            } finally {
+                writer.dispose();
+            }
+
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException e) {
+                // Generated concurrently for the same content
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static boolean isJpeg(String format) {
+        return format.equals("jpg") || format.equals("jpeg");
+    }
+
+    private static String extensionOf(String filename) {
+        return filename.substring(filename.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT);
+    }
+}
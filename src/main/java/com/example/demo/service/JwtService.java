@@ -0,0 +1,110 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.AuthenticatedUser;
+import com.example.demo.entity.User;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.util.BoundedCache;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Issues and verifies the HMAC-signed tokens returned by login. A token
+ * carries the user id (subject), email and role, so verifying it needs no
+ * database access.
+ *
+ * Verified principals are also cached by user id for a short TTL and that
+ * entry wins over the token claims: a role change or a deleted account takes
+ * effect within the TTL instead of only when the token expires. A missing
+ * account is cached too, so a still-valid token for a deleted user does not
+ * reach the users table on every request.
+ */
+@Service
+public class JwtService {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtService.class);
+
+    private final UserRepository userRepository;
+    private final SecretKey key;
+    private final JwtParser parser;
+    private final Duration tokenTtl;
+    private final BoundedCache<Long, Optional<AuthenticatedUser>> principals;
+
+    public JwtService(UserRepository userRepository,
+                      @Value("${app.jwt.secret:}") String secret,
+                      @Value("${app.jwt.ttl-minutes:1440}") long ttlMinutes,
+                      @Value("${app.auth.principal-cache.ttl-seconds:60}") long principalTtlSeconds,
+                      @Value("${app.auth.principal-cache.max-size:10000}") int principalMaxSize) {
+        this.userRepository = userRepository;
+        this.key = signingKey(secret);
+        this.parser = Jwts.parserBuilder().setSigningKey(key).build();
+        this.tokenTtl = Duration.ofMinutes(ttlMinutes);
+        this.principals = new BoundedCache<>("principals", principalMaxSize,
+                Duration.ofSeconds(principalTtlSeconds));
+    }
+
+    // ==================== TOKENS ====================
+
+    public String issueToken(User user) {
+        Date now = new Date();
+        return Jwts.builder()
+                .setSubject(String.valueOf(user.getId()))
+                .claim("email", user.getEmail())
+                .claim("role", user.getRole())
+                .setIssuedAt(now)
+                .setExpiration(new Date(now.getTime() + tokenTtl.toMillis()))
+                .signWith(key, SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    /**
+     * Returns the caller for a valid, unexpired token, or null if the token is
+     * invalid or the account no longer exists.
+     */
+    public AuthenticatedUser authenticate(String token) {
+        Long userId;
+        try {
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            userId = Long.valueOf(claims.getSubject());
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+        return principals.get(userId, this::loadPrincipal).orElse(null);
+    }
+
+    public List<Map<String, Object>> stats() {
+        return List.of(principals.stats());
+    }
+
+    // ==================== HELPERS ====================
+
+    private Optional<AuthenticatedUser> loadPrincipal(Long userId) {
+        return userRepository.findById(userId)
+                .map(user -> new AuthenticatedUser(user.getId(), user.getEmail(), user.getRole()));
+    }
+
+    private static SecretKey signingKey(String secret) {
+        byte[] bytes = secret.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length >= 32) {
+            return Keys.hmacShaKeyFor(bytes);
+        }
+        log.warn("app.jwt.secret is missing or shorter than 32 bytes; using a random key, " +
+                "tokens will not survive a restart");
+        return Keys.secretKeyFor(SignatureAlgorithm.HS256);
+    }
+}
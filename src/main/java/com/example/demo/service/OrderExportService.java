@@ -0,0 +1,270 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.OrderStatus;
+import com.example.demo.entity.PaymentStatus;
+import com.example.demo.entity.ReturnStatus;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes orders with their items to a stream as CSV (one line per item) or
+ * NDJSON (one line per order). Rows come from a single forward-only query
+ * that MySQL streams row by row (fetch size Integer.MIN_VALUE), and each row
+ * is written as soon as it is read, so memory use does not grow with the
+ * number of orders exported.
+ *
+ * The query and the writes share one connection. Its net_write_timeout is
+ * raised for the export, because MySQL counts a client that is slow to read
+ * (here: a slow HTTP client) against it and would cut the stream, and set
+ * back before the connection returns to the pool.
+ */
+@Service
+public class OrderExportService {
+
+    public enum Format { CSV, NDJSON }
+
+    private static final int WRITE_BUFFER = 64 * 1024;
+
+    // Walks idx_orders_order_date_id, so rows arrive in order without a sort; an order's items are adjacent.
+    // Forced: without a date range the optimizer prefers a full scan plus filesort, which buffers everything
+    private static final String SELECT =
+            "SELECT o.id, o.order_date, o.status, o.payment_status, o.return_status, o.payment_method, " +
+            "o.total_amount, o.refunded_amount, o.tracking_number, " +
+            "u.id, u.email, u.first_name, u.last_name, " +
+            "oi.product_id, p.name, oi.quantity, oi.price " +
+            "FROM orders o FORCE INDEX (idx_orders_order_date_id) JOIN users u ON u.id = o.user_id " +
+            "LEFT JOIN order_items oi ON oi.order_id = o.id " +
+            "LEFT JOIN products p ON p.id = oi.product_id";
+    private static final String ORDER_BY = " ORDER BY o.order_date, o.id";
+
+    private static final String CSV_HEADER = "order_id,order_date,status,payment_status,return_status,payment_method," +
+            "total_amount,refunded_amount,tracking_number,customer_id,customer_email,customer_name," +
+            "product_id,product_name,quantity,price\n";
+
+    private static final OrderStatus.Converter ORDER_STATUS = new OrderStatus.Converter();
+    private static final PaymentStatus.Converter PAYMENT_STATUS = new PaymentStatus.Converter();
+    private static final ReturnStatus.Converter RETURN_STATUS = new ReturnStatus.Converter();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final int netWriteTimeoutSeconds;
+
+    public OrderExportService(DataSource dataSource, ObjectMapper objectMapper,
+                              @Value("${app.order-export.net-write-timeout-seconds:1800}") int netWriteTimeoutSeconds) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.objectMapper = objectMapper;
+        this.netWriteTimeoutSeconds = netWriteTimeoutSeconds;
+    }
+
+    /**
+     * Writes every order placed on or after {@code from} and on or before
+     * {@code to} (either may be null). The output is flushed but not closed,
+     * so the caller can finish a wrapping stream such as gzip.
+     */
+    public void export(Format format, LocalDate from, LocalDate to, OutputStream out) throws IOException {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new RuntimeException("'from' must not be after 'to'");
+        }
+
+        StringBuilder sql = new StringBuilder(SELECT);
+        List<Object> params = new ArrayList<>();
+        if (from != null) {
+            sql.append(params.isEmpty() ? " WHERE" : " AND").append(" o.order_date >= ?");
+            params.add(from.atStartOfDay());
+        }
+        if (to != null) {
+            sql.append(params.isEmpty() ? " WHERE" : " AND").append(" o.order_date < ?");
+            params.add(to.plusDays(1).atStartOfDay());
+        }
+        sql.append(ORDER_BY);
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER);
+        try {
+            jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                setNetWriteTimeout(connection, String.valueOf(netWriteTimeoutSeconds));
+                try {
+                    // Own template on this connection: the shared one must keep buffering result sets
+                    JdbcTemplate streaming = new JdbcTemplate(new SingleConnectionDataSource(connection, true));
+                    streaming.setFetchSize(Integer.MIN_VALUE);
+                    if (format == Format.NDJSON) {
+                        writeNdjson(streaming, sql.toString(), params, writer);
+                    } else {
+                        writeCsv(streaming, sql.toString(), params, writer);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                } finally {
+                    setNetWriteTimeout(connection, "@@GLOBAL.net_write_timeout");
+                }
+                return null;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause(); // client went away mid-export
+        }
+        writer.flush();
+    }
+
+    private static void setNetWriteTimeout(Connection connection, String value) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET SESSION net_write_timeout = " + value);
+        }
+    }
+
+    // ==================== CSV ====================
+
+    private void writeCsv(JdbcTemplate streaming, String sql, List<Object> params, Writer writer) throws IOException {
+        writer.write(CSV_HEADER);
+        StringBuilder line = new StringBuilder(256);
+
+        streaming.query(sql, (RowCallbackHandler) rs -> {
+            line.setLength(0);
+            line.append(rs.getLong(1)).append(',');
+            csv(line, rs.getObject(2, LocalDateTime.class)).append(',');
+            csv(line, ORDER_STATUS.convertToEntityAttribute(code(rs, 3))).append(',');
+            csv(line, PAYMENT_STATUS.convertToEntityAttribute(code(rs, 4))).append(',');
+            csv(line, RETURN_STATUS.convertToEntityAttribute(code(rs, 5))).append(',');
+            csv(line, rs.getString(6)).append(',');
+            csv(line, rs.getObject(7, Double.class)).append(',');
+            csv(line, rs.getObject(8, Double.class)).append(',');
+            csv(line, rs.getString(9)).append(',');
+            line.append(rs.getLong(10)).append(',');
+            csv(line, rs.getString(11)).append(',');
+            csv(line, customerName(rs)).append(',');
+            csv(line, rs.getObject(14, Long.class)).append(',');
+            csv(line, rs.getString(15)).append(',');
+            csv(line, rs.getObject(16, Integer.class)).append(',');
+            csv(line, rs.getObject(17, Double.class)).append('\n');
+            write(writer, line);
+        }, params.toArray());
+    }
+
+    // RFC 4180: quote fields holding a separator, quote or line break, doubling inner quotes
+    private static StringBuilder csv(StringBuilder line, Object value) {
+        if (value == null) return line;
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return line.append(text);
+        }
+        return line.append('"').append(text.replace("\"", "\"\"")).append('"');
+    }
+
+    private static void write(Writer writer, CharSequence text) {
+        try {
+            writer.append(text);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // ==================== NDJSON ====================
+
+    private void writeNdjson(JdbcTemplate streaming, String sql, List<Object> params, Writer writer) throws IOException {
+        JsonGenerator json = objectMapper.getFactory().createGenerator(writer);
+        json.setPrettyPrinter(new MinimalPrettyPrinter("\n"));
+        json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        long[] currentOrderId = {-1L};
+
+        streaming.query(sql, (RowCallbackHandler) rs -> {
+            try {
+                long orderId = rs.getLong(1);
+                if (orderId != currentOrderId[0]) {
+                    if (currentOrderId[0] != -1L) {
+                        json.writeEndArray();
+                        json.writeEndObject();
+                    }
+                    currentOrderId[0] = orderId;
+                    writeOrderStart(json, rs);
+                }
+                Long productId = rs.getObject(14, Long.class);
+                if (productId != null) {
+                    json.writeStartObject();
+                    json.writeNumberField("productId", productId);
+                    json.writeStringField("productName", rs.getString(15));
+                    writeNumberField(json, "quantity", rs.getObject(16, Integer.class));
+                    writeNumberField(json, "price", rs.getObject(17, Double.class));
+                    json.writeEndObject();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, params.toArray());
+
+        if (currentOrderId[0] != -1L) {
+            json.writeEndArray();
+            json.writeEndObject();
+            json.writeRaw('\n');
+        }
+        json.close(); // flushes into the writer, which stays open
+    }
+
+    // Same field names as OrderSummaryDTO, items last
+    private static void writeOrderStart(JsonGenerator json, ResultSet rs) throws SQLException, IOException {
+        json.writeStartObject();
+        json.writeNumberField("id", rs.getLong(1));
+        LocalDateTime orderDate = rs.getObject(2, LocalDateTime.class);
+        json.writeStringField("orderDate", orderDate != null ? orderDate.toString() : null);
+        writeEnumField(json, "status", ORDER_STATUS.convertToEntityAttribute(code(rs, 3)));
+        writeEnumField(json, "paymentStatus", PAYMENT_STATUS.convertToEntityAttribute(code(rs, 4)));
+        writeEnumField(json, "returnStatus", RETURN_STATUS.convertToEntityAttribute(code(rs, 5)));
+        json.writeStringField("paymentMethod", rs.getString(6));
+        writeNumberField(json, "totalAmount", rs.getObject(7, Double.class));
+        writeNumberField(json, "refundedAmount", rs.getObject(8, Double.class));
+        json.writeStringField("trackingNumber", rs.getString(9));
+        json.writeNumberField("customerId", rs.getLong(10));
+        json.writeStringField("customerEmail", rs.getString(11));
+        json.writeStringField("customerName", customerName(rs));
+        json.writeArrayFieldStart("items");
+    }
+
+    private static void writeEnumField(JsonGenerator json, String name, Enum<?> value) throws IOException {
+        json.writeStringField(name, value != null ? value.name() : null);
+    }
+
+    private static void writeNumberField(JsonGenerator json, String name, Number value) throws IOException {
+        json.writeFieldName(name);
+        if (value == null) {
+            json.writeNull();
+        } else if (value instanceof Double d) {
+            json.writeNumber(d);
+        } else {
+            json.writeNumber(value.longValue());
+        }
+    }
+
+    // ==================== HELPERS ====================
+
+    private static Byte code(ResultSet rs, int column) throws SQLException {
+        byte code = rs.getByte(column);
+        return rs.wasNull() ? null : code;
+    }
+
+    private static String customerName(ResultSet rs) throws SQLException {
+        String firstName = rs.getString(12);
+        String lastName = rs.getString(13);
+        return ((firstName != null ? firstName : "") + " " + (lastName != null ? lastName : "")).trim();
+    }
+}
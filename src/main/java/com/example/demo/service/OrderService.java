@@ -1,44 +1,54 @@
 package com.example.demo.service;
 
+import com.example.demo.dto.OrderDTO;
 import com.example.demo.entity.*;
 import com.example.demo.repository.*;
+import com.example.demo.util.TransactionUtil;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 public class OrderService {
 
+    // Not shipped yet; the conditional cancel only matches these
+    private static final Set<OrderStatus> CANCELLABLE = OrderTransitions.sourcesOf(OrderStatus.CANCELLED);
+
     private final OrderRepository orderRepository;
-    private final UserRepository userRepository;
     private final CartRepository cartRepository;
     private final CartItemRepository cartItemRepository;
-    private final ProductRepository productRepository;
+    private final DashboardStatsService dashboardStatsService;
+    private final StockReservationService stockReservationService;
+    private final PurchaseVerificationService purchaseVerificationService;
 
     public OrderService(OrderRepository orderRepository,
-                        UserRepository userRepository,
                         CartRepository cartRepository,
                         CartItemRepository cartItemRepository,
-                        ProductRepository productRepository) {
+                        DashboardStatsService dashboardStatsService,
+                        StockReservationService stockReservationService,
+                        PurchaseVerificationService purchaseVerificationService) {
         this.orderRepository = orderRepository;
-        this.userRepository = userRepository;
         this.cartRepository = cartRepository;
         this.cartItemRepository = cartItemRepository;
-        this.productRepository = productRepository;
+        this.dashboardStatsService = dashboardStatsService;
+        this.stockReservationService = stockReservationService;
+        this.purchaseVerificationService = purchaseVerificationService;
     }
 
     /**
      * ✅ Create a new order from user's cart
      */
     @Transactional
-    public Order createOrder(String email, String shippingAddress, String paymentMethod) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        Cart cart = cartRepository.findByUserId(user.getId())
+    public Order createOrder(Long userId, String shippingAddress, String paymentMethod) {
+        Cart cart = cartRepository.findByUserId(userId)
                 .orElseThrow(() -> new RuntimeException("Cart not found"));
+        User user = cart.getUser(); // loaded with the cart, no separate user lookup
 
         if (cart.getItems().isEmpty()) {
             throw new RuntimeException("Cannot create order with empty cart");
@@ -51,28 +61,28 @@ public class OrderService {
         order.setPaymentMethod(paymentMethod);
 //        order.setStatus("PLACED");
         if (paymentMethod.equalsIgnoreCase("Cash on Delivery")) {
-            order.setStatus("ORDER_PLACED");
-            order.setPaymentStatus("PENDING"); // COD - payment not yet confirmed
+            order.setStatus(OrderStatus.ORDER_PLACED);
+            order.setPaymentStatus(PaymentStatus.PENDING); // COD - payment not yet confirmed
         } else {
-            order.setStatus("PAYMENT_PENDING");
-            order.setPaymentStatus("PENDING"); // Online payment - needs confirmation
+            order.setStatus(OrderStatus.PAYMENT_PENDING);
+            order.setPaymentStatus(PaymentStatus.PENDING); // Online payment - needs confirmation
         }
         order.setOrderDate(LocalDateTime.now());
 
+        // ✅ Step 2: Reserve stock with atomic conditional decrements (no read-check-write);
+        // they are part of this transaction, so a failed order gives the stock back on rollback
+        Map<Product, Integer> quantities = new LinkedHashMap<>();
+        for (CartItem cartItem : cart.getItems()) {
+            quantities.merge(cartItem.getProduct(), cartItem.getQuantity(), Integer::sum);
+        }
+        stockReservationService.reserve(quantities);
+
         double totalAmount = 0.0;
 
-        // ✅ Step 2: Convert cart items → order items and calculate total
+        // ✅ Step 3: Convert cart items → order items and calculate total
         for (CartItem cartItem : cart.getItems()) {
             Product product = cartItem.getProduct();
 
-            if (product.getStock() < cartItem.getQuantity()) {
-                throw new RuntimeException("Insufficient stock for " + product.getName());
-            }
-
-            // Update stock
-            product.setStock(product.getStock() - cartItem.getQuantity());
-            productRepository.save(product);
-
             // Create new OrderItem
             OrderItem orderItem = new OrderItem();
             orderItem.setOrder(order); // important: link it to this order
@@ -85,11 +95,18 @@ public class OrderService {
             totalAmount += product.getPrice() * cartItem.getQuantity();
         }
 
-        // ✅ Step 3: Now set totalAmount and save order
+        // ✅ Step 4: Now set totalAmount and save order
         order.setTotalAmount(totalAmount);
         Order savedOrder = orderRepository.save(order);
+        double placedAmount = totalAmount;
+        Long buyerId = user.getId();
+        List<Long> purchasedProductIds = quantities.keySet().stream().map(Product::getId).collect(Collectors.toList());
+        TransactionUtil.afterCommit(() -> {
+            dashboardStatsService.onOrderPlaced(placedAmount);
+            purchaseVerificationService.recordPurchase(buyerId, purchasedProductIds);
+        });
 
-        // ✅ Step 4: Clear cart
+        // ✅ Step 5: Clear cart
         cartItemRepository.deleteAll(cart.getItems());
         cart.getItems().clear();
         cartRepository.save(cart);
@@ -101,10 +118,11 @@ public class OrderService {
     /** 
      * ✅ Get all orders for a user
      */
-    public List<Order> getUserOrders(String email) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        return orderRepository.findByUserId(user.getId());
+    @Transactional(readOnly = true)
+    public List<OrderDTO> getUserOrders(Long userId) {
+        return orderRepository.findWithItemsByUserId(userId).stream()
+                .map(OrderDTO::fromEntity)
+                .collect(Collectors.toList());
     }
 
     /**
@@ -118,36 +136,50 @@ public class OrderService {
  // Admin confirms payment
     @Transactional
     public Order confirmPayment(Long orderId) {
+        // ✅ A COD order paid at the door is already shipped/delivered; only waiting orders move on.
+        // Conditional and before the load, so the save below cannot write back a status read earlier
+        orderRepository.transitionStatus(orderId, OrderTransitions.sourcesOf(OrderStatus.PAYMENT_CONFIRMED),
+                OrderStatus.PAYMENT_CONFIRMED);
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found"));
         
-        order.setPaymentStatus("CONFIRMED");
+        OrderTransitions.check(order.getPaymentStatus(), PaymentStatus.CONFIRMED);
+        order.setPaymentStatus(PaymentStatus.CONFIRMED);
         order.setPaymentConfirmedAt(LocalDateTime.now());
-        order.setStatus("PAYMENT_CONFIRMED");
         
         return orderRepository.save(order);
     }
 
     // Admin updates order status
     @Transactional
-    public Order updateOrderStatus(Long orderId, String newStatus, String trackingNumber) {
+    public Order updateOrderStatus(Long orderId, OrderStatus newStatus, String trackingNumber) {
+        if (newStatus == OrderStatus.CANCELLED) {
+            // Same path as a customer cancel, so the stock goes back exactly once
+            return cancel(orderId, null, "Cancelled by admin");
+        }
+        
+        // Conditional update first (it also locks the row), then load: like cancel, a move
+        // decided on a stale read can neither apply twice nor overwrite a concurrent one
+        int updated = orderRepository.transitionStatus(orderId, OrderTransitions.sourcesOf(newStatus), newStatus);
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found"));
-        
-        order.setStatus(newStatus);
+        if (updated == 0) {
+            OrderTransitions.check(order.getStatus(), newStatus);
+            throw new RuntimeException("Order status changed, please try again");
+        }
         
         // Set timestamps based on status
         switch (newStatus) {
-            case "SHIPPED":
+            case SHIPPED:
                 order.setShippedAt(LocalDateTime.now());
                 if (trackingNumber != null) {
                     order.setTrackingNumber(trackingNumber);
                 }
                 break;
-            case "OUT_FOR_DELIVERY":
+            case OUT_FOR_DELIVERY:
                 // No additional timestamp needed
                 break;
-            case "DELIVERED":
+            case DELIVERED:
                 order.setDeliveredAt(LocalDateTime.now());
                 break;
         }
@@ -156,17 +188,17 @@ public class OrderService {
     }
     
     @Transactional
-    public Order requestReturn(Long orderId, String email, String reason, String images) {
+    public Order requestReturn(Long orderId, Long userId, String reason, String images) {
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found"));
         
         // Verify ownership
-        if (!order.getUser().getEmail().equals(email)) {
+        if (!order.getUser().getId().equals(userId)) {
             throw new RuntimeException("Unauthorized");
         }
         
         // Check if delivered
-        if (!"DELIVERED".equals(order.getStatus())) {
+        if (order.getStatus() != OrderStatus.DELIVERED) {
             throw new RuntimeException("Only delivered orders can be returned");
         }
         
@@ -186,7 +218,7 @@ public class OrderService {
             throw new RuntimeException("Return already requested for this order");
         }
         
-        order.setReturnStatus("REQUESTED");
+        order.setReturnStatus(ReturnStatus.REQUESTED);
         order.setReturnReason(reason);
         order.setReturnRequestedAt(LocalDateTime.now());
         order.setReturnImages(images);
@@ -196,33 +228,35 @@ public class OrderService {
     
     // User cancels order
     @Transactional
-    public Order cancelOrder(Long orderId, String email, String reason) {
+    public Order cancelOrder(Long orderId, Long userId, String reason) {
+        return cancel(orderId, userId, reason);
+    }
+
+    // userId is null for an admin cancel, which skips the ownership check
+    private Order cancel(Long orderId, Long userId, String reason) {
+        // Conditional update first: only the cancel that actually changes the row restocks
+        int updated = orderRepository.cancel(orderId, userId, CANCELLABLE, OrderStatus.CANCELLED,
+                LocalDateTime.now(), reason);
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found"));
-        
-        // Verify it's user's order
-        if (!order.getUser().getEmail().equals(email)) {
-            throw new RuntimeException("Unauthorized");
-        }
-        
-        // Only allow cancellation if not shipped
-        if (order.getStatus().equals("SHIPPED") || 
-            order.getStatus().equals("OUT_FOR_DELIVERY") || 
-            order.getStatus().equals("DELIVERED")) {
+        if (updated == 0) {
+            // Verify it's user's order
+            if (userId != null && !order.getUser().getId().equals(userId)) {
+                throw new RuntimeException("Unauthorized");
+            }
+            if (order.getStatus() == OrderStatus.CANCELLED) {
+                throw new RuntimeException("Order is already cancelled");
+            }
             throw new RuntimeException("Cannot cancel order that is already shipped");
         }
         
-        order.setStatus("CANCELLED");
-        order.setCancelledAt(LocalDateTime.now());
-        order.setCancelReason(reason);
-        
         // Restore stock
+        Map<Product, Integer> quantities = new LinkedHashMap<>();
         for (OrderItem item : order.getItems()) {
-            Product product = item.getProduct();
-            product.setStock(product.getStock() + item.getQuantity());
-            productRepository.save(product);
+            quantities.merge(item.getProduct(), item.getQuantity(), Integer::sum);
         }
+        stockReservationService.restock(quantities);
         
-        return orderRepository.save(order);
+        return order;
     }
 }
@@ -0,0 +1,111 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.CursorPage;
+import com.example.demo.dto.ProductView;
+import com.example.demo.entity.Product;
+import com.example.demo.repository.ProductRepository;
+import com.example.demo.util.BoundedCache;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache for the storefront catalog: single products, the featured
+ * list and the first page of each category listing, held as immutable views
+ * (never entities) so cached values can be shared across requests. Writers call the evict
+ * methods (after commit) for exactly the entries a change can affect.
+ *
+ * Eviction also covers Hibernate's second-level cache, because some writers
+ * (checkout stock decrements, review ratings and their backfill) update rows
+ * with plain JDBC that Hibernate never sees.
+ */
+@Service
+public class ProductCacheService {
+
+    private static final String FEATURED_KEY = "featured";
+    private static final String ALL_CATEGORIES = "";
+
+    private final BoundedCache<Long, ProductView> products;
+    private final BoundedCache<String, List<ProductView>> featured;
+    // category ("" = whole catalog) -> page size -> first page
+    private final BoundedCache<String, Map<Integer, CursorPage<ProductView>>> firstPages;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public ProductCacheService(EntityManagerFactory entityManagerFactory,
+                               @Value("${app.cache.products.max-size:10000}") int productsMaxSize,
+                               @Value("${app.cache.category-pages.max-size:500}") int pagesMaxSize) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.products = new BoundedCache<>("products", productsMaxSize);
+        this.featured = new BoundedCache<>("featuredProducts", 1);
+        this.firstPages = new BoundedCache<>("categoryFirstPages", pagesMaxSize);
+    }
+
+    // ==================== READS ====================
+
+    public ProductView getProduct(Long id, Function<Long, ProductView> loader) {
+        return products.get(id, loader);
+    }
+
+    public List<ProductView> getFeatured(Supplier<List<ProductView>> loader) {
+        return featured.get(FEATURED_KEY, k -> loader.get());
+    }
+
+    public CursorPage<ProductView> getFirstPage(String category, int size, Supplier<CursorPage<ProductView>> loader) {
+        String key = category == null ? ALL_CATEGORIES : category;
+        Map<Integer, CursorPage<ProductView>> pages = firstPages.get(key, k -> new ConcurrentHashMap<>());
+        CursorPage<ProductView> page = pages.get(size);
+        if (page == null) {
+            // Loaded outside the map: computeIfAbsent would hold a bin lock (pinning a virtual thread) for the query
+            page = loader.get();
+            CursorPage<ProductView> raced = pages.putIfAbsent(size, page);
+            if (raced != null) page = raced;
+        }
+        return page;
+    }
+
+    // ==================== INVALIDATION ====================
+
+    /**
+     * Drops everything a change to this product can show up in: the product
+     * itself, the listings of the given categories (pass the old category too
+     * when it changed), the whole-catalog pages and the featured list.
+     */
+    public void evictProduct(Long productId, String... categories) {
+        // Cached query results hold ids only and none filters on the columns written
+        // outside Hibernate, so the entity entry is all that can be stale
+        entityManagerFactory.getCache().evict(Product.class, productId);
+        products.invalidate(productId);
+        for (String category : categories) {
+            if (category != null) firstPages.invalidate(category);
+        }
+        firstPages.invalidate(ALL_CATEGORIES);
+        featured.invalidateAll();
+    }
+
+    // Cached query results hold ids, so only inserts and category changes outside Hibernate make them stale
+    public void evictProductQueries() {
+        entityManagerFactory.unwrap(SessionFactoryImplementor.class).getCache()
+                .evictQueryRegion(ProductRepository.QUERY_CACHE_REGION);
+    }
+
+    public void evictAll() {
+        entityManagerFactory.getCache().evict(Product.class);
+        entityManagerFactory.unwrap(SessionFactoryImplementor.class).getCache()
+                .evictQueryRegion(ProductRepository.QUERY_CACHE_REGION);
+        products.invalidateAll();
+        featured.invalidateAll();
+        firstPages.invalidateAll();
+    }
+
+    public List<Map<String, Object>> stats() {
+        return List.of(products.stats(), featured.stats(), firstPages.stats());
+    }
+}
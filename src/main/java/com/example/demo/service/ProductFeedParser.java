@@ -0,0 +1,298 @@
+package com.example.demo.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Parsing and validation of supplier product feeds. Splitting the file into
+ * records is sequential and cheap (RecordReader only tracks quotes); turning
+ * a chunk of records into rows is pure and runs on the import parser pool.
+ *
+ * Columns / keys: sku, name, category, price (required), description,
+ * brand, stock (default 0), image. Unknown columns are ignored.
+ */
+final class ProductFeedParser {
+
+    private static final List<String> REQUIRED_COLUMNS = List.of("sku", "name", "category", "price");
+    // Far above any valid row (the field limits add up to a few thousand characters)
+    static final int MAX_RECORD_LENGTH = 64 * 1024;
+
+    // error is set when the record could not be delimited; it is reported as a row error, never parsed
+    record RawRecord(long lineNumber, String text, String error) {
+
+        RawRecord(long lineNumber, String text) {
+            this(lineNumber, text, null);
+        }
+    }
+
+    record FeedRow(long lineNumber, String sku, String name, String description, String category,
+                   String brand, double price, int stock, String image) {}
+
+    record RowError(long lineNumber, String sku, String message) {}
+
+    record ParsedChunk(List<FeedRow> rows, List<RowError> errors) {}
+
+    private ProductFeedParser() {}
+
+    // ==================== RECORDS ====================
+
+    /**
+     * Reads one record at a time, skipping blank lines. For CSV a record
+     * continues onto the next line while a quoted field is still open. A
+     * quote that is never closed (within maxRecordLength characters or before
+     * the end of the file) makes its first line an error record, and reading
+     * goes on from the line after it.
+     */
+    static final class RecordReader {
+        private final BufferedReader in;
+        private final boolean csv;
+        private final int maxRecordLength;
+        private long line;
+
+        RecordReader(BufferedReader in, boolean csv) {
+            this(in, csv, MAX_RECORD_LENGTH);
+        }
+
+        RecordReader(BufferedReader in, boolean csv, int maxRecordLength) {
+            this.in = in;
+            this.csv = csv;
+            this.maxRecordLength = maxRecordLength;
+        }
+
+        RawRecord next() throws IOException {
+            String text;
+            do {
+                text = in.readLine();
+                if (text == null) return null;
+                if (line++ == 0 && text.startsWith("\uFEFF")) text = text.substring(1);
+            } while (text.isBlank());
+
+            long start = line;
+            if (csv && countQuotes(text) % 2 == 1) {
+                // Each line costs at most its length plus a two-char line break, so the mark survives the cap
+                in.mark(2 * maxRecordLength + 2);
+                StringBuilder record = new StringBuilder(text);
+                int quotes = countQuotes(text);
+                String more;
+                while (quotes % 2 == 1 && record.length() <= maxRecordLength && (more = in.readLine()) != null) {
+                    line++;
+                    record.append('\n').append(more);
+                    quotes += countQuotes(more);
+                }
+                if (quotes % 2 == 1) {
+                    return unbalanced(start, text, record.length() > maxRecordLength);
+                }
+                text = record.toString();
+            }
+            return new RawRecord(start, text);
+        }
+
+        // Goes back to the line after the first one, so only that line is lost
+        private RawRecord unbalanced(long start, String firstLine, boolean tooLong) throws IOException {
+            try {
+                in.reset();
+                line = start;
+            } catch (IOException e) {
+                // A single line longer than the mark: carry on from where reading stopped
+            }
+            return new RawRecord(start, firstLine, tooLong
+                    ? "Unclosed quote: record is longer than " + maxRecordLength + " characters"
+                    : "Unclosed quote at end of file");
+        }
+
+        List<RawRecord> nextChunk(int size) throws IOException {
+            List<RawRecord> chunk = new ArrayList<>(size);
+            RawRecord record;
+            while (chunk.size() < size && (record = next()) != null) {
+                chunk.add(record);
+            }
+            return chunk;
+        }
+
+        private static int countQuotes(String text) {
+            int count = 0;
+            for (int i = 0; i < text.length(); i++) {
+                if (text.charAt(i) == '"') count++;
+            }
+            return count;
+        }
+    }
+
+    // ==================== CSV ====================
+
+    // Column name -> position; fails the whole import if a required column is missing
+    static Map<String, Integer> csvHeader(String text) {
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> names = splitCsv(text);
+        for (int i = 0; i < names.size(); i++) {
+            columns.putIfAbsent(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        List<String> missing = REQUIRED_COLUMNS.stream().filter(c -> !columns.containsKey(c)).toList();
+        if (!missing.isEmpty()) {
+            throw new RuntimeException("Missing required column(s): " + String.join(", ", missing));
+        }
+        return columns;
+    }
+
+    static ParsedChunk parseCsv(List<RawRecord> records, Map<String, Integer> header) {
+        List<FeedRow> rows = new ArrayList<>(records.size());
+        List<RowError> errors = new ArrayList<>();
+        for (RawRecord record : records) {
+            List<String> fields = splitCsv(record.text());
+            String sku = column(fields, header, "sku");
+            if (record.error() != null) {
+                errors.add(new RowError(record.lineNumber(), trimToNull(sku), record.error()));
+                continue;
+            }
+            try {
+                rows.add(validate(record.lineNumber(), sku, column(fields, header, "name"),
+                        column(fields, header, "description"), column(fields, header, "category"),
+                        column(fields, header, "brand"), column(fields, header, "price"),
+                        column(fields, header, "stock"), column(fields, header, "image")));
+            } catch (RuntimeException e) {
+                errors.add(new RowError(record.lineNumber(), trimToNull(sku), e.getMessage()));
+            }
+        }
+        return new ParsedChunk(rows, errors);
+    }
+
+    // RFC 4180 fields: comma separated, optionally quoted, "" inside quotes is a quote
+    static List<String> splitCsv(String text) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static String column(List<String> fields, Map<String, Integer> header, String name) {
+        Integer index = header.get(name);
+        return index != null && index < fields.size() ? fields.get(index) : null;
+    }
+
+    // ==================== NDJSON ====================
+
+    static ParsedChunk parseNdjson(List<RawRecord> records, ObjectMapper objectMapper) {
+        List<FeedRow> rows = new ArrayList<>(records.size());
+        List<RowError> errors = new ArrayList<>();
+        for (RawRecord record : records) {
+            String sku = null;
+            try {
+                JsonNode node;
+                try {
+                    node = objectMapper.readTree(record.text());
+                } catch (IOException e) {
+                    throw new RuntimeException("Invalid JSON");
+                }
+                if (node == null || !node.isObject()) {
+                    throw new RuntimeException("Expected a JSON object");
+                }
+                sku = value(node, "sku");
+                rows.add(validate(record.lineNumber(), sku, value(node, "name"), value(node, "description"),
+                        value(node, "category"), value(node, "brand"), value(node, "price"),
+                        value(node, "stock"), value(node, "image")));
+            } catch (RuntimeException e) {
+                errors.add(new RowError(record.lineNumber(), trimToNull(sku), e.getMessage()));
+            }
+        }
+        return new ParsedChunk(rows, errors);
+    }
+
+    private static String value(JsonNode node, String name) {
+        JsonNode field = node.get(name);
+        if (field == null || field.isNull()) return null;
+        if (!field.isValueNode()) {
+            throw new RuntimeException("'" + name + "' must be a plain value");
+        }
+        return field.asText();
+    }
+
+    // ==================== VALIDATION ====================
+
+    private static FeedRow validate(long lineNumber, String sku, String name, String description,
+                                    String category, String brand, String price, String stock, String image) {
+        sku = required("sku", sku, 64);
+        name = required("name", name, 255);
+        category = required("category", category, 255);
+        description = optional("description", description, 1000);
+        brand = optional("brand", brand, 255);
+        image = optional("image", image, 1000);
+
+        double parsedPrice;
+        try {
+            parsedPrice = Double.parseDouble(required("price", price, 32));
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Invalid price: " + price);
+        }
+        if (!Double.isFinite(parsedPrice) || parsedPrice < 0) {
+            throw new RuntimeException("Invalid price: " + price);
+        }
+
+        int parsedStock = 0;
+        String stockText = trimToNull(stock);
+        if (stockText != null) {
+            try {
+                parsedStock = Integer.parseInt(stockText);
+            } catch (NumberFormatException e) {
+                throw new RuntimeException("Invalid stock: " + stock);
+            }
+            if (parsedStock < 0) {
+                throw new RuntimeException("Invalid stock: " + stock);
+            }
+        }
+
+        return new FeedRow(lineNumber, sku, name, description, category, brand, parsedPrice, parsedStock, image);
+    }
+
+    private static String required(String name, String value, int maxLength) {
+        String trimmed = optional(name, value, maxLength);
+        if (trimmed == null) {
+            throw new RuntimeException("Missing " + name);
+        }
+        return trimmed;
+    }
+
+    private static String optional(String name, String value, int maxLength) {
+        String trimmed = trimToNull(value);
+        if (trimmed != null && trimmed.length() > maxLength) {
+            throw new RuntimeException(name + " is longer than " + maxLength + " characters");
+        }
+        return trimmed;
+    }
+
+    private static String trimToNull(String value) {
+        if (value == null) return null;
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+}
@@ -0,0 +1,486 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.ProductImportStatusDTO;
+import com.example.demo.entity.Product;
+import com.example.demo.entity.ProductImportError;
+import com.example.demo.entity.ProductImportJob;
+import com.example.demo.repository.ProductImportErrorRepository;
+import com.example.demo.repository.ProductImportJobRepository;
+import com.example.demo.repository.ProductRepository;
+import com.example.demo.service.ProductFeedParser.FeedRow;
+import com.example.demo.service.ProductFeedParser.ParsedChunk;
+import com.example.demo.service.ProductFeedParser.RawRecord;
+import com.example.demo.service.ProductFeedParser.RecordReader;
+import com.example.demo.service.ProductFeedParser.RowError;
+import com.example.demo.util.TransactionUtil;
+import com.example.demo.util.WorkerThreads;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulk product import from a supplier feed (CSV with a header row, or one
+ * JSON object per line), matched to existing products by SKU.
+ *
+ * The upload is streamed to disk and a job row is queued. One job runs at a
+ * time: the runner splits the file into chunks of records, a pool of parser
+ * threads parses and validates chunks in parallel (a bounded number ahead),
+ * and each chunk is upserted with one batched INSERT ... ON DUPLICATE KEY
+ * UPDATE in its own transaction, together with its row errors and the job's
+ * progress. A job that stops (restart, database error) resumes after its
+ * last committed chunk; re-applying a chunk would be harmless anyway.
+ *
+ * After each chunk commits, the derived product state (caches, search and
+ * suggest indexes, dashboard aggregate) is updated for the products that
+ * chunk wrote, so it never waits for the end of the job and a failed job
+ * leaves it matching what did commit. Like the checkout queue, this assumes
+ * a single application instance.
+ */
+@Service
+public class ProductImportService {
+
+    public enum Format { CSV, NDJSON }
+
+    private static final Logger log = LoggerFactory.getLogger(ProductImportService.class);
+
+    private static final int READ_BUFFER = 64 * 1024;
+    // Products created by hand start with the same rating (see Product)
+    private static final double NEW_PRODUCT_RATING = 4.0;
+
+    // Blank optional fields keep what the product already has; rating and review aggregates are never touched
+    private static final String UPSERT =
+            "INSERT INTO products (sku, name, description, category, brand, price, stock, image, rating) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE name = VALUES(name), " +
+            "description = COALESCE(VALUES(description), description), category = VALUES(category), " +
+            "brand = COALESCE(VALUES(brand), brand), price = VALUES(price), stock = VALUES(stock), " +
+            "image = COALESCE(VALUES(image), image)";
+
+    private final ProductImportJobRepository jobRepository;
+    private final ProductImportErrorRepository errorRepository;
+    private final ProductRepository productRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final DashboardStatsService dashboardStatsService;
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductSuggestIndex productSuggestIndex;
+    private final ProductCacheService productCacheService;
+
+    private final Path importDir;
+    private final long maxFileSize;
+    private final int chunkSize;
+    private final int maxErrors;
+    private final int parseThreads;
+
+    private final ExecutorService runner;
+    private final ThreadPoolExecutor parsers;
+
+    public ProductImportService(ProductImportJobRepository jobRepository,
+                                ProductImportErrorRepository errorRepository,
+                                ProductRepository productRepository,
+                                JdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager,
+                                ObjectMapper objectMapper,
+                                DashboardStatsService dashboardStatsService,
+                                ProductSearchIndex productSearchIndex,
+                                ProductSuggestIndex productSuggestIndex,
+                                ProductCacheService productCacheService,
+                                @Value("${app.import.dir:uploads/imports}") String importDir,
+                                @Value("${app.import.max-file-size-mb:500}") long maxFileSizeMb,
+                                @Value("${app.import.chunk-size:500}") int chunkSize,
+                                @Value("${app.import.max-errors:1000}") int maxErrors,
+                                @Value("${app.import.parse-threads:0}") int parseThreads) {
+        this.jobRepository = jobRepository;
+        this.errorRepository = errorRepository;
+        this.productRepository = productRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.dashboardStatsService = dashboardStatsService;
+        this.productSearchIndex = productSearchIndex;
+        this.productSuggestIndex = productSuggestIndex;
+        this.productCacheService = productCacheService;
+
+        this.importDir = Paths.get(importDir).toAbsolutePath().normalize();
+        try {
+            Files.createDirectories(this.importDir);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create import directory " + this.importDir, e);
+        }
+        this.maxFileSize = maxFileSizeMb * 1024 * 1024;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.maxErrors = Math.max(0, maxErrors);
+        this.parseThreads = parseThreads > 0 ? parseThreads : Runtime.getRuntime().availableProcessors();
+
+        this.runner = Executors.newSingleThreadExecutor(WorkerThreads.platform("import-runner-"));
+        // Parsing is CPU-bound, so these stay platform threads even in virtual-thread mode
+        this.parsers = new ThreadPoolExecutor(this.parseThreads, this.parseThreads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), WorkerThreads.platform("import-parser-"));
+    }
+
+    // ==================== SUBMIT ====================
+
+    /**
+     * Streams the feed to disk (never buffered on the heap) and queues the
+     * job. Returns as soon as the file is stored.
+     */
+    public ProductImportStatusDTO submit(Format format, String originalFilename, InputStream body) {
+        String storedFilename = UUID.randomUUID() + (format == Format.NDJSON ? ".ndjson" : ".csv");
+        Path target = importDir.resolve(storedFilename);
+
+        long size;
+        try (OutputStream out = Files.newOutputStream(target)) {
+            size = copyLimited(body, out);
+        } catch (IOException | RuntimeException e) {
+            deleteQuietly(target);
+            if (e instanceof RuntimeException runtime) throw runtime;
+            throw new RuntimeException("Failed to store import file", e);
+        }
+        if (size == 0) {
+            deleteQuietly(target);
+            throw new RuntimeException("Import file is empty");
+        }
+
+        ProductImportJob job = jobRepository.save(
+                new ProductImportJob(originalFilename, storedFilename, format.name(), size));
+        schedule(job.getId());
+        return ProductImportStatusDTO.fromEntity(job);
+    }
+
+    // A FAILED job continues from its last committed chunk
+    public ProductImportStatusDTO resume(Long jobId) {
+        Integer requeued = transactionTemplate.execute(status -> jobRepository.requeueFailed(jobId));
+        if (requeued == null || requeued == 0) {
+            getJob(jobId);
+            throw new RuntimeException("Only failed imports can be resumed");
+        }
+        schedule(jobId);
+        return getStatus(jobId);
+    }
+
+    // ==================== STATUS ====================
+
+    public ProductImportStatusDTO getStatus(Long jobId) {
+        return ProductImportStatusDTO.fromEntity(getJob(jobId));
+    }
+
+    // The first app.import.max-errors rejected rows, in file order
+    public List<ProductImportError> getErrors(Long jobId) {
+        getJob(jobId);
+        return errorRepository.findByJobIdOrderByLineNumber(jobId);
+    }
+
+    private ProductImportJob getJob(Long jobId) {
+        return jobRepository.findById(jobId)
+                .orElseThrow(() -> new RuntimeException("Import job not found"));
+    }
+
+    // ==================== PROCESSING ====================
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterrupted() {
+        Integer requeued = transactionTemplate.execute(status -> jobRepository.requeueRunning());
+        if (requeued != null && requeued > 0) {
+            log.info("Resuming {} interrupted product imports", requeued);
+        }
+        jobRepository.findQueuedIds().forEach(this::schedule);
+    }
+
+    private void schedule(Long jobId) {
+        runner.execute(() -> run(jobId));
+    }
+
+    private void run(Long jobId) {
+        Boolean claimed = transactionTemplate.execute(
+                status -> jobRepository.markRunning(jobId, LocalDateTime.now()) == 1);
+        if (!Boolean.TRUE.equals(claimed)) return;
+
+        ProductImportJob job = getJob(jobId);
+        try {
+            importFile(job);
+            transactionTemplate.executeWithoutResult(status -> jobRepository.markCompleted(jobId, LocalDateTime.now()));
+            deleteQuietly(importDir.resolve(job.getStoredFilename()));
+            log.info("Product import {} completed", jobId);
+        } catch (Exception e) {
+            log.error("Product import {} failed", jobId, e);
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                        jobRepository.markFailed(jobId, errorMessageOf(e), LocalDateTime.now()));
+            } catch (RuntimeException markError) {
+                // Left RUNNING; resumed on the next startup
+                log.error("Could not record failure of product import {}", jobId, markError);
+            }
+        }
+    }
+
+    private record PendingChunk(Future<ParsedChunk> parsed, int records, long bytesRead) {}
+
+    // What an updated product looked like before the chunk, for the dashboard and category evictions
+    private record Previous(String category, int stock) {}
+
+    private void importFile(ProductImportJob job) throws IOException, InterruptedException {
+        Format format = Format.valueOf(job.getFormat());
+        Path file = importDir.resolve(job.getStoredFilename());
+        if (!Files.isRegularFile(file)) {
+            throw new RuntimeException("Import file is missing: " + job.getStoredFilename());
+        }
+
+        long committed = job.getRecordsCommitted();
+        long failed = job.getRowsFailed();
+        Deque<PendingChunk> inFlight = new ArrayDeque<>();
+
+        try (CountingInputStream counting = new CountingInputStream(Files.newInputStream(file));
+             BufferedReader reader = new BufferedReader(
+                     new InputStreamReader(counting, StandardCharsets.UTF_8), READ_BUFFER)) {
+            RecordReader records = new RecordReader(reader, format == Format.CSV);
+
+            Map<String, Integer> header = null;
+            if (format == Format.CSV) {
+                RawRecord headerRecord = records.next();
+                if (headerRecord == null) throw new RuntimeException("Import file is empty");
+                header = ProductFeedParser.csvHeader(headerRecord.text());
+            }
+            // Resume: skip what earlier runs committed
+            long skipped = 0;
+            while (skipped < committed && records.next() != null) {
+                skipped++;
+            }
+
+            Map<String, Integer> columns = header;
+            boolean endOfFile = false;
+            while (true) {
+                // Keep the parser pool busy, but never hold more than a few chunks in memory
+                while (!endOfFile && inFlight.size() < parseThreads * 2) {
+                    List<RawRecord> chunk = records.nextChunk(chunkSize);
+                    if (chunk.isEmpty()) {
+                        endOfFile = true;
+                        break;
+                    }
+                    Future<ParsedChunk> parsed = parsers.submit(() -> format == Format.CSV
+                            ? ProductFeedParser.parseCsv(chunk, columns)
+                            : ProductFeedParser.parseNdjson(chunk, objectMapper));
+                    inFlight.add(new PendingChunk(parsed, chunk.size(), counting.getCount()));
+                }
+
+                PendingChunk next = inFlight.poll();
+                if (next == null) break;
+
+                ParsedChunk parsed;
+                try {
+                    parsed = next.parsed().get();
+                } catch (ExecutionException e) {
+                    throw new RuntimeException("Failed to parse import chunk: " + e.getCause().getMessage(), e.getCause());
+                }
+                committed += next.records();
+                failed += parsed.errors().size();
+                commitChunk(job.getId(), parsed, committed, next.bytesRead(), failed);
+            }
+        } finally {
+            inFlight.forEach(pending -> pending.parsed().cancel(true));
+        }
+    }
+
+    /**
+     * Upserts one chunk and records its errors and the job's progress in a
+     * single transaction. Whether a row inserts or updates is read up front
+     * (one IN query on the SKU index), since rewritten batches report no
+     * per-row counts; the same query keeps the old category and stock of the
+     * updated products for applyChunk.
+     */
+    private void commitChunk(Long jobId, ParsedChunk chunk, long recordsCommitted, long bytesRead, long failedSoFar) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<FeedRow> rows = chunk.rows();
+            long inserted = 0;
+            if (!rows.isEmpty()) {
+                Set<String> skus = new LinkedHashSet<>();
+                rows.forEach(row -> skus.add(row.sku()));
+                Map<String, Previous> existing = new HashMap<>();
+                jdbcTemplate.query("SELECT sku, category, stock FROM products WHERE sku IN ("
+                                + String.join(", ", Collections.nCopies(skus.size(), "?")) + ")",
+                        (RowCallbackHandler) rs -> existing.put(rs.getString(1),
+                                new Previous(rs.getString(2), rs.getInt(3))),
+                        skus.toArray());
+                inserted = skus.stream().filter(sku -> !existing.containsKey(sku)).count();
+
+                jdbcTemplate.batchUpdate(UPSERT, rows, rows.size(), (ps, row) -> {
+                    ps.setString(1, row.sku());
+                    ps.setString(2, row.name());
+                    setNullableString(ps, 3, row.description());
+                    ps.setString(4, row.category());
+                    setNullableString(ps, 5, row.brand());
+                    ps.setDouble(6, row.price());
+                    ps.setInt(7, row.stock());
+                    setNullableString(ps, 8, row.image());
+                    ps.setDouble(9, NEW_PRODUCT_RATING);
+                });
+                TransactionUtil.afterCommit(() -> applyChunk(skus, existing));
+            }
+
+            // Errors already counted before this chunk decide how many more are kept
+            long storedBefore = failedSoFar - chunk.errors().size();
+            long room = Math.max(0, maxErrors - storedBefore);
+            List<ProductImportError> errors = new ArrayList<>();
+            for (RowError error : chunk.errors()) {
+                if (errors.size() >= room) break;
+                errors.add(new ProductImportError(jobId, error.lineNumber(),
+                        truncate(error.sku(), 64), truncate(error.message(), 500)));
+            }
+            errorRepository.saveAll(errors);
+
+            jobRepository.recordProgress(jobId, recordsCommitted, bytesRead,
+                    inserted, rows.size() - inserted, chunk.errors().size());
+        });
+    }
+
+    /**
+     * Brings the derived state up to date with one committed chunk, the way
+     * AdminService does for a single product: only these products are
+     * evicted and re-indexed. A failure here is logged and left to the
+     * periodic dashboard reconciliation and the next rebuild, the chunk is
+     * committed either way.
+     */
+    private void applyChunk(Set<String> skus, Map<String, Previous> existing) {
+        try {
+            List<Product> products = productRepository.findBySkuIn(skus);
+            boolean listingsChanged = false;
+            for (Product product : products) {
+                Previous previous = existing.get(product.getSku());
+                if (previous == null) {
+                    dashboardStatsService.onProductAdded(product);
+                    productCacheService.evictProduct(product.getId(), product.getCategory());
+                    listingsChanged = true;
+                } else {
+                    dashboardStatsService.onProductUpdated(previous.category(), previous.stock(), product);
+                    productCacheService.evictProduct(product.getId(), previous.category(), product.getCategory());
+                    listingsChanged |= !Objects.equals(product.getCategory(), previous.category());
+                }
+                productSearchIndex.index(product);
+            }
+            productSuggestIndex.indexAll(products);
+            if (listingsChanged) {
+                // New rows and category moves change which ids the cached product queries return
+                productCacheService.evictProductQueries();
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to update product caches and indexes after an import chunk", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        runner.shutdownNow();
+        parsers.shutdownNow();
+    }
+
+    // ==================== HELPERS ====================
+
+    private long copyLimited(InputStream in, OutputStream out) throws IOException {
+        byte[] buffer = new byte[READ_BUFFER];
+        long total = 0;
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            total += read;
+            if (total > maxFileSize) {
+                throw new RuntimeException("Import file is larger than " + (maxFileSize / (1024 * 1024)) + " MB");
+            }
+            out.write(buffer, 0, read);
+        }
+        return total;
+    }
+
+    private static void setNullableString(PreparedStatement ps, int index, String value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.VARCHAR);
+        } else {
+            ps.setString(index, value);
+        }
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value == null || value.length() <= maxLength ? value : value.substring(0, maxLength);
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete {}", path);
+        }
+    }
+
+    private static String errorMessageOf(Exception e) {
+        String message = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        return truncate(message, 500);
+    }
+
+    // Bytes handed to the reader so far; ahead of the parsed position by at most one read buffer
+    private static final class CountingInputStream extends FilterInputStream {
+        private volatile long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) count++;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) count += n;
+            return n;
+        }
+
+        long getCount() {
+            return count;
+        }
+    }
+}
@@ -0,0 +1,279 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Product;
+import com.example.demo.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * In-process inverted index over product name, brand, category and description.
+ * Replaces the LIKE '%q%' scan behind product search: queries are answered from
+ * memory with relevance ranking, prefix matching (for search-as-you-type) and
+ * one/two-typo tolerance. AdminService keeps it in sync on product writes.
+ */
+@Service
+public class ProductSearchIndex {
+
+    private static final float NAME_WEIGHT = 3.0f;
+    private static final float BRAND_WEIGHT = 2.0f;
+    private static final float CATEGORY_WEIGHT = 1.5f;
+    private static final float DESCRIPTION_WEIGHT = 1.0f;
+
+    private static final float PREFIX_FACTOR = 0.8f;
+    private static final float FUZZY_FACTOR = 0.6f;
+    private static final int MAX_EXPANSIONS = 64;
+
+    private final ProductRepository productRepository;
+    private final EntityManager entityManager;
+
+    // Replaced wholesale by rebuild(); incremental updates mutate it under the write lock
+    private volatile Index index = new Index();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Serializes rebuilds; updates made while one is streaming are replayed onto the new index
+    private final Lock rebuildLock = new ReentrantLock();
+    private Map<Long, Product> updatesDuringRebuild;   // guarded by lock; null value = removed
+
+    private volatile boolean ready;
+
+    public ProductSearchIndex(ProductRepository productRepository, EntityManager entityManager) {
+        this.productRepository = productRepository;
+        this.entityManager = entityManager;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // ==================== INDEXING ====================
+
+    /**
+     * Streams the products table into a fresh index without holding the lock,
+     * so searches keep being served from the old one, then swaps it in.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            lock.writeLock().lock();
+            try {
+                updatesDuringRebuild = new LinkedHashMap<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            Index fresh = new Index();
+            try {
+                try (Stream<Product> products = productRepository.streamAll()) {
+                    products.forEach(product -> {
+                        entityManager.detach(product);
+                        fresh.add(product);
+                    });
+                }
+
+                lock.writeLock().lock();
+                try {
+                    updatesDuringRebuild.forEach((id, product) -> {
+                        fresh.remove(id);
+                        if (product != null) fresh.add(product);
+                    });
+                    index = fresh;
+                    ready = true;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            } finally {
+                lock.writeLock().lock();
+                try {
+                    updatesDuringRebuild = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    public void index(Product product) {
+        lock.writeLock().lock();
+        try {
+            index.remove(product.getId());
+            index.add(product);
+            if (updatesDuringRebuild != null) updatesDuringRebuild.put(product.getId(), product);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            index.remove(productId);
+            if (updatesDuringRebuild != null) updatesDuringRebuild.put(productId, null);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static final class Index {
+        // term -> (productId -> weighted term frequency), sorted so prefixes are a range scan
+        final NavigableMap<String, Map<Long, Float>> postings = new TreeMap<>();
+        // productId -> its terms, needed to remove a product's old postings
+        final Map<Long, Map<String, Float>> documents = new HashMap<>();
+
+        void add(Product product) {
+            Map<String, Float> terms = new HashMap<>();
+            addField(terms, product.getName(), NAME_WEIGHT);
+            addField(terms, product.getBrand(), BRAND_WEIGHT);
+            addField(terms, product.getCategory(), CATEGORY_WEIGHT);
+            addField(terms, product.getDescription(), DESCRIPTION_WEIGHT);
+
+            documents.put(product.getId(), terms);
+            terms.forEach((term, weight) ->
+                    postings.computeIfAbsent(term, t -> new HashMap<>()).put(product.getId(), weight));
+        }
+
+        void remove(Long productId) {
+            Map<String, Float> terms = documents.remove(productId);
+            if (terms == null) return;
+
+            for (String term : terms.keySet()) {
+                Map<Long, Float> posting = postings.get(term);
+                if (posting == null) continue;
+                posting.remove(productId);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    private static void addField(Map<String, Float> terms, String text, float weight) {
+        for (String token : tokenize(text)) {
+            terms.merge(token, weight, Float::sum);
+        }
+    }
+
+    // ==================== QUERYING ====================
+
+    /**
+     * Returns product ids ordered by relevance. Every query token may match a
+     * term exactly, as a prefix, or within a small edit distance; products that
+     * match more of the query tokens rank higher.
+     */
+    public List<Long> search(String query, int limit) {
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty()) return List.of();
+
+        lock.readLock().lock();
+        try {
+            Index index = this.index;
+            int documentCount = Math.max(1, index.documents.size());
+            Map<Long, Float> scores = new HashMap<>();
+            Map<Long, Integer> matchedTokens = new HashMap<>();
+
+            for (String token : tokens) {
+                Map<Long, Float> tokenScores = scoreToken(index.postings, token, documentCount);
+                tokenScores.forEach((id, score) -> {
+                    scores.merge(id, score, Float::sum);
+                    matchedTokens.merge(id, 1, Integer::sum);
+                });
+            }
+
+            // Coordination factor: favour products matching all query tokens
+            scores.replaceAll((id, score) -> score * matchedTokens.get(id) / tokens.size());
+
+            return scores.entrySet().stream()
+                    .sorted(Map.Entry.<Long, Float>comparingByValue().reversed()
+                            .thenComparing(Map.Entry.comparingByKey()))
+                    .limit(limit)
+                    .map(Map.Entry::getKey)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Best score per product for one query token across exact, prefix and fuzzy matches
+    private static Map<Long, Float> scoreToken(NavigableMap<String, Map<Long, Float>> postings,
+                                               String token, int documentCount) {
+        Map<Long, Float> best = new HashMap<>();
+
+        Map<Long, Float> exact = postings.get(token);
+        if (exact != null) {
+            accumulate(best, exact, idf(exact.size(), documentCount));
+        }
+
+        int expansions = 0;
+        for (Map.Entry<String, Map<Long, Float>> entry : postings.tailMap(token, false).entrySet()) {
+            if (!entry.getKey().startsWith(token) || expansions++ >= MAX_EXPANSIONS) break;
+            accumulate(best, entry.getValue(), idf(entry.getValue().size(), documentCount) * PREFIX_FACTOR);
+        }
+
+        int maxEdits = token.length() >= 8 ? 2 : token.length() >= 4 ? 1 : 0;
+        if (maxEdits > 0) {
+            // Typos rarely hit the first letter, so only that slice of the dictionary is scanned
+            String first = token.substring(0, 1);
+            String next = String.valueOf((char) (token.charAt(0) + 1));
+            for (Map.Entry<String, Map<Long, Float>> entry : postings.subMap(first, true, next, false).entrySet()) {
+                String term = entry.getKey();
+                if (term.equals(token) || Math.abs(term.length() - token.length()) > maxEdits) continue;
+                if (editDistance(token, term, maxEdits) <= maxEdits) {
+                    accumulate(best, entry.getValue(), idf(entry.getValue().size(), documentCount) * FUZZY_FACTOR);
+                }
+            }
+        }
+        return best;
+    }
+
+    private static void accumulate(Map<Long, Float> best, Map<Long, Float> posting, float factor) {
+        posting.forEach((id, weight) -> best.merge(id, weight * factor, Math::max));
+    }
+
+    private static float idf(int documentFrequency, int documentCount) {
+        return (float) Math.log(1.0 + (double) documentCount / documentFrequency);
+    }
+
+    // Levenshtein distance that gives up once every path exceeds maxEdits
+    static int editDistance(String a, String b, int maxEdits) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) previous[j] = j;
+
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > maxEdits) return maxEdits + 1;
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) return List.of();
+
+        List<String> tokens = new ArrayList<>();
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) tokens.add(token);
+        }
+        return tokens;
+    }
+}
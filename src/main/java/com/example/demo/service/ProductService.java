@@ -1,42 +1,150 @@
-
 package com.example.demo.service;
 
+import com.example.demo.dto.CursorPage;
+import com.example.demo.dto.ProductView;
+import com.example.demo.dto.SuggestionDTO;
 import com.example.demo.entity.Product;
 import com.example.demo.repository.ProductRepository;
-import com.example.demo.util.ImageUtil;
+import com.example.demo.util.CursorUtil;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class ProductService {
 
+    public static final int DEFAULT_PAGE_SIZE = 24;
+    public static final int MAX_PAGE_SIZE = 100;
+
     private final ProductRepository productRepository;
-    private final ImageUtil imageUtil;
+    private final ProductViewMapper productViewMapper;
+    private final EntityManager entityManager;
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductSuggestIndex productSuggestIndex;
+    private final ProductCacheService productCacheService;
+    private final int maxSearchResults;
 
-    public ProductService(ProductRepository productRepository, ImageUtil imageUtil) {
+    public ProductService(ProductRepository productRepository,
+                          ProductViewMapper productViewMapper,
+                          EntityManager entityManager,
+                          ProductSearchIndex productSearchIndex,
+                          ProductSuggestIndex productSuggestIndex,
+                          ProductCacheService productCacheService,
+                          @Value("${app.search.max-results:50}") int maxSearchResults) {
         this.productRepository = productRepository;
-        this.imageUtil = imageUtil;
+        this.productViewMapper = productViewMapper;
+        this.entityManager = entityManager;
+        this.productSearchIndex = productSearchIndex;
+        this.productSuggestIndex = productSuggestIndex;
+        this.productCacheService = productCacheService;
+        this.maxSearchResults = maxSearchResults;
     }
 
-    public List<Product> getAllProducts() {
-        return productRepository.findAll();
+    public ProductView getProductById(Long id) {
+        return productCacheService.getProduct(id, key -> productRepository.findById(key)
+                .map(productViewMapper::toView)
+                .orElseThrow(() -> new RuntimeException("Product not found")));
     }
 
-    public Product getProductById(Long id) {
-        return productRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Product not found"));
+    /**
+     * ✅ Relevance-ranked search served from the in-memory index; only the
+     * matching rows are loaded. Falls back to the LIKE query while the index
+     * is still warming up at startup.
+     */
+    public List<ProductView> searchProducts(String query) {
+        if (!productSearchIndex.isReady()) {
+            return productViewMapper.toViews(
+                    productRepository.findByNameContainingIgnoreCaseOrBrandContainingIgnoreCase(query, query));
+        }
+
+        List<Long> ids = productSearchIndex.search(query, maxSearchResults);
+        Map<Long, Product> products = productRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        return ids.stream()
+                .map(products::get)
+                .filter(Objects::nonNull)
+                .map(productViewMapper::toView)
+                .collect(Collectors.toList());
     }
 
-    public List<Product> getProductsByCategory(String category) {
-        return productRepository.findByCategory(category);
+    // ✅ Autocomplete from the in-memory sorted keys and their precomputed prefix tops, never touches the database
+    public List<SuggestionDTO> suggest(String prefix, Integer limit) {
+        int n = limit == null ? 8 : Math.max(1, Math.min(limit, ProductSuggestIndex.TOP_K));
+        return productSuggestIndex.suggest(prefix, n);
     }
 
-    public List<Product> searchProducts(String query) {
-        return productRepository.findByNameContainingIgnoreCaseOrBrandContainingIgnoreCase(query, query);
+    public List<ProductView> getFeaturedProducts() {
+        return productCacheService.getFeatured(
+                () -> productViewMapper.toViews(productRepository.findTop12ByOrderByIdDesc()));
     }
 
-    public List<Product> getFeaturedProducts() {
-        return productRepository.findTop12ByOrderByIdDesc();
+    /**
+     * ✅ Keyset page of products ordered by id, optionally within one category.
+     * Seeks on (id) or (category, id), so deep pages cost the same as page one.
+     */
+    public CursorPage<ProductView> getProductPage(String category, String cursor, Integer size) {
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        if (cursor == null || cursor.isEmpty()) {
+            // First pages are by far the most requested, so they are served from cache
+            return productCacheService.getFirstPage(category, pageSize, () -> loadProductPage(category, 0L, pageSize));
+        }
+
+        String[] position = CursorUtil.decode(cursor, 2);
+        if (!position[0].equals(category == null ? "" : category)) {
+            throw new RuntimeException("Invalid cursor");
+        }
+        return loadProductPage(category, parseId(position[1]), pageSize);
     }
-}
 
+    private CursorPage<ProductView> loadProductPage(String category, long afterId, int pageSize) {
+        // Fetch one extra row to know whether another page exists
+        PageRequest limit = PageRequest.ofSize(pageSize + 1);
+        List<Product> products = category == null
+                ? productRepository.findByIdGreaterThanOrderByIdAsc(afterId, limit)
+                : productRepository.findByCategoryAndIdGreaterThanOrderByIdAsc(category, afterId, limit);
+
+        String nextCursor = null;
+        if (products.size() > pageSize) {
+            products = products.subList(0, pageSize);
+            Long lastId = products.get(pageSize - 1).getId();
+            nextCursor = CursorUtil.encode(category == null ? "" : category, lastId);
+        }
+        return new CursorPage<>(productViewMapper.toViews(products), nextCursor);
+    }
+
+    /**
+     * ✅ Streams every product (or every product in a category) to the action
+     * one row at a time as views. Each entity is detached once mapped, so the
+     * persistence context stays empty no matter how large the catalog is.
+     */
+    @Transactional(readOnly = true)
+    public void forEachProduct(String category, Consumer<ProductView> action) {
+        try (Stream<Product> products = category == null
+                ? productRepository.streamAll()
+                : productRepository.streamByCategory(category)) {
+            products.forEach(product -> {
+                ProductView view = productViewMapper.toView(product);
+                entityManager.detach(product);
+                action.accept(view);
+            });
+        }
+    }
+
+    private static long parseId(String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Invalid cursor");
+        }
+    }
+}
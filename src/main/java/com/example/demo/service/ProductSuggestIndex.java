@@ -0,0 +1,663 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.SuggestionDTO;
+import com.example.demo.entity.Product;
+import com.example.demo.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Prefix index of product names and brands for search-as-you-type, answered
+ * from memory with no database access. Names are also reachable from each
+ * word they contain ("pro" finds "MacBook Pro"). Product completions are
+ * weighted by rating, brands by the summed rating of their products.
+ *
+ * Every key (a name or brand from one of its word starts) is an offset into
+ * the completion's normalized text, kept in one array sorted by key, so a
+ * prefix is a binary-searched range. Only prefixes of up to PRECOMPUTED_DEPTH
+ * characters, whose ranges can be large, keep their best completions; longer
+ * prefixes rank their short range per lookup.
+ *
+ * Readers never lock: they use a snapshot published through a volatile field.
+ * Writers (serialized on writeLock) apply each change as one copy-on-write
+ * batch of the key arrays, replace the affected precomputed tops, and swap in
+ * the new snapshot.
+ */
+@Service
+public class ProductSuggestIndex {
+
+    static final int TOP_K = 20;
+    static final int PRECOMPUTED_DEPTH = 3;
+    // Precomputed tops keep twice what a lookup returns, so most removals need no rescan
+    static final int STORED_TOP = 2 * TOP_K;
+    // Changes this large recompute every precomputed top instead of patching them
+    private static final int BULK_CHANGE = 2000;
+
+    private static final Completion[] NO_COMPLETIONS = new Completion[0];
+    private static final Comparator<Completion> BY_WEIGHT =
+            Comparator.comparingDouble((Completion c) -> c.weight).reversed()
+                    .thenComparing(c -> c.text);
+
+    private final ProductRepository productRepository;
+    private final EntityManager entityManager;
+
+    private volatile Snapshot snapshot = Snapshot.build(List.of());
+
+    private final Lock writeLock = new ReentrantLock();
+    // Serializes rebuilds; changes made while one is streaming are replayed onto the new state
+    private final Lock rebuildLock = new ReentrantLock();
+    private State state = new State();                          // guarded by writeLock
+    private List<Consumer<State>> changesDuringRebuild;         // guarded by writeLock
+
+    public ProductSuggestIndex(ProductRepository productRepository, EntityManager entityManager) {
+        this.productRepository = productRepository;
+        this.entityManager = entityManager;
+    }
+
+    // ==================== LOOKUP ====================
+
+    public List<SuggestionDTO> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty() || limit <= 0) return List.of();
+
+        Snapshot current = snapshot;
+        int k = Math.min(limit, TOP_K);
+        Completion[] top = key.length() <= PRECOMPUTED_DEPTH
+                ? current.tops.getOrDefault(key, Top.EMPTY).items()
+                : current.best(current.lowerBound(key), current.upperBound(key), k).items();
+
+        List<SuggestionDTO> suggestions = new ArrayList<>(Math.min(k, top.length));
+        for (int i = 0; i < top.length && suggestions.size() < k; i++) {
+            Completion c = top[i];
+            suggestions.add(new SuggestionDTO(c.text, c.type, c.productId));
+        }
+        return suggestions;
+    }
+
+    // ==================== UPDATES ====================
+
+    /**
+     * Streams the products table into a fresh index without blocking readers
+     * or incremental writers, then swaps it in.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            writeLock.lock();
+            try {
+                changesDuringRebuild = new ArrayList<>();
+            } finally {
+                writeLock.unlock();
+            }
+
+            try {
+                State fresh = new State();
+                try (Stream<Product> products = productRepository.streamAll()) {
+                    products.forEach(product -> {
+                        entityManager.detach(product);
+                        fresh.put(product, null);
+                    });
+                }
+                Snapshot freshSnapshot = Snapshot.build(fresh.completions());
+
+                writeLock.lock();
+                try {
+                    Change replayed = new Change();
+                    for (Consumer<State> change : changesDuringRebuild) {
+                        fresh.change = replayed;
+                        change.accept(fresh);
+                    }
+                    fresh.change = null;
+                    state = fresh;
+                    snapshot = freshSnapshot.apply(replayed);
+                } finally {
+                    writeLock.unlock();
+                }
+            } finally {
+                writeLock.lock();
+                try {
+                    changesDuringRebuild = null;
+                } finally {
+                    writeLock.unlock();
+                }
+            }
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    public void index(Product product) {
+        indexAll(List.of(product));
+    }
+
+    // One snapshot swap for the whole batch
+    public void indexAll(Collection<Product> products) {
+        if (products.isEmpty()) return;
+        update(s -> products.forEach(product -> s.put(product, s.change)));
+    }
+
+    public void remove(Long productId) {
+        update(s -> s.remove(productId, s.change));
+    }
+
+    // Re-weights a product (and its brand) after its rating aggregate changed
+    public void updateRating(Long productId, double rating) {
+        update(s -> s.setRating(productId, rating, s.change));
+    }
+
+    private void update(Consumer<State> change) {
+        writeLock.lock();
+        try {
+            state.change = new Change();
+            change.accept(state);
+            snapshot = snapshot.apply(state.change);
+            state.change = null;
+            if (changesDuringRebuild != null) changesDuringRebuild.add(change);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // ==================== HELPERS ====================
+
+    private static double weightOf(Product product) {
+        return product.getRating() != null ? product.getRating() : 0.0;
+    }
+
+    // Offsets of every word start of a normalized text: the full text plus each suffix after a space
+    static int[] keyStarts(String normalized) {
+        if (normalized.isEmpty()) return new int[0];
+        int count = 1;
+        for (int i = 1; i < normalized.length(); i++) {
+            if (normalized.charAt(i - 1) == ' ') count++;
+        }
+        int[] starts = new int[count];
+        for (int i = 1, n = 1; i < normalized.length(); i++) {
+            if (normalized.charAt(i - 1) == ' ') starts[n++] = i;
+        }
+        return starts;
+    }
+
+    static String normalize(String text) {
+        if (text == null) return "";
+        return text.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+    }
+
+    private static final class Completion {
+        final String text;
+        final String key;       // normalized text the sorted keys point into
+        final String type;
+        final Long productId;
+        final double weight;
+
+        Completion(String text, String type, Long productId, double weight) {
+            this.text = text;
+            this.key = normalize(text);
+            this.type = type;
+            this.productId = productId;
+            this.weight = weight;
+        }
+
+        Completion withWeight(double newWeight) {
+            return new Completion(text, type, productId, newWeight);
+        }
+    }
+
+    // Completions leaving and entering the index in one batch (by identity)
+    private static final class Change {
+        final Set<Completion> removed = Collections.newSetFromMap(new IdentityHashMap<>());
+        final Set<Completion> added = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        void add(Completion completion) {
+            added.add(completion);
+        }
+
+        void remove(Completion completion) {
+            if (!added.remove(completion)) removed.add(completion);
+        }
+
+        boolean isEmpty() {
+            return removed.isEmpty() && added.isEmpty();
+        }
+
+        int size() {
+            return removed.size() + added.size();
+        }
+    }
+
+    // ==================== WRITER STATE ====================
+
+    private static final class ProductEntry {
+        Completion name;        // null when the product has no name
+        final String brandKey;  // null when the product has no brand
+        double weight;
+
+        ProductEntry(Completion name, String brandKey, double weight) {
+            this.name = name;
+            this.brandKey = brandKey;
+            this.weight = weight;
+        }
+    }
+
+    private static final class Brand {
+        final String display;
+        double popularity;
+        int products;
+        Completion completion;
+
+        Brand(String display) {
+            this.display = display;
+        }
+
+        void adjust(double weightDelta, int productDelta, Change change) {
+            if (completion != null && change != null) change.remove(completion);
+            popularity = Math.max(0.0, popularity + weightDelta);
+            products += productDelta;
+            completion = products > 0 ? new Completion(display, "BRAND", null, popularity) : null;
+            if (completion != null && change != null) change.add(completion);
+        }
+    }
+
+    /**
+     * Which products and brands are indexed. Mutations report the completions
+     * they replace to the given Change (null while bulk loading).
+     */
+    private static final class State {
+        final Map<Long, ProductEntry> products = new HashMap<>();
+        final Map<String, Brand> brands = new HashMap<>();
+        Change change;
+
+        void put(Product product, Change change) {
+            remove(product.getId(), change);
+
+            double weight = weightOf(product);
+            Completion name = product.getName() == null || product.getName().isBlank() ? null
+                    : new Completion(product.getName().trim(), "PRODUCT", product.getId(), weight);
+            String brandKey = normalize(product.getBrand());
+            if (brandKey.isEmpty()) brandKey = null;
+
+            products.put(product.getId(), new ProductEntry(name, brandKey, weight));
+            if (name != null && change != null) change.add(name);
+            if (brandKey != null) {
+                brands.computeIfAbsent(brandKey, k -> new Brand(product.getBrand().trim()))
+                        .adjust(weight, 1, change);
+            }
+        }
+
+        void remove(Long productId, Change change) {
+            ProductEntry entry = products.remove(productId);
+            if (entry == null) return;
+
+            if (entry.name != null && change != null) change.remove(entry.name);
+            Brand brand = entry.brandKey != null ? brands.get(entry.brandKey) : null;
+            if (brand != null) {
+                brand.adjust(-entry.weight, -1, change);
+                if (brand.products == 0) brands.remove(entry.brandKey);
+            }
+        }
+
+        void setRating(Long productId, double rating, Change change) {
+            ProductEntry entry = products.get(productId);
+            if (entry == null || entry.weight == rating) return;
+
+            if (entry.name != null) {
+                change.remove(entry.name);
+                entry.name = entry.name.withWeight(rating);
+                change.add(entry.name);
+            }
+            Brand brand = entry.brandKey != null ? brands.get(entry.brandKey) : null;
+            if (brand != null) {
+                brand.adjust(rating - entry.weight, 0, change);
+            }
+            entry.weight = rating;
+        }
+
+        List<Completion> completions() {
+            List<Completion> all = new ArrayList<>(products.size() + brands.size());
+            for (ProductEntry entry : products.values()) {
+                if (entry.name != null) all.add(entry.name);
+            }
+            for (Brand brand : brands.values()) {
+                all.add(brand.completion);
+            }
+            return all;
+        }
+    }
+
+    // ==================== SNAPSHOT ====================
+
+    /**
+     * Best completions of one precomputed prefix, up to STORED_TOP of them.
+     * Unless complete, everything else under the prefix ranks below the last
+     * item, so the list can absorb a few removals before it needs a rescan.
+     */
+    private record Top(Completion[] items, boolean complete) {
+        static final Top EMPTY = new Top(NO_COMPLETIONS, true);
+    }
+
+    /**
+     * View served to readers. Key i is owners[i].key from offset starts[i];
+     * keys are sorted, so every prefix is a contiguous range. The key arrays
+     * are never modified once published.
+     */
+    private static final class Snapshot {
+
+        final Completion[] owners;
+        final int[] starts;
+        // Prefixes of up to PRECOMPUTED_DEPTH characters; each entry is swapped in place by the writer
+        final Map<String, Top> tops;
+
+        Snapshot(Completion[] owners, int[] starts, Map<String, Top> tops) {
+            this.owners = owners;
+            this.starts = starts;
+            this.tops = tops;
+        }
+
+        static Snapshot build(Collection<Completion> completions) {
+            Completion[] owners = new Completion[countKeys(completions)];
+            int[] starts = new int[owners.length];
+            fill(completions, owners, starts);
+            sortKeys(owners, starts);
+            return withAllTops(owners, starts);
+        }
+
+        private static Snapshot withAllTops(Completion[] owners, int[] starts) {
+            Snapshot built = new Snapshot(owners, starts, new ConcurrentHashMap<>());
+            for (int depth = 1; depth <= PRECOMPUTED_DEPTH; depth++) {
+                int i = 0;
+                while (i < owners.length) {
+                    if (built.keyLength(i) < depth) {
+                        i++;
+                        continue;
+                    }
+                    String prefix = owners[i].key.substring(starts[i], starts[i] + depth);
+                    int end = built.upperBound(prefix);
+                    built.tops.put(prefix, built.best(i, end, STORED_TOP));
+                    i = end;
+                }
+            }
+            return built;
+        }
+
+        Snapshot apply(Change change) {
+            if (change.isEmpty()) return this;
+
+            // Surviving keys, then the new keys merged in
+            Completion[] addedOwners = new Completion[countKeys(change.added)];
+            int[] addedStarts = new int[addedOwners.length];
+            fill(change.added, addedOwners, addedStarts);
+            sortKeys(addedOwners, addedStarts);
+
+            Set<Completion> removed = change.removed;
+            Completion[] mergedOwners = new Completion[owners.length + addedOwners.length];
+            int[] mergedStarts = new int[mergedOwners.length];
+            int n = change.size() >= BULK_CHANGE
+                    ? mergeAll(removed, addedOwners, addedStarts, mergedOwners, mergedStarts)
+                    : splice(removed, addedOwners, addedStarts, mergedOwners, mergedStarts);
+            mergedOwners = Arrays.copyOf(mergedOwners, n);
+            mergedStarts = Arrays.copyOf(mergedStarts, n);
+
+            // A bulk change touches most prefixes anyway
+            if (change.size() >= BULK_CHANGE) {
+                return withAllTops(mergedOwners, mergedStarts);
+            }
+
+            // Otherwise only the prefixes the change touches are recomputed, in place
+            Map<String, List<Completion>> addedByPrefix = shallowPrefixes(change.added);
+            Set<String> affected = new HashSet<>(addedByPrefix.keySet());
+            affected.addAll(shallowPrefixes(removed).keySet());
+
+            Snapshot merged = new Snapshot(mergedOwners, mergedStarts, tops);
+            for (String prefix : affected) {
+                Top top = mergeTop(tops.getOrDefault(prefix, Top.EMPTY), removed,
+                        addedByPrefix.getOrDefault(prefix, List.of()));
+                if (top == null) {
+                    top = merged.best(merged.lowerBound(prefix), merged.upperBound(prefix), STORED_TOP);
+                }
+                if (top.items().length == 0) {
+                    tops.remove(prefix);
+                } else {
+                    tops.put(prefix, top);
+                }
+            }
+            return merged;
+        }
+
+        // Full merge pass, checking every existing key against the removed set
+        private int mergeAll(Set<Completion> removed, Completion[] addedOwners, int[] addedStarts,
+                             Completion[] mergedOwners, int[] mergedStarts) {
+            int i = 0, j = 0, n = 0;
+            while (i < owners.length || j < addedOwners.length) {
+                if (i < owners.length && !removed.isEmpty() && removed.contains(owners[i])) {
+                    i++;
+                } else if (j >= addedOwners.length || (i < owners.length
+                        && compareKeys(owners[i], starts[i], addedOwners[j], addedStarts[j]) <= 0)) {
+                    mergedOwners[n] = owners[i];
+                    mergedStarts[n++] = starts[i++];
+                } else {
+                    mergedOwners[n] = addedOwners[j];
+                    mergedStarts[n++] = addedStarts[j++];
+                }
+            }
+            return n;
+        }
+
+        // Small change: binary-search the keys to drop and the insert points, copy the runs between them
+        private int splice(Set<Completion> removed, Completion[] addedOwners, int[] addedStarts,
+                           Completion[] mergedOwners, int[] mergedStarts) {
+            int[] deletions = new int[countKeys(removed)];
+            int d = 0;
+            for (Completion c : removed) {
+                for (int start : keyStarts(c.key)) {
+                    for (int i = keyLowerBound(c, start); i < owners.length
+                            && compareKeys(owners[i], starts[i], c, start) == 0; i++) {
+                        if (owners[i] == c && starts[i] == start) {
+                            deletions[d++] = i;
+                            break;
+                        }
+                    }
+                }
+            }
+            deletions = Arrays.copyOf(deletions, d);
+            Arrays.sort(deletions);
+
+            int cursor = 0, n = 0, di = 0, aj = 0;
+            while (true) {
+                int nextInsert = aj < addedOwners.length ? keyUpperBound(addedOwners[aj], addedStarts[aj]) : owners.length;
+                int nextDelete = di < deletions.length ? deletions[di] : owners.length;
+                int next = Math.min(nextInsert, nextDelete);
+                System.arraycopy(owners, cursor, mergedOwners, n, next - cursor);
+                System.arraycopy(starts, cursor, mergedStarts, n, next - cursor);
+                n += next - cursor;
+                cursor = next;
+                if (aj < addedOwners.length && nextInsert == next) {
+                    mergedOwners[n] = addedOwners[aj];
+                    mergedStarts[n++] = addedStarts[aj++];
+                } else if (di < deletions.length && nextDelete == next) {
+                    cursor++;
+                    di++;
+                } else {
+                    return n;
+                }
+            }
+        }
+
+        // First index whose key is >= the given key
+        private int keyLowerBound(Completion owner, int start) {
+            int low = 0, high = owners.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (compareKeys(owners[mid], starts[mid], owner, start) < 0) low = mid + 1; else high = mid;
+            }
+            return low;
+        }
+
+        // First index whose key is > the given key
+        private int keyUpperBound(Completion owner, int start) {
+            int low = 0, high = owners.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (compareKeys(owners[mid], starts[mid], owner, start) <= 0) low = mid + 1; else high = mid;
+            }
+            return low;
+        }
+
+        // First index whose key is >= prefix
+        int lowerBound(String prefix) {
+            int low = 0, high = owners.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (comparePrefix(mid, prefix) < 0) low = mid + 1; else high = mid;
+            }
+            return low;
+        }
+
+        // First index past the keys starting with prefix
+        int upperBound(String prefix) {
+            int low = 0, high = owners.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (comparePrefix(mid, prefix) <= 0) low = mid + 1; else high = mid;
+            }
+            return low;
+        }
+
+        // Key i against prefix: 0 when the key starts with it
+        private int comparePrefix(int i, String prefix) {
+            String key = owners[i].key;
+            int start = starts[i];
+            int length = Math.min(key.length() - start, prefix.length());
+            for (int c = 0; c < length; c++) {
+                int diff = key.charAt(start + c) - prefix.charAt(c);
+                if (diff != 0) return diff;
+            }
+            return key.length() - start >= prefix.length() ? 0 : -1;
+        }
+
+        private int keyLength(int i) {
+            return owners[i].key.length() - starts[i];
+        }
+
+        // The k best distinct completions among keys [from, to)
+        Top best(int from, int to, int k) {
+            PriorityQueue<Completion> worstFirst = new PriorityQueue<>(k + 1, BY_WEIGHT.reversed());
+            for (int i = from; i < to; i++) {
+                Completion c = owners[i];
+                if (worstFirst.size() == k && BY_WEIGHT.compare(c, worstFirst.peek()) >= 0) continue;
+                // A name can repeat a word start; such keys share one completion
+                if (contains(worstFirst, c)) continue;
+                worstFirst.add(c);
+                if (worstFirst.size() > k) worstFirst.poll();
+            }
+            Completion[] items = worstFirst.toArray(NO_COMPLETIONS);
+            Arrays.sort(items, BY_WEIGHT);
+            return new Top(items, to - from <= k);
+        }
+
+        private static boolean contains(Collection<Completion> completions, Completion completion) {
+            for (Completion c : completions) {
+                if (c == completion) return true;
+            }
+            return false;
+        }
+
+        /**
+         * The new top of a prefix from its previous top alone, or null when
+         * that is not enough and the prefix range must be rescanned. Added
+         * completions ranking below an incomplete top's last item are left out,
+         * since unseen completions may outrank them.
+         */
+        private static Top mergeTop(Top previous, Set<Completion> removed, List<Completion> added) {
+            Completion[] items = previous.items();
+            Completion floor = previous.complete() || items.length == 0 ? null : items[items.length - 1];
+
+            List<Completion> candidates = new ArrayList<>(items.length + added.size());
+            for (Completion c : items) {
+                if (!removed.contains(c)) candidates.add(c);
+            }
+            for (Completion c : added) {
+                if ((floor == null || BY_WEIGHT.compare(c, floor) < 0) && !contains(candidates, c)) {
+                    candidates.add(c);
+                }
+            }
+            if (floor != null && candidates.size() < TOP_K) return null;
+
+            candidates.sort(BY_WEIGHT);
+            boolean complete = previous.complete() && candidates.size() <= STORED_TOP;
+            return new Top(candidates.subList(0, Math.min(STORED_TOP, candidates.size())).toArray(NO_COMPLETIONS),
+                    complete);
+        }
+
+        // Precomputed prefixes each completion is reachable from (each completion listed once per prefix)
+        private static Map<String, List<Completion>> shallowPrefixes(Collection<Completion> completions) {
+            Map<String, List<Completion>> byPrefix = new HashMap<>();
+            for (Completion c : completions) {
+                Set<String> prefixes = new HashSet<>();
+                for (int start : keyStarts(c.key)) {
+                    for (int depth = 1; depth <= PRECOMPUTED_DEPTH && start + depth <= c.key.length(); depth++) {
+                        prefixes.add(c.key.substring(start, start + depth));
+                    }
+                }
+                prefixes.forEach(p -> byPrefix.computeIfAbsent(p, x -> new ArrayList<>()).add(c));
+            }
+            return byPrefix;
+        }
+
+        private static int countKeys(Collection<Completion> completions) {
+            int count = 0;
+            for (Completion c : completions) {
+                count += keyStarts(c.key).length;
+            }
+            return count;
+        }
+
+        private static void fill(Collection<Completion> completions, Completion[] owners, int[] starts) {
+            int n = 0;
+            for (Completion c : completions) {
+                for (int start : keyStarts(c.key)) {
+                    owners[n] = c;
+                    starts[n++] = start;
+                }
+            }
+        }
+
+        // Sorts both arrays by key without materializing the suffix strings
+        private static void sortKeys(Completion[] owners, int[] starts) {
+            Integer[] order = new Integer[owners.length];
+            for (int i = 0; i < order.length; i++) order[i] = i;
+            Arrays.sort(order, (a, b) -> compareKeys(owners[a], starts[a], owners[b], starts[b]));
+
+            Completion[] sortedOwners = new Completion[owners.length];
+            int[] sortedStarts = new int[starts.length];
+            for (int i = 0; i < order.length; i++) {
+                sortedOwners[i] = owners[order[i]];
+                sortedStarts[i] = starts[order[i]];
+            }
+            System.arraycopy(sortedOwners, 0, owners, 0, owners.length);
+            System.arraycopy(sortedStarts, 0, starts, 0, starts.length);
+        }
+
+        private static int compareKeys(Completion a, int startA, Completion b, int startB) {
+            String keyA = a.key, keyB = b.key;
+            int lengthA = keyA.length() - startA, lengthB = keyB.length() - startB;
+            int length = Math.min(lengthA, lengthB);
+            for (int c = 0; c < length; c++) {
+                int diff = keyA.charAt(startA + c) - keyB.charAt(startB + c);
+                if (diff != 0) return diff;
+            }
+            return lengthA - lengthB;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.CursorPage;
+import com.example.demo.dto.ProductView;
+import com.example.demo.entity.Product;
+import com.example.demo.util.BoundedCache;
+import com.example.demo.util.ImageUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Turns Product entities into ProductView records. The entity is only read,
+ * never modified, so mapping a managed instance cannot cause a flush. Image
+ * URLs depend on nothing but the stored image name, so they are built once
+ * per name and shared by every product version that uses it.
+ */
+@Service
+public class ProductViewMapper {
+
+    private final ImageUtil imageUtil;
+    private final BoundedCache<String, ImageUrls> imageUrls;
+
+    public ProductViewMapper(ImageUtil imageUtil,
+                             @Value("${app.cache.image-urls.max-size:20000}") int imageUrlsMaxSize) {
+        this.imageUtil = imageUtil;
+        this.imageUrls = new BoundedCache<>("imageUrls", imageUrlsMaxSize);
+    }
+
+    public ProductView toView(Product product) {
+        ImageUrls urls = urlsOf(product.getImage());
+        return new ProductView(
+                product.getId(),
+                product.getName(),
+                product.getDescription(),
+                product.getCategory(),
+                product.getBrand(),
+                product.getPrice(),
+                product.getRating(),
+                product.getRatingCount(),
+                product.getStock(),
+                urls.url(),
+                urls.variants(),
+                urls.srcset());
+    }
+
+    public List<ProductView> toViews(List<Product> products) {
+        return products.stream().map(this::toView).toList();
+    }
+
+    public CursorPage<ProductView> toViews(CursorPage<Product> page) {
+        return new CursorPage<>(toViews(page.getItems()), page.getNextCursor());
+    }
+
+    public Map<String, Object> stats() {
+        return imageUrls.stats();
+    }
+
+    private ImageUrls urlsOf(String image) {
+        if (image == null || image.isEmpty()) {
+            return ImageUrls.NONE;
+        }
+        return imageUrls.get(image, name -> new ImageUrls(
+                imageUtil.getFullImageUrl(name),
+                Collections.unmodifiableMap(imageUtil.getVariantUrls(name)),
+                imageUtil.getSrcset(name)));
+    }
+
+    private record ImageUrls(String url, Map<String, String> variants, String srcset) {
+        static final ImageUrls NONE = new ImageUrls("", Map.of(), null);
+    }
+}
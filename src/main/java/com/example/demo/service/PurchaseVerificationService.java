@@ -0,0 +1,141 @@
+package com.example.demo.service;
+
+import com.example.demo.repository.OrderItemRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Stream;
+
+/**
+ * Answers "has this user bought this product?" for review eligibility.
+ *
+ * The authoritative answer is an indexed EXISTS query. In front of it sits an
+ * optional Bloom filter of (user, product) purchase pairs: a miss there means
+ * "never bought" for certain and needs no query; a hit is confirmed against
+ * the database, since Bloom filters give false positives. Pairs are only ever
+ * added (orders are not deleted), so the filter never needs removals.
+ *
+ * The filter is warmed at startup and fed after each order commits. Both write
+ * into the same bit array, so orders placed while warming are not lost; until
+ * warming finishes every check goes to the database.
+ *
+ * The filter only sees orders placed through this instance, so it is off by
+ * default and must only be enabled when a single instance takes orders: with
+ * several, a purchase made on another node is a miss here and a valid review
+ * would be rejected. A hit can never skip the query, because of the false
+ * positives.
+ */
+@Service
+public class PurchaseVerificationService {
+
+    private static final Logger log = LoggerFactory.getLogger(PurchaseVerificationService.class);
+
+    private final OrderItemRepository orderItemRepository;
+    private final BloomFilter filter;
+    private volatile boolean ready;
+
+    public PurchaseVerificationService(OrderItemRepository orderItemRepository,
+                                       @Value("${app.purchase-filter.enabled:false}") boolean enabled,
+                                       @Value("${app.purchase-filter.expected-pairs:1000000}") long expectedPairs,
+                                       @Value("${app.purchase-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.orderItemRepository = orderItemRepository;
+        this.filter = enabled ? new BloomFilter(expectedPairs, falsePositiveRate) : null;
+    }
+
+    public boolean hasPurchased(Long userId, Long productId) {
+        if (filter != null && ready && !filter.mightContain(userId, productId)) {
+            return false;
+        }
+        return orderItemRepository.existsByOrder_User_IdAndProduct_Id(userId, productId);
+    }
+
+    // Call after the order has committed
+    public void recordPurchase(Long userId, Collection<Long> productIds) {
+        if (filter == null) return;
+        for (Long productId : productIds) {
+            filter.put(userId, productId);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void warmUp() {
+        if (filter == null) return;
+
+        long pairs = 0;
+        try (Stream<Object[]> purchases = orderItemRepository.streamPurchasePairs()) {
+            for (Object[] pair : (Iterable<Object[]>) purchases::iterator) {
+                filter.put((Long) pair[0], (Long) pair[1]);
+                pairs++;
+            }
+        }
+        ready = true;
+        log.info("Purchase filter warmed with {} order lines ({} bits, {} hashes)",
+                pairs, filter.bitCount(), filter.hashCount);
+    }
+
+    /**
+     * Fixed-size Bloom filter over (user id, product id) pairs. Bits live in an
+     * AtomicLongArray, so concurrent puts and reads need no lock.
+     */
+    static final class BloomFilter {
+        private final AtomicLongArray words;
+        private final long bitCount;
+        final int hashCount;
+
+        BloomFilter(long expectedInsertions, double falsePositiveRate) {
+            long n = Math.max(1, expectedInsertions);
+            long bits = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            int wordCount = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (bits + 63) / 64));
+            this.words = new AtomicLongArray(wordCount);
+            this.bitCount = (long) wordCount * 64;
+            this.hashCount = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+        }
+
+        void put(long userId, long productId) {
+            long hash = mix(userId * 0x9E3779B97F4A7C15L ^ productId);
+            long h1 = hash, h2 = mix(hash) | 1L;
+            for (int i = 0; i < hashCount; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bitCount);
+                long mask = 1L << bit;
+                int word = (int) (bit >>> 6);
+                if ((words.get(word) & mask) == 0) {
+                    words.getAndAccumulate(word, mask, (current, m) -> current | m);
+                }
+            }
+        }
+
+        boolean mightContain(long userId, long productId) {
+            long hash = mix(userId * 0x9E3779B97F4A7C15L ^ productId);
+            long h1 = hash, h2 = mix(hash) | 1L;
+            for (int i = 0; i < hashCount; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bitCount);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        long bitCount() {
+            return bitCount;
+        }
+
+        // 64-bit finalizer (MurmurHash3 fmix64)
+        private static long mix(long h) {
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            h *= 0xc4ceb93fe53e7bb5L;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+}
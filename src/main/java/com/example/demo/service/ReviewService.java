@@ -1,17 +1,32 @@
 
 package com.example.demo.service;
 
+import com.example.demo.dto.AuthenticatedUser;
+import com.example.demo.dto.CursorPage;
+import com.example.demo.dto.RatingDistributionDTO;
+import com.example.demo.dto.ReviewDTO;
 import com.example.demo.entity.Product;
 import com.example.demo.entity.Review;
+import com.example.demo.entity.ReviewHelpfulVote;
 import com.example.demo.entity.User;
-import com.example.demo.repository.OrderRepository;
 import com.example.demo.repository.ProductRepository;
+import com.example.demo.repository.ReviewHelpfulVoteRepository;
 import com.example.demo.repository.ReviewRepository;
 import com.example.demo.repository.UserRepository;
+import com.example.demo.util.BoundedCache;
+import com.example.demo.util.CursorUtil;
+import com.example.demo.util.TransactionUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class ReviewService {
@@ -19,35 +34,79 @@ public class ReviewService {
     private final ReviewRepository reviewRepository;
     private final UserRepository userRepository;
     private final ProductRepository productRepository;
-    private final OrderRepository orderRepository;
+    private final ReviewHelpfulVoteRepository reviewHelpfulVoteRepository;
+    private final PurchaseVerificationService purchaseVerificationService;
+    private final ProductCacheService productCacheService;
+    private final ProductSuggestIndex productSuggestIndex;
+    private final JdbcTemplate jdbcTemplate;
+    // productId -> "sort:size" -> first page of the feed
+    private final BoundedCache<Long, Map<String, CursorPage<ReviewDTO>>> firstPages;
+
+    private static final int DEFAULT_PAGE_SIZE = 10;
+    private static final int MAX_PAGE_SIZE = 50;
+    private static final List<String> SORTS = List.of("newest", "highest", "lowest", "helpful");
+    // Seek values that sort before every real row, so first pages use the same queries
+    private static final LocalDateTime NEWEST_SENTINEL = LocalDateTime.of(9999, 12, 31, 0, 0);
+
+    private static final int BACKFILL_CHUNK_SIZE = 1000;
+
+    // Applies one review change to the running aggregates in a single atomic statement. rating is
+    // assigned first because MySQL evaluates SET clauses left to right, so it must read the old
+    // sum/count plus the deltas. Plain JDBC rather than a JPQL bulk update, which would make
+    // Hibernate drop the whole Product and product-queries cache regions on every review;
+    // applyRatingChange evicts just this product instead.
+    private static final String RATING_DELTA_SQL =
+            "UPDATE products SET " +
+            "rating = CASE WHEN rating_count + ? > 0 THEN ROUND((rating_sum + ?) / (rating_count + ?), 1) ELSE rating END, " +
+            "rating_sum = rating_sum + ?, rating_count = rating_count + ?, " +
+            "star1 = star1 + ?, star2 = star2 + ?, star3 = star3 + ?, star4 = star4 + ?, star5 = star5 + ? " +
+            "WHERE id = ?";
+
+    // Recomputes the aggregates of one product id range from the reviews table
+    private static final String BACKFILL_SQL =
+            "UPDATE products p LEFT JOIN (" +
+            "  SELECT product_id, COUNT(*) AS c, SUM(rating) AS s, SUM(rating = 1) AS s1, SUM(rating = 2) AS s2," +
+            "         SUM(rating = 3) AS s3, SUM(rating = 4) AS s4, SUM(rating = 5) AS s5" +
+            "  FROM reviews WHERE product_id BETWEEN ? AND ? GROUP BY product_id" +
+            ") r ON r.product_id = p.id " +
+            "SET p.rating = CASE WHEN r.c > 0 THEN ROUND(r.s / r.c, 1) ELSE p.rating END," +
+            "    p.rating_count = COALESCE(r.c, 0), p.rating_sum = COALESCE(r.s, 0)," +
+            "    p.star1 = COALESCE(r.s1, 0), p.star2 = COALESCE(r.s2, 0), p.star3 = COALESCE(r.s3, 0)," +
+            "    p.star4 = COALESCE(r.s4, 0), p.star5 = COALESCE(r.s5, 0) " +
+            "WHERE p.id BETWEEN ? AND ?";
 
     public ReviewService(ReviewRepository reviewRepository,
                          UserRepository userRepository,
                          ProductRepository productRepository,
-                         OrderRepository orderRepository) {
+                         ReviewHelpfulVoteRepository reviewHelpfulVoteRepository,
+                         PurchaseVerificationService purchaseVerificationService,
+                         ProductCacheService productCacheService,
+                         ProductSuggestIndex productSuggestIndex,
+                         JdbcTemplate jdbcTemplate,
+                         @Value("${app.cache.review-pages.max-size:2000}") int reviewPagesMaxSize) {
         this.reviewRepository = reviewRepository;
         this.userRepository = userRepository;
         this.productRepository = productRepository;
-        this.orderRepository = orderRepository;
+        this.reviewHelpfulVoteRepository = reviewHelpfulVoteRepository;
+        this.purchaseVerificationService = purchaseVerificationService;
+        this.productCacheService = productCacheService;
+        this.productSuggestIndex = productSuggestIndex;
+        this.jdbcTemplate = jdbcTemplate;
+        this.firstPages = new BoundedCache<>("reviewFirstPages", reviewPagesMaxSize);
     }
 
     @Transactional
-    public Review addReview(String email, Long productId, int rating, String comment) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    public Review addReview(Long userId, Long productId, int rating, String comment) {
+        User user = userRepository.getReferenceById(userId);
 
         Product product = productRepository.findById(productId)
                 .orElseThrow(() -> new RuntimeException("Product not found"));
 
-        boolean hasPurchased = orderRepository.findByUserId(user.getId()).stream()
-                .anyMatch(order -> order.getItems().stream()
-                        .anyMatch(item -> item.getProduct().getId().equals(productId)));
-
-        if (!hasPurchased) {
+        if (!purchaseVerificationService.hasPurchased(userId, productId)) {
             throw new RuntimeException("You can only review products you have purchased");
         }
 
-        reviewRepository.findByUser_IdAndProduct_Id(user.getId(), productId)
+        reviewRepository.findByUser_IdAndProduct_Id(userId, productId)
                 .ifPresent(existingReview -> {
                     throw new RuntimeException("You have already reviewed this product");
                 });
@@ -59,64 +118,207 @@ public class ReviewService {
         Review review = new Review(rating, comment, user, product);
         Review savedReview = reviewRepository.save(review);
 
-        updateProductRating(productId);
+        applyRatingChange(product, null, rating);
+        evictFeedAfterCommit(productId);
         return savedReview;
     }
 
-    public List<Review> getReviewsByProduct(Long productId) {
-        return reviewRepository.findByProduct_Id(productId);
+    // ✅ Every review of a product in one query (reviewer name joined in SQL)
+    public List<ReviewDTO> getReviewsByProduct(Long productId) {
+        return reviewRepository.findFeedByProduct(productId);
     }
 
-    public List<Review> getReviewsByUser(String email) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        return reviewRepository.findByUser_Id(user.getId());
+    // ==================== REVIEW FEED ====================
+
+    /**
+     * ✅ Keyset-paged review feed sorted by newest, highest, lowest or helpful.
+     * The first page of each sort is cached per product until a review of that
+     * product changes.
+     */
+    public CursorPage<ReviewDTO> getReviewFeed(Long productId, String sort, String cursor, Integer size) {
+        String feedSort = sort == null || sort.isEmpty() ? "newest" : sort.toLowerCase();
+        if (!SORTS.contains(feedSort)) {
+            throw new RuntimeException("Unknown sort: " + sort);
+        }
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+        if (cursor == null || cursor.isEmpty()) {
+            Map<String, CursorPage<ReviewDTO>> pages = firstPages.get(productId, k -> new ConcurrentHashMap<>());
+            String pageKey = feedSort + ":" + pageSize;
+            CursorPage<ReviewDTO> page = pages.get(pageKey);
+            if (page == null) {
+                // Queried outside the map, never inside computeIfAbsent (see ProductCacheService.getFirstPage)
+                page = loadFeedPage(productId, feedSort, null, Long.MAX_VALUE, pageSize);
+                CursorPage<ReviewDTO> raced = pages.putIfAbsent(pageKey, page);
+                if (raced != null) page = raced;
+            }
+            return page;
+        }
+
+        String[] position = CursorUtil.decode(cursor, 3);
+        if (!position[0].equals(feedSort)) {
+            throw new RuntimeException("Invalid cursor");
+        }
+        try {
+            return loadFeedPage(productId, feedSort, position[1], Long.parseLong(position[2]), pageSize);
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new RuntimeException("Invalid cursor");
+        }
     }
 
-    private void updateProductRating(Long productId) {
-        List<Review> reviews = reviewRepository.findByProduct_Id(productId);
-        if (reviews.isEmpty()) return;
+    // seekValue == null means first page
+    private CursorPage<ReviewDTO> loadFeedPage(Long productId, String sort, String seekValue, long afterId, int pageSize) {
+        // Fetch one extra row to know whether another page exists
+        PageRequest limit = PageRequest.ofSize(pageSize + 1);
+        List<ReviewDTO> reviews;
+        switch (sort) {
+            case "highest":
+                reviews = reviewRepository.findFeedHighest(productId,
+                        seekValue == null ? 6 : Integer.parseInt(seekValue), afterId, limit);
+                break;
+            case "lowest":
+                reviews = reviewRepository.findFeedLowest(productId,
+                        seekValue == null ? 0 : Integer.parseInt(seekValue), afterId, limit);
+                break;
+            case "helpful":
+                reviews = reviewRepository.findFeedMostHelpful(productId,
+                        seekValue == null ? Integer.MAX_VALUE : Integer.parseInt(seekValue), afterId, limit);
+                break;
+            default:
+                reviews = reviewRepository.findFeedNewest(productId,
+                        seekValue == null ? NEWEST_SENTINEL : LocalDateTime.parse(seekValue), afterId, limit);
+        }
 
-        double avgRating = reviews.stream()
-                .mapToInt(Review::getRating)
-                .average()
-                .orElse(0.0);
+        String nextCursor = null;
+        if (reviews.size() > pageSize) {
+            reviews = reviews.subList(0, pageSize);
+            ReviewDTO last = reviews.get(pageSize - 1);
+            Object lastValue = switch (sort) {
+                case "highest", "lowest" -> last.getRating();
+                case "helpful" -> last.getHelpfulCount();
+                default -> last.getCreatedAt();
+            };
+            nextCursor = CursorUtil.encode(sort, lastValue, last.getId());
+        }
+        return new CursorPage<>(List.copyOf(reviews), nextCursor);
+    }
 
-        Product product = productRepository.findById(productId)
+    /**
+     * ✅ Marks a review as helpful, once per user. Returns the new count.
+     */
+    @Transactional
+    public int markHelpful(Long userId, Long reviewId) {
+        Review review = reviewRepository.findById(reviewId)
+                .orElseThrow(() -> new RuntimeException("Review not found"));
+        if (review.getUser().getId().equals(userId)) {
+            throw new RuntimeException("You cannot mark your own review as helpful");
+        }
+        if (reviewHelpfulVoteRepository.existsByReviewIdAndUserId(reviewId, userId)) {
+            throw new RuntimeException("You already marked this review as helpful");
+        }
+
+        // The unique key rejects a concurrent duplicate vote, rolling this transaction back
+        reviewHelpfulVoteRepository.saveAndFlush(new ReviewHelpfulVote(reviewId, userId));
+        reviewRepository.incrementHelpfulCount(reviewId);
+        evictFeedAfterCommit(review.getProduct().getId());
+        return reviewRepository.findHelpfulCountById(reviewId);
+    }
+
+    public Map<String, Object> cacheStats() {
+        return firstPages.stats();
+    }
+
+    private void evictFeedAfterCommit(Long productId) {
+        TransactionUtil.afterCommit(() -> firstPages.invalidate(productId));
+    }
+
+    public List<Review> getReviewsByUser(Long userId) {
+        return reviewRepository.findByUser_Id(userId);
+    }
+
+    // ✅ Served from the product's star histogram, no scan of the reviews table
+    public RatingDistributionDTO getRatingDistribution(Long productId) {
+        return productRepository.findRatingDistribution(productId)
                 .orElseThrow(() -> new RuntimeException("Product not found"));
+    }
 
-        product.setRating(Math.round(avgRating * 10.0) / 10.0);
-        productRepository.save(product);
+    /**
+     * ✅ O(1) per review write: shifts the product's running sum, count and
+     * star histogram by one review instead of re-averaging every review.
+     * Pass the rating being removed and/or the rating being added.
+     */
+    private void applyRatingChange(Product product, Integer removedRating, Integer addedRating) {
+        int[] stars = new int[6];
+        long sumDelta = 0;
+        int countDelta = 0;
+        if (removedRating != null) {
+            stars[removedRating]--;
+            sumDelta -= removedRating;
+            countDelta--;
+        }
+        if (addedRating != null) {
+            stars[addedRating]++;
+            sumDelta += addedRating;
+            countDelta++;
+        }
+
+        jdbcTemplate.update(RATING_DELTA_SQL, countDelta, sumDelta, countDelta, sumDelta, countDelta,
+                stars[1], stars[2], stars[3], stars[4], stars[5], product.getId());
+
+        Long productId = product.getId();
+        String category = product.getCategory();
+        // Read inside the transaction, so it includes this change; suggestions are weighted by it
+        Double rating = jdbcTemplate.queryForObject("SELECT rating FROM products WHERE id = ?", Double.class, productId);
+        TransactionUtil.afterCommit(() -> {
+            productCacheService.evictProduct(productId, category);
+            if (rating != null) {
+                productSuggestIndex.updateRating(productId, rating);
+            }
+        });
     }
 
-    @Transactional
-    public void deleteReview(String email, Long reviewId) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    /**
+     * ✅ One-off backfill of the rating aggregates from existing reviews. Runs in
+     * product id chunks, each its own statement and transaction, so no lock is
+     * held on the whole catalog. Returns the number of products updated.
+     */
+    public int backfillRatingAggregates() {
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM products", Long.class);
+        int updated = 0;
+        for (long from = 1; from <= maxId; from += BACKFILL_CHUNK_SIZE) {
+            long to = from + BACKFILL_CHUNK_SIZE - 1;
+            updated += jdbcTemplate.update(BACKFILL_SQL, from, to, from, to);
+        }
+        productCacheService.evictAll();
+        productSuggestIndex.rebuild();
+        return updated;
+    }
 
+    @Transactional
+    public void deleteReview(AuthenticatedUser user, Long reviewId) {
         Review review = reviewRepository.findById(reviewId)
                 .orElseThrow(() -> new RuntimeException("Review not found"));
 
-        if (!review.getUser().getId().equals(user.getId()) && !"ADMIN".equals(user.getRole())) {
+        if (!review.getUser().getId().equals(user.getId()) && !user.isAdmin()) {
             throw new RuntimeException("You can only delete your own reviews");
         }
 
-        Long productId = review.getProduct().getId();
+        Product product = review.getProduct();
+        int removedRating = review.getRating();
+        reviewHelpfulVoteRepository.deleteByReviewId(reviewId);
         reviewRepository.delete(review);
 
-        updateProductRating(productId);
+        applyRatingChange(product, removedRating, null);
+        evictFeedAfterCommit(product.getId());
     }
 
     // ✅ NEW METHOD (added safely, no existing code changed)
     @Transactional
-    public Review updateReview(String email, Long reviewId, String comment, Integer rating) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
+    public Review updateReview(AuthenticatedUser user, Long reviewId, String comment, Integer rating) {
         Review review = reviewRepository.findById(reviewId)
                 .orElseThrow(() -> new RuntimeException("Review not found"));
 
-        if (!review.getUser().getId().equals(user.getId()) && !"ADMIN".equals(user.getRole())) {
+        if (!review.getUser().getId().equals(user.getId()) && !user.isAdmin()) {
             throw new RuntimeException("You can only update your own reviews");
         }
 
@@ -128,13 +330,17 @@ public class ReviewService {
             throw new RuntimeException("Rating must be between 1 and 5");
         }
 
+        int previousRating = review.getRating();
         review.setComment(comment);
         if (rating != null) {
             review.setRating(rating);
         }
 
         Review updatedReview = reviewRepository.save(review);
-        updateProductRating(review.getProduct().getId());
+        if (rating != null && rating != previousRating) {
+            applyRatingChange(review.getProduct(), previousRating, rating);
+        }
+        evictFeedAfterCommit(review.getProduct().getId());
         return updatedReview;
     }
 }
@@ -0,0 +1,145 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Product;
+import com.example.demo.util.TransactionUtil;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Takes stock for checkouts without a read-check-write on Product.stock.
+ *
+ * Every decrement is a conditional UPDATE (stock = stock - qty WHERE
+ * stock >= qty), so two buyers of the last unit can never both succeed. A
+ * whole cart is decremented by one statement, inside the order's own
+ * transaction: a checkout uses a single pooled connection, and an order that
+ * fails rolls the decrement back with it, so there is no hold to expire.
+ */
+@Service
+public class StockReservationService {
+
+    private final DashboardStatsService dashboardStatsService;
+    private final ProductCacheService productCacheService;
+    private final JdbcTemplate jdbcTemplate;
+
+    public StockReservationService(DashboardStatsService dashboardStatsService,
+                                   ProductCacheService productCacheService,
+                                   JdbcTemplate jdbcTemplate) {
+        this.dashboardStatsService = dashboardStatsService;
+        this.productCacheService = productCacheService;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // ==================== CHECKOUT ====================
+
+    /**
+     * Decrements stock for every product as part of the caller's transaction.
+     * Throws if any product is short; the caller then rolls back, which undoes
+     * the lines that were taken.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void reserve(Map<Product, Integer> quantities) {
+        for (Map.Entry<Product, Integer> line : quantities.entrySet()) {
+            if (line.getValue() == null || line.getValue() <= 0) {
+                throw new RuntimeException("Invalid quantity for " + line.getKey().getName());
+            }
+        }
+
+        if (adjustStock(quantities, -1) != quantities.size()) {
+            // Only a failed checkout pays for the read that names the short lines
+            String shortage = shortageMessage(quantities);
+            throw new RuntimeException(shortage != null ? shortage : "Insufficient stock, please try again");
+        }
+    }
+
+    // ==================== RESTOCK ====================
+
+    /**
+     * Puts sold units back (cancellation, refund) with one atomic increment
+     * statement, as part of the caller's transaction.
+     */
+    @Transactional
+    public void restock(Map<Product, Integer> quantities) {
+        adjustStock(quantities, 1);
+    }
+
+    // ==================== BULK STOCK UPDATES ====================
+
+    /**
+     * Applies every line in a single UPDATE and returns the number of products
+     * changed. Decrements (direction -1) only touch rows that still have enough
+     * stock. Rows are locked in primary-key order, so concurrent carts cannot
+     * deadlock on each other.
+     */
+    private int adjustStock(Map<Product, Integer> quantities, int direction) {
+        if (quantities.isEmpty()) return 0;
+
+        List<Long> ids = new ArrayList<>(quantities.size());
+        List<Object> caseArgs = new ArrayList<>(quantities.size() * 2);
+        StringBuilder quantityCase = new StringBuilder("CASE id");
+        for (Map.Entry<Product, Integer> line : quantities.entrySet()) {
+            quantityCase.append(" WHEN ? THEN ?");
+            caseArgs.add(line.getKey().getId());
+            caseArgs.add(line.getValue());
+            ids.add(line.getKey().getId());
+        }
+        quantityCase.append(" END");
+        String idList = String.join(",", Collections.nCopies(ids.size(), "?"));
+
+        List<Object> args = new ArrayList<>(caseArgs);
+        String sql;
+        if (direction < 0) {
+            sql = "UPDATE products SET stock = stock - " + quantityCase + " WHERE id IN (" + idList + ")"
+                    + " AND stock >= " + quantityCase;
+            args.addAll(ids);
+            args.addAll(caseArgs);
+        } else {
+            sql = "UPDATE products SET stock = stock + " + quantityCase + " WHERE id IN (" + idList + ")";
+            args.addAll(ids);
+        }
+
+        int updated = jdbcTemplate.update(sql, args.toArray());
+        if (direction > 0 || updated == quantities.size()) {
+            publishStockChanges(quantities, direction);
+        }
+        return updated;
+    }
+
+    // Reads the stock the UPDATE produced and refreshes derived state once the change commits
+    private void publishStockChanges(Map<Product, Integer> quantities, int direction) {
+        Map<Long, Integer> stocks = currentStock(quantities.keySet());
+        for (Map.Entry<Product, Integer> line : quantities.entrySet()) {
+            Product product = line.getKey();
+            Integer newStock = stocks.get(product.getId());
+            if (newStock == null) continue;
+            int previousStock = newStock - direction * line.getValue();
+            TransactionUtil.afterCommit(() -> {
+                dashboardStatsService.onStockChanged(product, previousStock, newStock);
+                productCacheService.evictProduct(product.getId(), product.getCategory());
+            });
+        }
+    }
+
+    private Map<Long, Integer> currentStock(Collection<Product> products) {
+        List<Long> ids = products.stream().map(Product::getId).collect(Collectors.toList());
+        String idList = String.join(",", Collections.nCopies(ids.size(), "?"));
+        Map<Long, Integer> stocks = new HashMap<>();
+        jdbcTemplate.query("SELECT id, stock FROM products WHERE id IN (" + idList + ")",
+                rs -> { stocks.put(rs.getLong(1), rs.getInt(2)); }, ids.toArray());
+        return stocks;
+    }
+
+    // Names the lines that cannot be filled right now, or null if all of them can
+    private String shortageMessage(Map<Product, Integer> quantities) {
+        Map<Long, Integer> stocks = currentStock(quantities.keySet());
+        String shortNames = quantities.entrySet().stream()
+                .filter(line -> stocks.getOrDefault(line.getKey().getId(), 0) < line.getValue())
+                .map(line -> line.getKey().getName())
+                .collect(Collectors.joining(", "));
+        return shortNames.isEmpty() ? null : "Insufficient stock for " + shortNames;
+    }
+}
@@ -14,15 +14,15 @@ public class UserService {
         this.userRepository = userRepository;
     }
 
-    // ✅ Find user by email (same logic)
-    public User getUserByEmail(String email) {
-        return userRepository.findByEmail(email)
+    // ✅ Find user by id (taken from the verified token)
+    public User getUserById(Long id) {
+        return userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("User not found"));
     }
 
     // ✅ Update user profile (same logic)
-    public User updateProfile(String email, User updates) {
-        User user = getUserByEmail(email);
+    public User updateProfile(Long id, User updates) {
+        User user = getUserById(id);
         if (updates.getFirstName() != null) user.setFirstName(updates.getFirstName());
         if (updates.getLastName() != null) user.setLastName(updates.getLastName());
         if (updates.getPhone() != null) user.setPhone(updates.getPhone());
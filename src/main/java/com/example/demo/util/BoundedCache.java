@@ -0,0 +1,349 @@
+package com.example.demo.util;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Size-bounded in-process cache using a W-TinyLFU policy: new entries land in a
+ * small LRU window, and only enter the main segmented-LRU region if they have
+ * been requested more often than the entry they would evict (frequencies come
+ * from a compact count-min sketch that is periodically aged). This keeps
+ * one-off scans from flushing popular entries.
+ *
+ * Entries can optionally expire a fixed time after they were written; expired
+ * entries are dropped when they are next read (or evicted by size as usual).
+ *
+ * Hit, miss and eviction counts are recorded for sizing.
+ */
+public class BoundedCache<K, V> {
+
+    private final String name;
+    private final int maximumSize;
+    private final int windowMaximum;
+    private final int mainMaximum;
+    private final int protectedMaximum;
+    private final long expireAfterWriteNanos; // 0 = never expire
+    private final LongSupplier ticker;
+
+    // Access-ordered: iteration starts at the least recently used entry
+    private final LinkedHashMap<K, V> window = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<K, V> probation = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<K, V> protectedSegment = new LinkedHashMap<>(16, 0.75f, true);
+    private final FrequencySketch sketch;
+    // Write time per key, only kept when entries expire
+    private final Map<K, Long> writeTimes;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    // Bumped on every invalidation so loads that raced with it are not cached
+    private long generation;
+
+    public BoundedCache(String name, int maximumSize) {
+        this(name, maximumSize, null);
+    }
+
+    public BoundedCache(String name, int maximumSize, Duration expireAfterWrite) {
+        this(name, maximumSize, expireAfterWrite, System::nanoTime);
+    }
+
+    // Tests pass their own nanosecond clock
+    BoundedCache(String name, int maximumSize, Duration expireAfterWrite, LongSupplier ticker) {
+        this.name = name;
+        this.maximumSize = Math.max(1, maximumSize);
+        this.windowMaximum = Math.max(1, this.maximumSize / 100);
+        this.mainMaximum = this.maximumSize - windowMaximum;
+        this.protectedMaximum = mainMaximum * 4 / 5;
+        this.sketch = new FrequencySketch(this.maximumSize);
+        this.expireAfterWriteNanos = expireAfterWrite != null ? expireAfterWrite.toNanos() : 0L;
+        this.writeTimes = expireAfterWriteNanos > 0 ? new HashMap<>() : null;
+        this.ticker = ticker;
+    }
+
+    // ==================== READS ====================
+
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        V value = getIfPresent(key);
+        if (value != null) return value;
+
+        long loadGeneration;
+        lock.lock();
+        try {
+            loadGeneration = generation;
+        } finally {
+            lock.unlock();
+        }
+
+        // Loaded outside the lock so a slow loader never blocks other readers
+        value = loader.apply(key);
+        if (value != null) {
+            put(key, value, loadGeneration);
+        }
+        return value;
+    }
+
+    public V getIfPresent(K key) {
+        lock.lock();
+        try {
+            sketch.increment(key);
+
+            V value = window.get(key);
+            if (value == null) {
+                value = protectedSegment.get(key);
+            }
+            if (value == null) {
+                value = probation.remove(key);
+                if (value != null) {
+                    // Second hit while on probation: promote to the protected segment
+                    protectedSegment.put(key, value);
+                    demoteProtectedOverflow();
+                }
+            }
+
+            if (value != null && isExpired(key)) {
+                removeLocked(key);
+                value = null;
+            }
+
+            if (value != null) {
+                hits.increment();
+            } else {
+                misses.increment();
+            }
+            return value;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Membership check that neither counts as a request nor feeds the frequency sketch
+    public boolean containsKey(K key) {
+        lock.lock();
+        try {
+            return (window.containsKey(key) || probation.containsKey(key) || protectedSegment.containsKey(key))
+                    && !isExpired(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // ==================== WRITES ====================
+
+    public void put(K key, V value) {
+        lock.lock();
+        try {
+            putLocked(key, value);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void put(K key, V value, long loadGeneration) {
+        lock.lock();
+        try {
+            if (generation == loadGeneration) {
+                putLocked(key, value);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void invalidate(K key) {
+        lock.lock();
+        try {
+            generation++;
+            removeLocked(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void invalidateAll() {
+        lock.lock();
+        try {
+            generation++;
+            window.clear();
+            probation.clear();
+            protectedSegment.clear();
+            if (writeTimes != null) writeTimes.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void putLocked(K key, V value) {
+        if (writeTimes != null) {
+            writeTimes.put(key, ticker.getAsLong());
+        }
+        if (window.containsKey(key)) {
+            window.put(key, value);
+        } else if (probation.containsKey(key)) {
+            probation.put(key, value);
+        } else if (protectedSegment.containsKey(key)) {
+            protectedSegment.put(key, value);
+        } else {
+            window.put(key, value);
+            if (window.size() > windowMaximum) {
+                Map.Entry<K, V> candidate = pollEldest(window);
+                admit(candidate.getKey(), candidate.getValue());
+            }
+        }
+    }
+
+    // TinyLFU admission: the window's evictee must be more popular than main's victim
+    private void admit(K candidateKey, V candidateValue) {
+        if (probation.size() + protectedSegment.size() < mainMaximum) {
+            probation.put(candidateKey, candidateValue);
+            return;
+        }
+
+        LinkedHashMap<K, V> victimSegment = !probation.isEmpty() ? probation : protectedSegment;
+        if (victimSegment.isEmpty()) {
+            forget(candidateKey);
+            evictions.increment();
+            return;
+        }
+
+        K victimKey = victimSegment.keySet().iterator().next();
+        if (sketch.frequency(candidateKey) > sketch.frequency(victimKey)) {
+            victimSegment.remove(victimKey);
+            forget(victimKey);
+            probation.put(candidateKey, candidateValue);
+        } else {
+            forget(candidateKey);
+        }
+        evictions.increment();
+    }
+
+    private void removeLocked(K key) {
+        if (window.remove(key) == null && probation.remove(key) == null) {
+            protectedSegment.remove(key);
+        }
+        forget(key);
+    }
+
+    private void forget(K key) {
+        if (writeTimes != null) writeTimes.remove(key);
+    }
+
+    private boolean isExpired(K key) {
+        if (writeTimes == null) return false;
+        Long writtenAt = writeTimes.get(key);
+        return writtenAt == null || ticker.getAsLong() - writtenAt >= expireAfterWriteNanos;
+    }
+
+    private void demoteProtectedOverflow() {
+        while (protectedSegment.size() > protectedMaximum) {
+            Map.Entry<K, V> eldest = pollEldest(protectedSegment);
+            probation.put(eldest.getKey(), eldest.getValue());
+        }
+    }
+
+    private static <K, V> Map.Entry<K, V> pollEldest(LinkedHashMap<K, V> segment) {
+        Iterator<Map.Entry<K, V>> it = segment.entrySet().iterator();
+        Map.Entry<K, V> entry = it.next();
+        Map.Entry<K, V> eldest = new AbstractMap.SimpleImmutableEntry<>(entry.getKey(), entry.getValue());
+        it.remove();
+        return eldest;
+    }
+
+    // ==================== STATS ====================
+
+    public long estimatedSize() {
+        lock.lock();
+        try {
+            return window.size() + probation.size() + protectedSegment.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Map<String, Object> stats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long requests = hitCount + missCount;
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("name", name);
+        stats.put("size", estimatedSize());
+        stats.put("maximumSize", maximumSize);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRate", requests == 0 ? 0.0 : (double) hitCount / requests);
+        stats.put("evictions", evictions.sum());
+        return stats;
+    }
+
+    /**
+     * Count-min sketch of 4-bit-style saturating counters (capped at 15). All
+     * counters are halved once enough increments accumulate, so stale
+     * popularity decays.
+     */
+    static final class FrequencySketch {
+        private static final int DEPTH = 4;
+        private static final int MAX_COUNT = 15;
+        private static final int[] SEEDS = {0x97cb3127, 0x0ba6b8c7, 0x4a9d13ef, 0x5c6f0b3d};
+
+        private final int[][] table;
+        private final int mask;
+        private final int sampleSize;
+        private int additions;
+
+        FrequencySketch(int maximumSize) {
+            int width = Integer.highestOneBit(Math.max(16, maximumSize) - 1) << 1;
+            this.table = new int[DEPTH][width];
+            this.mask = width - 1;
+            this.sampleSize = 10 * width;
+        }
+
+        void increment(Object key) {
+            int hash = spread(key.hashCode());
+            boolean added = false;
+            for (int row = 0; row < DEPTH; row++) {
+                int index = indexOf(hash, row);
+                if (table[row][index] < MAX_COUNT) {
+                    table[row][index]++;
+                    added = true;
+                }
+            }
+            if (added && ++additions >= sampleSize) {
+                reset();
+            }
+        }
+
+        int frequency(Object key) {
+            int hash = spread(key.hashCode());
+            int frequency = MAX_COUNT;
+            for (int row = 0; row < DEPTH; row++) {
+                frequency = Math.min(frequency, table[row][indexOf(hash, row)]);
+            }
+            return frequency;
+        }
+
+        private void reset() {
+            for (int[] row : table) {
+                for (int i = 0; i < row.length; i++) {
+                    row[i] >>>= 1;
+                }
+            }
+            additions /= 2;
+        }
+
+        private int indexOf(int hash, int row) {
+            int h = (hash ^ SEEDS[row]) * 0x9e3779b9;
+            return (h ^ (h >>> 16)) & mask;
+        }
+
+        private static int spread(int hash) {
+            int h = hash * 0x85ebca6b;
+            return h ^ (h >>> 13);
+        }
+    }
+}
@@ -1,11 +1,28 @@
 package com.example.demo.util;
 
+import com.example.demo.service.ImageStorageService;
+import com.example.demo.service.ImageVariantService;
+import com.example.demo.service.ImageVariantService.Variant;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+
 @Component
 public class ImageUtil {
-    private static final String BASE_URL = "http://localhost:8080/images/";
-    
+    private final String legacyBaseUrl;
+    private final String mediaBaseUrl;
+
+    public ImageUtil(@Value("${app.base-url:http://localhost:8080}") String baseUrl,
+                     @Value("${app.image-path:/images/}") String imagePath,
+                     @Value("${app.media-path:/media/}") String mediaPath) {
+        String base = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.legacyBaseUrl = base + imagePath;
+        this.mediaBaseUrl = base + mediaPath;
+    }
+
     public String getFullImageUrl(String image) {
         if (image == null || image.isEmpty()) {
             return "";
@@ -14,7 +31,38 @@ public class ImageUtil {
         if (image.startsWith("http://") || image.startsWith("https://")) {
             return image;
         }
-        // Otherwise, add base URL
-        return BASE_URL + image;
+        // ✅ Content-hashed uploads are served (immutable) from the media endpoint
+        if (ImageStorageService.isStoredName(image)) {
+            return mediaBaseUrl + image;
+        }
+        // Otherwise, a bundled static image
+        return legacyBaseUrl + image;
+    }
+
+    /**
+     * URL per resized variant (thumbnail, card, detail), smallest first. Empty
+     * for images without variants (bundled images, formats we cannot resize).
+     */
+    public Map<String, String> getVariantUrls(String image) {
+        Map<String, String> urls = new LinkedHashMap<>();
+        if (!ImageVariantService.hasVariants(image)) {
+            return urls;
+        }
+        for (Variant variant : Variant.values()) {
+            urls.put(variant.getKey(), mediaBaseUrl + ImageVariantService.variantName(image, variant));
+        }
+        return urls;
+    }
+
+    /** "url 200w, url 400w, url 800w" for an img srcset, or null without variants. */
+    public String getSrcset(String image) {
+        if (!ImageVariantService.hasVariants(image)) {
+            return null;
+        }
+        StringJoiner srcset = new StringJoiner(", ");
+        for (Variant variant : Variant.values()) {
+            srcset.add(mediaBaseUrl + ImageVariantService.variantName(image, variant) + " " + variant.getWidth() + "w");
+        }
+        return srcset.toString();
     }
-}
\ No newline at end of file
+}
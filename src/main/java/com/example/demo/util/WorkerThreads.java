@@ -0,0 +1,35 @@
+package com.example.demo.util;
+
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public final class WorkerThreads {
+
+    private WorkerThreads() {}
+
+    /**
+     * Thread factory for the app's own executors. Follows the same switch as
+     * Tomcat and Spring's task executors: virtual threads when
+     * spring.threads.virtual.enabled is set and the runtime is Java 21+,
+     * daemon platform threads otherwise.
+     */
+    public static ThreadFactory factory(String namePrefix, Environment environment) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            return new VirtualThreadTaskExecutor(namePrefix).getVirtualThreadFactory();
+        }
+        return platform(namePrefix);
+    }
+
+    public static ThreadFactory platform(String namePrefix) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, namePrefix + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
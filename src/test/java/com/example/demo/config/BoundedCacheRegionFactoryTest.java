@@ -0,0 +1,111 @@
+package com.example.demo.config;
+
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.cfg.spi.DomainDataRegionConfig;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.cache.spi.support.StorageAccess;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Drives the region storage directly, as Hibernate's cache access strategies
+ * would. No EntityManager is involved, so entity and query-cache hits through
+ * Hibernate itself are not covered here.
+ */
+class BoundedCacheRegionFactoryTest {
+
+    private BoundedCacheRegionFactory factory;
+
+    @BeforeEach
+    void setUp() {
+        factory = new BoundedCacheRegionFactory();
+        factory.start(mock(SessionFactoryOptions.class), Map.of(
+                BoundedCacheRegionFactory.MAX_ENTRIES, "100",
+                BoundedCacheRegionFactory.QUERY_MAX_ENTRIES, " 10 "));
+    }
+
+    @AfterEach
+    void tearDown() {
+        factory.stop();
+    }
+
+    private DomainDataStorageAccess entityRegion(String name) {
+        DomainDataRegionConfig config = mock(DomainDataRegionConfig.class);
+        when(config.getRegionName()).thenReturn(name);
+        return factory.createDomainDataStorageAccess(config, null);
+    }
+
+    private Map<String, Object> statsOf(String name) {
+        return factory.stats().stream()
+                .filter(stats -> stats.get("name").equals(name))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    // ==================== REGIONS ====================
+
+    @Test
+    void entityRegionsAreBoundedByTheConfiguredSize() {
+        DomainDataStorageAccess products = entityRegion("com.example.demo.entity.Product");
+        for (long id = 0; id < 500; id++) {
+            products.putIntoCache(id, "row" + id, null);
+        }
+
+        Map<String, Object> stats = statsOf("l2:com.example.demo.entity.Product");
+        assertEquals(100L, stats.get("size"));
+        assertEquals(100, stats.get("maximumSize"));
+    }
+
+    @Test
+    void queryRegionsUseTheirOwnSize() {
+        StorageAccess queries = factory.createQueryResultsRegionStorageAccess("product-queries", null);
+        for (int i = 0; i < 50; i++) {
+            queries.putIntoCache("query" + i, List.of(i), null);
+        }
+
+        assertEquals(10L, statsOf("l2:product-queries").get("size"));
+    }
+
+    @Test
+    void evictingOneKeyLeavesTheRestOfTheRegion() {
+        DomainDataStorageAccess products = entityRegion("products");
+        products.putIntoCache(1L, "one", null);
+        products.putIntoCache(2L, "two", null);
+
+        products.evictData(1L);
+        assertFalse(products.contains(1L));
+        assertNull(products.getFromCache(1L, null));
+        assertEquals("two", products.getFromCache(2L, null));
+
+        products.evictData();
+        assertFalse(products.contains(2L));
+    }
+
+    @Test
+    void regionsWithTheSameNameShareStorage() {
+        entityRegion("products").putIntoCache(1L, "one", null);
+        assertEquals("one", entityRegion("products").getFromCache(1L, null));
+        assertNull(entityRegion("orders").getFromCache(1L, null));
+    }
+
+    @Test
+    void timestampsAreNeverEvictedBySize() {
+        StorageAccess timestamps = factory.createTimestampsRegionStorageAccess("default-update-timestamps-region", null);
+        for (int i = 0; i < 5_000; i++) {
+            timestamps.putIntoCache("table" + i, (long) i, null);
+        }
+
+        for (int i = 0; i < 5_000; i++) {
+            assertEquals((long) i, timestamps.getFromCache("table" + i, null));
+        }
+        assertTrue(factory.stats().stream().noneMatch(stats -> stats.get("name").toString().contains("timestamps")));
+    }
+}
@@ -0,0 +1,197 @@
+package com.example.demo.service;
+
+import com.example.demo.service.ProductFeedParser.FeedRow;
+import com.example.demo.service.ProductFeedParser.ParsedChunk;
+import com.example.demo.service.ProductFeedParser.RawRecord;
+import com.example.demo.service.ProductFeedParser.RecordReader;
+import com.example.demo.service.ProductFeedParser.RowError;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductFeedParserTest {
+
+    private static final String HEADER = "sku,name,description,category,brand,price,stock,image";
+
+    private static List<RawRecord> records(String feed, int maxRecordLength) throws IOException {
+        RecordReader reader = new RecordReader(new BufferedReader(new StringReader(feed)), true, maxRecordLength);
+        List<RawRecord> records = new ArrayList<>();
+        RawRecord record;
+        while ((record = reader.next()) != null) {
+            records.add(record);
+        }
+        return records;
+    }
+
+    private static ParsedChunk parse(String... lines) {
+        Map<String, Integer> header = ProductFeedParser.csvHeader(HEADER);
+        List<RawRecord> records = new ArrayList<>();
+        for (int i = 0; i < lines.length; i++) {
+            records.add(new RawRecord(i + 2, lines[i]));
+        }
+        return ProductFeedParser.parseCsv(records, header);
+    }
+
+    // ==================== SPLITTING ====================
+
+    @Test
+    void splitCsvHandlesQuotesAndEmptyFields() {
+        assertEquals(List.of("a", "b", "c"), ProductFeedParser.splitCsv("a,b,c"));
+        assertEquals(List.of("a", "", "c", ""), ProductFeedParser.splitCsv("a,,c,"));
+        assertEquals(List.of("x, y", "z"), ProductFeedParser.splitCsv("\"x, y\",z"));
+        assertEquals(List.of("12\" screen", ""), ProductFeedParser.splitCsv("\"12\"\" screen\","));
+        assertEquals(List.of("line one\nline two"), ProductFeedParser.splitCsv("\"line one\nline two\""));
+        assertEquals(List.of(""), ProductFeedParser.splitCsv(""));
+    }
+
+    @Test
+    void headerIsCaseInsensitiveAndRequiresTheKeyColumns() {
+        Map<String, Integer> columns = ProductFeedParser.csvHeader(" SKU ,Name,Category,Price,Extra");
+        assertEquals(0, columns.get("sku"));
+        assertEquals(3, columns.get("price"));
+
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> ProductFeedParser.csvHeader("sku,name"));
+        assertEquals("Missing required column(s): category, price", e.getMessage());
+    }
+
+    // ==================== VALIDATION ====================
+
+    @Test
+    void validRowsAreTrimmedAndDefaulted() {
+        ParsedChunk chunk = parse(" A-1 , Laptop ,, Computers ,,999.50,,");
+
+        assertTrue(chunk.errors().isEmpty());
+        FeedRow row = chunk.rows().get(0);
+        assertEquals(2, row.lineNumber());
+        assertEquals("A-1", row.sku());
+        assertEquals("Laptop", row.name());
+        assertNull(row.description());
+        assertNull(row.brand());
+        assertNull(row.image());
+        assertEquals(999.5, row.price());
+        assertEquals(0, row.stock());
+    }
+
+    @Test
+    void invalidRowsBecomeRowErrorsWithoutStoppingTheChunk() {
+        ParsedChunk chunk = parse(
+                ",Laptop,,Computers,,10,1,",
+                "B-2,Mouse,,Accessories,,abc,1,",
+                "B-3,Mouse,,Accessories,,-1,1,",
+                "B-4,Mouse,,Accessories,,NaN,1,",
+                "B-5,Mouse,,Accessories,,10,-3,",
+                "B-6,Mouse,,Accessories,,10,1.5,",
+                "B-7," + "x".repeat(256) + ",,Accessories,,10,1,",
+                "B-8,Keyboard,,Accessories,,25,4,");
+
+        assertEquals(1, chunk.rows().size());
+        assertEquals("B-8", chunk.rows().get(0).sku());
+
+        List<RowError> errors = chunk.errors();
+        assertEquals(7, errors.size());
+        assertEquals(new RowError(2, null, "Missing sku"), errors.get(0));
+        assertEquals(new RowError(3, "B-2", "Invalid price: abc"), errors.get(1));
+        assertEquals("Invalid price: -1", errors.get(2).message());
+        assertEquals("Invalid price: NaN", errors.get(3).message());
+        assertEquals("Invalid stock: -3", errors.get(4).message());
+        assertEquals("Invalid stock: 1.5", errors.get(5).message());
+        assertEquals("name is longer than 255 characters", errors.get(6).message());
+    }
+
+    @Test
+    void ndjsonRowsAreValidatedTheSameWay() {
+        List<RawRecord> records = List.of(
+                new RawRecord(1, "{\"sku\":\"N-1\",\"name\":\"Lamp\",\"category\":\"Home\",\"price\":12.5,\"stock\":3}"),
+                new RawRecord(2, "{\"sku\":\"N-2\",\"name\":\"Lamp\",\"category\":\"Home\"}"),
+                new RawRecord(3, "{\"sku\":\"N-3\",\"name\":{\"en\":\"Lamp\"},\"category\":\"Home\",\"price\":1}"),
+                new RawRecord(4, "[1, 2]"),
+                new RawRecord(5, "{not json"));
+
+        ParsedChunk chunk = ProductFeedParser.parseNdjson(records, new ObjectMapper());
+
+        assertEquals(1, chunk.rows().size());
+        assertEquals(3, chunk.rows().get(0).stock());
+        assertEquals(List.of(
+                new RowError(2, "N-2", "Missing price"),
+                new RowError(3, "N-3", "'name' must be a plain value"),
+                new RowError(4, null, "Expected a JSON object"),
+                new RowError(5, null, "Invalid JSON")), chunk.errors());
+    }
+
+    // ==================== RECORDS ====================
+
+    @Test
+    void quotedLineBreaksContinueTheRecord() throws IOException {
+        List<RawRecord> records = records("\uFEFF" + HEADER + "\n"
+                + "A-1,Laptop,\"Fast\nand light\",Computers,,999,1,\n"
+                + "\n"
+                + "A-2,Mouse,\"Says \"\"hi\"\"\r\n\r\nagain\",Accessories,,19,2,\n"
+                + "A-3,Pad,,Accessories,,5,3,", ProductFeedParser.MAX_RECORD_LENGTH);
+
+        assertEquals(4, records.size());
+        assertEquals(new RawRecord(1, HEADER), records.get(0));
+        assertEquals(new RawRecord(2, "A-1,Laptop,\"Fast\nand light\",Computers,,999,1,"), records.get(1));
+        // Blank lines inside quotes belong to the field, blank lines between records are skipped
+        assertEquals(5, records.get(2).lineNumber());
+        assertEquals("A-2,Mouse,\"Says \"\"hi\"\"\n\nagain\",Accessories,,19,2,", records.get(2).text());
+        assertEquals(new RawRecord(8, "A-3,Pad,,Accessories,,5,3,"), records.get(3));
+
+        ParsedChunk chunk = ProductFeedParser.parseCsv(records.subList(1, 4), ProductFeedParser.csvHeader(HEADER));
+        assertEquals("Fast\nand light", chunk.rows().get(0).description());
+        assertEquals("Says \"hi\"\n\nagain", chunk.rows().get(1).description());
+    }
+
+    @Test
+    void unclosedQuoteIsCappedAndOnlyItsFirstLineIsLost() throws IOException {
+        StringBuilder feed = new StringBuilder("B-1,12\" screen,,Monitors,,199,1,\n");
+        for (int i = 2; i <= 50; i++) {
+            feed.append("B-").append(i).append(",Cable,,Accessories,,5,1,\n");
+        }
+
+        List<RawRecord> records = records(feed.toString(), 200);
+
+        assertEquals(50, records.size());
+        RawRecord broken = records.get(0);
+        assertEquals(1, broken.lineNumber());
+        assertEquals("B-1,12\" screen,,Monitors,,199,1,", broken.text());
+        assertEquals("Unclosed quote: record is longer than 200 characters", broken.error());
+        for (int i = 1; i < 50; i++) {
+            assertNull(records.get(i).error());
+            assertEquals(i + 1, records.get(i).lineNumber());
+            assertEquals("B-" + (i + 1) + ",Cable,,Accessories,,5,1,", records.get(i).text());
+        }
+
+        ParsedChunk chunk = ProductFeedParser.parseCsv(records, ProductFeedParser.csvHeader(HEADER));
+        assertEquals(49, chunk.rows().size());
+        assertEquals(List.of(new RowError(1, "B-1", broken.error())), chunk.errors());
+    }
+
+    @Test
+    void unclosedQuoteAtEndOfFileIsAnError() throws IOException {
+        List<RawRecord> records = records("C-1,Desk,,Office,,80,1,\nC-2,\"Chair,,Office,,40,1,\nC-3,Lamp,,Office,,9,1,\n",
+                ProductFeedParser.MAX_RECORD_LENGTH);
+
+        assertEquals(3, records.size());
+        assertNull(records.get(0).error());
+        assertEquals(new RawRecord(2, "C-2,\"Chair,,Office,,40,1,", "Unclosed quote at end of file"), records.get(1));
+        assertEquals(new RawRecord(3, "C-3,Lamp,,Office,,9,1,"), records.get(2));
+    }
+
+    @Test
+    void chunksHoldAtMostTheRequestedRecords() throws IOException {
+        RecordReader reader = new RecordReader(new BufferedReader(new StringReader("a\nb\nc\n")), false);
+
+        assertEquals(2, reader.nextChunk(2).size());
+        assertEquals(List.of(new RawRecord(3, "c")), reader.nextChunk(2));
+        assertTrue(reader.nextChunk(2).isEmpty());
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Product;
+import com.example.demo.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProductSearchIndexTest {
+
+    private ProductRepository productRepository;
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        productRepository = mock(ProductRepository.class);
+        index = new ProductSearchIndex(productRepository, mock(EntityManager.class));
+    }
+
+    private static Product product(long id, String name, String brand, String category, String description) {
+        return new Product(id, name, description, category, brand, 10.0, 4.0, 5, null);
+    }
+
+    // ==================== TOKENIZING ====================
+
+    @Test
+    void tokenizeLowercasesAndSplitsOnNonAlphanumerics() {
+        assertEquals(List.of("usb", "c", "charger", "65w"), ProductSearchIndex.tokenize("USB-C  Charger (65W)!"));
+        assertEquals(List.of("café", "crème"), ProductSearchIndex.tokenize("Café/Crème"));
+        assertEquals(List.of(), ProductSearchIndex.tokenize("  -- "));
+        assertEquals(List.of(), ProductSearchIndex.tokenize(null));
+    }
+
+    @Test
+    void editDistanceCountsEditsAndStopsPastTheLimit() {
+        assertEquals(0, ProductSearchIndex.editDistance("laptop", "laptop", 2));
+        assertEquals(1, ProductSearchIndex.editDistance("laptop", "laptops", 2));
+        assertEquals(1, ProductSearchIndex.editDistance("laptop", "leptop", 2));
+        assertEquals(2, ProductSearchIndex.editDistance("headphones", "haedphones", 2));
+        // Anything beyond the limit is reported as limit + 1
+        assertEquals(2, ProductSearchIndex.editDistance("keyboard", "mouse", 1));
+    }
+
+    // ==================== RANKING ====================
+
+    @Test
+    void nameMatchesOutrankDescriptionMatches() {
+        index.index(product(1, "Basic Mouse", "Acme", "Accessories", "Pairs well with any laptop"));
+        index.index(product(2, "Laptop Stand", "Acme", "Accessories", "Aluminium"));
+
+        assertEquals(List.of(2L, 1L), index.search("laptop", 10));
+    }
+
+    @Test
+    void productsMatchingEveryTokenRankFirst() {
+        index.index(product(1, "Gaming Mouse", "Zeta", "Accessories", null));
+        index.index(product(2, "Wireless Keyboard", "Zeta", "Accessories", null));
+        index.index(product(3, "Wireless Mouse", "Zeta", "Accessories", null));
+
+        assertEquals(3L, index.search("wireless mouse", 10).get(0));
+    }
+
+    @Test
+    void matchesPrefixesAndTypos() {
+        index.index(product(1, "Headphones", "Sonic", "Audio", null));
+
+        assertEquals(List.of(1L), index.search("headph", 10));
+        assertEquals(List.of(1L), index.search("haedphones", 10));
+        // Three-letter tokens get no typo tolerance
+        assertEquals(List.of(), index.search("xyz", 10));
+    }
+
+    @Test
+    void reindexingReplacesTheOldTerms() {
+        index.index(product(1, "Desk Lamp", "Lumo", "Lighting", null));
+        index.index(product(1, "Floor Lamp", "Lumo", "Lighting", null));
+
+        assertEquals(List.of(), index.search("desk", 10));
+        assertEquals(List.of(1L), index.search("floor", 10));
+
+        index.remove(1L);
+        assertEquals(List.of(), index.search("lamp", 10));
+    }
+
+    // ==================== REBUILD ====================
+
+    @Test
+    void rebuildReplacesTheIndexAndKeepsUpdatesMadeWhileStreaming() throws Exception {
+        index.index(product(9, "Stale Product", "Old", "Misc", null));
+
+        CountDownLatch streaming = new CountDownLatch(1);
+        CountDownLatch updated = new CountDownLatch(1);
+        when(productRepository.streamAll()).thenReturn(Stream.of(
+                product(1, "Table", "Oak", "Furniture", null),
+                product(2, "Chair", "Oak", "Furniture", null)
+        ).peek(p -> {
+            if (p.getId() == 2L) {
+                streaming.countDown();
+                await(updated);
+            }
+        }));
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> rebuild = executor.submit(index::rebuild);
+            assertTrue(streaming.await(5, TimeUnit.SECONDS));
+
+            // Searches are served from the old index while the table is streamed
+            assertEquals(List.of(9L), index.search("stale", 10));
+            index.index(product(1, "Standing Table", "Oak", "Furniture", null));
+            index.index(product(3, "Bench", "Oak", "Furniture", null));
+            updated.countDown();
+            rebuild.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertTrue(index.isReady());
+        assertEquals(List.of(), index.search("stale", 10));
+        assertEquals(List.of(1L), index.search("standing", 10));
+        assertEquals(List.of(3L), index.search("bench", 10));
+        assertEquals(List.of(2L), index.search("chair", 10));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            throw new AssertionError(e);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.ProductView;
+import com.example.demo.entity.Product;
+import com.example.demo.repository.ProductRepository;
+import com.example.demo.util.ImageUtil;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Repeated reads against ProductService's own caches (ProductCacheService).
+ * The repository is a mock, so this does not show Hibernate second-level or
+ * query-cache hits; those need a real EntityManager and are not covered here.
+ */
+class ProductServiceTest {
+
+    private ProductRepository productRepository;
+    private Cache secondLevelCache;
+    private ProductCacheService productCacheService;
+    private ProductService productService;
+
+    private final Product laptop = new Product(1L, "Laptop", null, "Computers", "Acme", 999.0, 4.5, 3, null);
+    private final Product mouse = new Product(2L, "Mouse", null, "Accessories", "Acme", 19.0, 4.0, 40, null);
+
+    @BeforeEach
+    void setUp() {
+        productRepository = mock(ProductRepository.class);
+        secondLevelCache = mock(Cache.class);
+        EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+        when(entityManagerFactory.getCache()).thenReturn(secondLevelCache);
+
+        EntityManager entityManager = mock(EntityManager.class);
+        productCacheService = new ProductCacheService(entityManagerFactory, 100, 100);
+        productService = new ProductService(productRepository,
+                new ProductViewMapper(new ImageUtil("http://localhost:8080", "/images/", "/media/"), 100),
+                entityManager,
+                new ProductSearchIndex(productRepository, entityManager),
+                new ProductSuggestIndex(productRepository, entityManager),
+                productCacheService,
+                50);
+
+        when(productRepository.findById(1L)).thenReturn(Optional.of(laptop));
+        when(productRepository.findById(2L)).thenReturn(Optional.of(mouse));
+    }
+
+    // ==================== CACHED READS ====================
+
+    @Test
+    void repeatedProductReadsQueryTheDatabaseOnce() {
+        ProductView first = productService.getProductById(1L);
+        ProductView second = productService.getProductById(1L);
+
+        assertEquals("Laptop", first.name());
+        assertSame(first, second);
+        verify(productRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void repeatedListingReadsQueryTheDatabaseOnce() {
+        when(productRepository.findTop12ByOrderByIdDesc()).thenReturn(List.of(mouse, laptop));
+        when(productRepository.findByCategoryAndIdGreaterThanOrderByIdAsc("Computers", 0L, PageRequest.ofSize(21)))
+                .thenReturn(List.of(laptop));
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(2, productService.getFeaturedProducts().size());
+            assertEquals(1, productService.getProductPage("Computers", null, 20).getItems().size());
+        }
+
+        verify(productRepository, times(1)).findTop12ByOrderByIdDesc();
+        verify(productRepository, times(1))
+                .findByCategoryAndIdGreaterThanOrderByIdAsc("Computers", 0L, PageRequest.ofSize(21));
+    }
+
+    // ==================== EVICTION ====================
+
+    @Test
+    void evictingAProductReloadsOnlyThatProduct() {
+        productService.getProductById(1L);
+        productService.getProductById(2L);
+
+        productCacheService.evictProduct(1L, "Computers");
+        productService.getProductById(1L);
+        productService.getProductById(2L);
+
+        verify(productRepository, times(2)).findById(1L);
+        verify(productRepository, times(1)).findById(2L);
+        // Only this product's second-level entry goes, never the whole region
+        verify(secondLevelCache).evict(Product.class, 1L);
+        verify(secondLevelCache, never()).evict(Product.class);
+    }
+}
@@ -0,0 +1,272 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.SuggestionDTO;
+import com.example.demo.entity.Product;
+import com.example.demo.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProductSuggestIndexTest {
+
+    private ProductRepository productRepository;
+    private ProductSuggestIndex index;
+
+    @BeforeEach
+    void setUp() {
+        productRepository = mock(ProductRepository.class);
+        index = new ProductSuggestIndex(productRepository, mock(EntityManager.class));
+    }
+
+    private static Product product(long id, String name, String brand, double rating) {
+        return new Product(id, name, null, "Misc", brand, 10.0, rating, 5, null);
+    }
+
+    private List<String> texts(String prefix) {
+        return index.suggest(prefix, 10).stream().map(SuggestionDTO::getText).toList();
+    }
+
+    // ==================== KEYS ====================
+
+    @Test
+    void keyStartsAreTheFullTextAndEveryWordStart() {
+        assertArrayEquals(new int[]{0, 8, 12}, ProductSuggestIndex.keyStarts("macbook pro 14"));
+        assertArrayEquals(new int[]{0}, ProductSuggestIndex.keyStarts("tv"));
+        assertArrayEquals(new int[0], ProductSuggestIndex.keyStarts(""));
+    }
+
+    @Test
+    void normalizeLowercasesTrimsAndCollapsesWhitespace() {
+        assertEquals("macbook pro", ProductSuggestIndex.normalize("  MacBook \t Pro "));
+        assertEquals("", ProductSuggestIndex.normalize(null));
+    }
+
+    // ==================== LOOKUP ====================
+
+    @Test
+    void findsNamesFromAnyWordAndRanksByRating() {
+        index.index(product(1, "MacBook Pro", "Apple", 4.8));
+        index.index(product(2, "ProBook 450", "HP", 4.1));
+        index.index(product(3, "Surface Pro", "Microsoft", 4.5));
+
+        assertEquals(List.of("MacBook Pro", "Surface Pro", "ProBook 450"), texts("pro"));
+        assertEquals(List.of("MacBook Pro"), texts("macbook p"));
+        assertEquals(List.of(), texts("xyz"));
+        assertEquals(List.of(), texts("   "));
+    }
+
+    @Test
+    void deepAndShallowPrefixesReturnTheSameRanking() {
+        for (int i = 1; i <= 30; i++) {
+            index.index(product(i, "Widget " + i, null, i / 10.0));
+        }
+
+        List<String> shallow = texts("wid");
+        List<String> deep = texts("widget");
+        assertEquals(10, shallow.size());
+        assertEquals(shallow, deep);
+        assertEquals("Widget 30", deep.get(0));
+        assertEquals(ProductSuggestIndex.TOP_K, index.suggest("widg", 100).size());
+    }
+
+    @Test
+    void brandsAreWeightedByTheSummedRatingOfTheirProducts() {
+        index.index(product(1, "Laptop", "Acme", 3.0));
+        index.index(product(2, "Tablet", "Acme", 3.0));
+        index.index(product(3, "Phone", "Acorn", 5.0));
+
+        List<SuggestionDTO> suggestions = index.suggest("ac", 10);
+        assertEquals(List.of("Acme", "Acorn"), suggestions.stream().map(SuggestionDTO::getText).toList());
+        assertEquals("BRAND", suggestions.get(0).getType());
+        assertNull(suggestions.get(0).getProductId());
+    }
+
+    // ==================== INCREMENTAL UPDATES ====================
+
+    @Test
+    void reindexingMovesAProductToItsNewKeys() {
+        index.index(product(1, "Desk Lamp", "Lumo", 4.0));
+        index.index(product(1, "Floor Lamp", "Lumo", 4.0));
+
+        assertEquals(List.of(), texts("desk"));
+        assertEquals(List.of("Floor Lamp"), texts("flo"));
+        assertEquals(List.of("Floor Lamp"), texts("lamp"));
+    }
+
+    @Test
+    void removingTheLastProductOfABrandRemovesTheBrand() {
+        index.index(product(1, "Kettle", "Brewco", 4.0));
+        index.index(product(2, "Toaster", "Brewco", 4.0));
+
+        index.remove(1L);
+        assertEquals(List.of("Brewco"), texts("brew"));
+        assertEquals(List.of(), texts("kettle"));
+
+        index.remove(2L);
+        assertEquals(List.of(), texts("brew"));
+        assertEquals(List.of(), texts("t"));
+    }
+
+    @Test
+    void ratingChangesReorderCompletions() {
+        index.index(product(1, "Alpha Speaker", null, 4.0));
+        index.index(product(2, "Alpha Headset", null, 3.0));
+        assertEquals(List.of("Alpha Speaker", "Alpha Headset"), texts("alpha"));
+        assertEquals(List.of("Alpha Speaker", "Alpha Headset"), texts("a"));
+
+        index.updateRating(2L, 5.0);
+        assertEquals(List.of("Alpha Headset", "Alpha Speaker"), texts("alpha"));
+        assertEquals(List.of("Alpha Headset", "Alpha Speaker"), texts("a"));
+
+    }
+
+    @Test
+    void demotingTopMembersRescansOnceTheSlackIsUsedUp() {
+        Map<Long, Product> catalog = new HashMap<>();
+        int count = 2 * ProductSuggestIndex.STORED_TOP + 10;
+        for (long id = 1; id <= count; id++) {
+            Product product = product(id, "Amp " + id, null, id / 10.0);
+            catalog.put(id, product);
+            index.index(product);
+        }
+
+        // Best first: each demoted product drops below every other one, through two rescans
+        for (long id = count; id > count - 2 * ProductSuggestIndex.STORED_TOP; id--) {
+            catalog.get(id).setRating(0.0);
+            index.updateRating(id, 0.0);
+
+            List<String> actual = index.suggest("a", ProductSuggestIndex.TOP_K).stream()
+                    .map(SuggestionDTO::getText).toList();
+            assertEquals(bruteForce(catalog.values(), "a"), actual, "after demoting " + id);
+        }
+    }
+
+    @Test
+    void incrementalUpdatesMatchABruteForceRanking() {
+        String[] words = {"alpha", "amp", "arc", "beta", "max", "mini"};
+        Random random = new Random(7);
+        Map<Long, Product> catalog = new HashMap<>();
+
+        for (int step = 0; step < 3000; step++) {
+            long id = 1 + random.nextInt(80);
+            int action = random.nextInt(10);
+            if (action < 6) {
+                String name = words[random.nextInt(words.length)] + " " + words[random.nextInt(words.length)] + " " + id;
+                Product product = product(id, name, null, random.nextInt(50) / 10.0);
+                catalog.put(id, product);
+                index.index(product);
+            } else if (action < 9) {
+                double rating = random.nextInt(50) / 10.0;
+                if (catalog.containsKey(id)) catalog.get(id).setRating(rating);
+                index.updateRating(id, rating);
+            } else {
+                catalog.remove(id);
+                index.remove(id);
+            }
+
+            if (step % 10 == 0) {
+                for (String prefix : List.of("a", "al", "amp", "b", "m", "mi", "pro", "alpha a", "max m")) {
+                    List<String> actual = index.suggest(prefix, ProductSuggestIndex.TOP_K).stream()
+                            .map(SuggestionDTO::getText).toList();
+                    assertEquals(bruteForce(catalog.values(), prefix), actual, prefix + " at step " + step);
+                }
+            }
+        }
+    }
+
+    private static List<String> bruteForce(Collection<Product> products, String prefix) {
+        return products.stream()
+                .filter(p -> {
+                    String name = ProductSuggestIndex.normalize(p.getName());
+                    for (int start : ProductSuggestIndex.keyStarts(name)) {
+                        if (name.startsWith(prefix, start)) return true;
+                    }
+                    return false;
+                })
+                .sorted(Comparator.comparingDouble(Product::getRating).reversed().thenComparing(Product::getName))
+                .limit(ProductSuggestIndex.TOP_K)
+                .map(Product::getName)
+                .toList();
+    }
+
+    @Test
+    void batchUpdatesMatchOneByOneUpdates() {
+        List<Product> products = new ArrayList<>();
+        for (int i = 1; i <= 50; i++) {
+            products.add(product(i, "Item " + (i % 7) + " Model " + i, "Brand" + (i % 3), (i * 37 % 50) / 10.0));
+        }
+        index.indexAll(products);
+
+        ProductSuggestIndex oneByOne = new ProductSuggestIndex(productRepository, mock(EntityManager.class));
+        products.forEach(oneByOne::index);
+
+        for (String prefix : List.of("i", "it", "item 3", "m", "model 4", "b", "brand1")) {
+            assertEquals(oneByOne.suggest(prefix, 20).stream().map(SuggestionDTO::getText).toList(),
+                    index.suggest(prefix, 20).stream().map(SuggestionDTO::getText).toList(), prefix);
+        }
+    }
+
+    // ==================== REBUILD ====================
+
+    @Test
+    void rebuildKeepsChangesMadeWhileStreaming() throws Exception {
+        index.index(product(9, "Stale Gadget", null, 4.0));
+
+        CountDownLatch streaming = new CountDownLatch(1);
+        CountDownLatch updated = new CountDownLatch(1);
+        when(productRepository.streamAll()).thenReturn(Stream.of(
+                product(1, "Oak Table", "Woodly", 4.0),
+                product(2, "Oak Chair", "Woodly", 3.0)
+        ).peek(p -> {
+            if (p.getId() == 2L) {
+                streaming.countDown();
+                await(updated);
+            }
+        }));
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> rebuild = executor.submit(index::rebuild);
+            assertTrue(streaming.await(5, TimeUnit.SECONDS));
+
+            // Lookups and writes are not blocked by the rebuild
+            assertEquals(List.of("Stale Gadget"), texts("stale"));
+            index.updateRating(2L, 5.0);
+            index.index(product(3, "Oak Bench", "Woodly", 1.0));
+            updated.countDown();
+            rebuild.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(List.of(), texts("stale"));
+        assertEquals(List.of("Oak Chair", "Oak Table", "Oak Bench"), texts("oak"));
+        assertEquals(List.of("Woodly"), texts("wood"));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            throw new AssertionError(e);
+        }
+    }
+}
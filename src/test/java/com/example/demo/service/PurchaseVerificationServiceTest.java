@@ -0,0 +1,100 @@
+package com.example.demo.service;
+
+import com.example.demo.repository.OrderItemRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class PurchaseVerificationServiceTest {
+
+    private OrderItemRepository orderItemRepository;
+
+    @BeforeEach
+    void setUp() {
+        orderItemRepository = mock(OrderItemRepository.class);
+    }
+
+    // ==================== BLOOM FILTER ====================
+
+    @Test
+    void filterIsSizedForTheExpectedPairsAndRate() {
+        // m = -n ln(p) / ln(2)^2 bits, rounded up to whole words; k = m/n ln(2) hashes
+        PurchaseVerificationService.BloomFilter filter =
+                new PurchaseVerificationService.BloomFilter(1_000_000, 0.01);
+        assertEquals(9_585_088L, filter.bitCount());
+        assertEquals(7, filter.hashCount);
+
+        PurchaseVerificationService.BloomFilter tiny = new PurchaseVerificationService.BloomFilter(0, 0.5);
+        assertEquals(64L, tiny.bitCount());
+        assertTrue(tiny.hashCount >= 1);
+    }
+
+    @Test
+    void filterHasNoFalseNegativesAndAboutTheConfiguredFalsePositiveRate() {
+        PurchaseVerificationService.BloomFilter filter =
+                new PurchaseVerificationService.BloomFilter(10_000, 0.01);
+        for (long user = 1; user <= 100; user++) {
+            for (long product = 1; product <= 100; product++) {
+                filter.put(user, product);
+            }
+        }
+
+        for (long user = 1; user <= 100; user++) {
+            for (long product = 1; product <= 100; product++) {
+                assertTrue(filter.mightContain(user, product), user + "/" + product);
+            }
+        }
+
+        int falsePositives = 0;
+        for (long user = 101; user <= 200; user++) {
+            for (long product = 1; product <= 1000; product++) {
+                if (filter.mightContain(user, product)) falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 2_000, "false positive rate too high: " + falsePositives + " of 100000");
+    }
+
+    // ==================== PURCHASE CHECK ====================
+
+    @Test
+    void filterMissesSkipTheQueryOnceWarmed() {
+        when(orderItemRepository.streamPurchasePairs()).thenReturn(Stream.<Object[]>of(new Object[]{1L, 10L}));
+        when(orderItemRepository.existsByOrder_User_IdAndProduct_Id(1L, 10L)).thenReturn(true);
+        PurchaseVerificationService service = new PurchaseVerificationService(orderItemRepository, true, 1000, 0.01);
+
+        // Not warmed yet: everything goes to the database
+        assertFalse(service.hasPurchased(2L, 10L));
+        verify(orderItemRepository).existsByOrder_User_IdAndProduct_Id(2L, 10L);
+
+        service.warmUp();
+        service.recordPurchase(3L, List.of(30L));
+        clearInvocations(orderItemRepository);
+
+        assertTrue(service.hasPurchased(1L, 10L));
+        verify(orderItemRepository).existsByOrder_User_IdAndProduct_Id(1L, 10L);
+        assertFalse(service.hasPurchased(3L, 30L)); // a hit is still confirmed by the query
+        verify(orderItemRepository).existsByOrder_User_IdAndProduct_Id(3L, 30L);
+
+        assertFalse(service.hasPurchased(2L, 20L));
+        verify(orderItemRepository, never()).existsByOrder_User_IdAndProduct_Id(2L, 20L);
+    }
+
+    @Test
+    void disabledFilterAlwaysQueries() {
+        when(orderItemRepository.existsByOrder_User_IdAndProduct_Id(1L, 10L)).thenReturn(true);
+        PurchaseVerificationService service = new PurchaseVerificationService(orderItemRepository, false, 1000, 0.01);
+
+        service.warmUp();
+        service.recordPurchase(1L, List.of(10L));
+
+        assertTrue(service.hasPurchased(1L, 10L));
+        assertFalse(service.hasPurchased(2L, 20L));
+        verify(orderItemRepository, never()).streamPurchasePairs();
+        verify(orderItemRepository).existsByOrder_User_IdAndProduct_Id(2L, 20L);
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.demo.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedCacheTest {
+
+    // Reads a key that is not cached, which only feeds the frequency sketch
+    private static void request(BoundedCache<String, String> cache, String key, int times) {
+        for (int i = 0; i < times; i++) cache.getIfPresent(key);
+    }
+
+    // ==================== ADMISSION ====================
+
+    @Test
+    void windowEvicteeReplacesTheMainVictimOnlyWhenMoreFrequent() {
+        // Window of 1, main region of 99
+        BoundedCache<String, String> cache = new BoundedCache<>("test", 100);
+        for (int i = 0; i < 100; i++) cache.put("k" + i, "v");
+
+        request(cache, "popular", 5);
+        cache.put("popular", "v");
+        cache.put("cold", "v");      // pushes "popular" out of the window
+        cache.put("filler", "v");    // pushes "cold" out of the window
+
+        // "popular" beat the eldest probation entry, "cold" lost against the next one
+        assertTrue(cache.containsKey("popular"));
+        assertFalse(cache.containsKey("k0"));
+        assertFalse(cache.containsKey("cold"));
+        assertTrue(cache.containsKey("k1"));
+        assertEquals(100L, cache.estimatedSize());
+    }
+
+    @Test
+    void aOneOffScanDoesNotFlushPopularEntries() {
+        BoundedCache<String, String> cache = new BoundedCache<>("test", 100);
+        for (int i = 0; i < 50; i++) {
+            cache.put("hot" + i, "v");
+            request(cache, "hot" + i, 3);
+        }
+
+        for (int i = 0; i < 1000; i++) cache.put("scan" + i, "v");
+
+        for (int i = 0; i < 50; i++) {
+            assertTrue(cache.containsKey("hot" + i), "hot" + i);
+        }
+        assertEquals(100L, cache.estimatedSize());
+    }
+
+    @Test
+    void protectedOverflowIsDemotedBackToProbation() {
+        // Window of 1, main region of 9 of which 7 protected
+        BoundedCache<String, String> cache = new BoundedCache<>("test", 10);
+        for (int i = 0; i < 10; i++) cache.put("k" + i, "v");   // window k9, probation k0..k8
+
+        // Promoting eight entries overflows the protected segment: k0 goes back on probation
+        for (int i = 0; i < 8; i++) cache.getIfPresent("k" + i);
+
+        request(cache, "hot1", 5);
+        request(cache, "hot2", 5);
+        cache.put("hot1", "v");
+        cache.put("hot2", "v");
+        cache.put("filler", "v");
+
+        // Both admissions took probation victims (k8, then the demoted k0), not protected entries
+        assertFalse(cache.containsKey("k8"));
+        assertFalse(cache.containsKey("k0"));
+        for (int i = 1; i < 8; i++) {
+            assertTrue(cache.containsKey("k" + i), "k" + i);
+        }
+        assertTrue(cache.containsKey("hot1"));
+        assertTrue(cache.containsKey("hot2"));
+    }
+
+    // ==================== EXPIRY ====================
+
+    @Test
+    void entriesExpireAFixedTimeAfterTheyWereWritten() {
+        AtomicLong now = new AtomicLong();
+        BoundedCache<String, String> cache = new BoundedCache<>("test", 10, Duration.ofSeconds(60), now::get);
+
+        cache.put("a", "1");
+        now.set(Duration.ofSeconds(59).toNanos());
+        assertEquals("1", cache.getIfPresent("a"));
+
+        // Reads do not extend the lifetime, a rewrite does
+        cache.put("b", "2");
+        now.set(Duration.ofSeconds(60).toNanos());
+        assertFalse(cache.containsKey("a"));
+        assertNull(cache.getIfPresent("a"));
+        assertEquals("2", cache.getIfPresent("b"));
+
+        cache.put("a", "3");
+        now.set(Duration.ofSeconds(119).toNanos());
+        assertEquals("3", cache.getIfPresent("a"));
+        assertNull(cache.getIfPresent("b"));
+        assertEquals(1L, cache.estimatedSize());
+    }
+
+    // ==================== LOADING ====================
+
+    @Test
+    void getLoadsOnceAndCachesTheValue() {
+        BoundedCache<String, String> cache = new BoundedCache<>("test", 10);
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals("A", cache.get("a", key -> { loads.incrementAndGet(); return "A"; }));
+        assertEquals("A", cache.get("a", key -> { loads.incrementAndGet(); return "B"; }));
+        assertEquals(1, loads.get());
+        assertEquals(1L, cache.stats().get("hits"));
+        assertEquals(1L, cache.stats().get("misses"));
+    }
+
+    @Test
+    void aLoadRacingWithAnInvalidationIsNotCached() {
+        BoundedCache<String, String> cache = new BoundedCache<>("test", 10);
+
+        // The invalidation lands while the loader is still reading the old value
+        String loaded = cache.get("a", key -> {
+            cache.invalidate(key);
+            return "stale";
+        });
+        assertEquals("stale", loaded);
+        assertFalse(cache.containsKey("a"));
+
+        cache.get("b", key -> {
+            cache.invalidateAll();
+            return "stale";
+        });
+        assertFalse(cache.containsKey("b"));
+
+        // Loads that start after the invalidation are cached again
+        cache.get("a", key -> "fresh");
+        assertEquals("fresh", cache.getIfPresent("a"));
+    }
+
+    // ==================== SKETCH ====================
+
+    @Test
+    void sketchCountsSaturateAndAreHalvedWhenTheSampleFills() {
+        // Width 16, so counters are halved after 160 additions
+        BoundedCache.FrequencySketch sketch = new BoundedCache.FrequencySketch(16);
+        for (int i = 0; i < 20; i++) sketch.increment("hot");
+        assertEquals(15, sketch.frequency("hot"));
+        for (int i = 0; i < 12; i++) sketch.increment("warm");
+
+        int warmBefore = sketch.frequency("warm");
+        int noise = 0;
+        while (sketch.frequency("hot") == 15 && noise < 160) {
+            warmBefore = sketch.frequency("warm");
+            sketch.increment("noise" + noise++);
+        }
+
+        assertTrue(noise < 160, "counters were never aged");
+        assertEquals(7, sketch.frequency("hot"));
+        assertTrue(sketch.frequency("warm") <= (warmBefore + 1) / 2);
+    }
+}